@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2004 NNL Technology AB
+ * Visit www.infonode.net for information about InfoNode(R) 
+ * products and how to contact NNL Technology AB.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, 
+ * MA 02111-1307, USA.
+ */
+
+
+// $Id$
+package net.infonode.benchmark.docking;
+
+import net.infonode.docking.*;
+import net.infonode.docking.util.DockingUtil;
+import net.infonode.docking.util.ViewMap;
+import org.openjdk.jmh.annotations.*;
+
+import javax.swing.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks adding views to the tab windows of a root window on the event dispatch thread, with each view added as a
+ * separate operation (<tt>add</tt>) or all views added inside one {@link RootWindow#runBulk(Runnable)} scope
+ * (<tt>addBulk</tt>). A window listener is added to the root window to include the cost of event notification.
+ *
+ * @author $Author$
+ * @version $Revision$
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class BulkOperationBenchmark {
+  @Param({"500"})
+  public int viewCount;
+
+  private RootWindow rootWindow;
+  private TabWindow[] tabWindows;
+  private View[] views;
+  private int events;
+
+  @Setup(Level.Invocation)
+  public void setup() throws Exception {
+    SwingUtilities.invokeAndWait(new Runnable() {
+      public void run() {
+        ViewMap viewMap = new ViewMap();
+        views = new View[viewCount];
+
+        for (int i = 0; i < viewCount; i++) {
+          views[i] = new View("View " + i, null, new JLabel("Content " + i));
+          viewMap.addView(i, views[i]);
+        }
+
+        rootWindow = DockingUtil.createRootWindow(viewMap, true);
+        tabWindows = new TabWindow[]{new TabWindow(), new TabWindow(), new TabWindow(), new TabWindow()};
+        rootWindow.setWindow(new SplitWindow(true,
+                                             new SplitWindow(false, tabWindows[0], tabWindows[1]),
+                                             new SplitWindow(false, tabWindows[2], tabWindows[3])));
+        rootWindow.addListener(new DockingWindowAdapter() {
+          public void windowAdded(DockingWindow addedToWindow, DockingWindow addedWindow) {
+            events++;
+          }
+
+          public void windowShown(DockingWindow window) {
+            events++;
+          }
+        });
+        rootWindow.setSize(1200, 800);
+      }
+    });
+  }
+
+  private void addViews() {
+    for (int i = 0; i < views.length; i++)
+      tabWindows[i % tabWindows.length].addTab(views[i]);
+  }
+
+  @Benchmark
+  public int add() throws Exception {
+    SwingUtilities.invokeAndWait(new Runnable() {
+      public void run() {
+        addViews();
+      }
+    });
+    return events;
+  }
+
+  @Benchmark
+  public int addBulk() throws Exception {
+    SwingUtilities.invokeAndWait(new Runnable() {
+      public void run() {
+        rootWindow.runBulk(new Runnable() {
+          public void run() {
+            addViews();
+          }
+        });
+      }
+    });
+    return events;
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2004 NNL Technology AB
+ * Visit www.infonode.net for information about InfoNode(R) 
+ * products and how to contact NNL Technology AB.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, 
+ * MA 02111-1307, USA.
+ */
+
+
+// $Id$
+package net.infonode.benchmark.docking;
+
+import net.infonode.docking.*;
+import net.infonode.docking.util.DockingUtil;
+import net.infonode.docking.util.ViewMap;
+import org.openjdk.jmh.annotations.*;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the latency from a keyboard focus transfer to another view until the root window reports the new
+ * focused view, with and without immediate focus tracking. Focus can't be transferred in a headless environment, so a
+ * keyboard focus manager that sets the focus owner directly is installed. Like a real focus transfer, the focus owner
+ * first changes to null and then to the new component.
+ *
+ * @author $Author$
+ * @version $Revision$
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class FocusLatencyBenchmark {
+  private static final int VIEW_COUNT = 8;
+
+  @Param({"false", "true"})
+  public boolean immediate;
+
+  private static class DirectFocusManager extends DefaultKeyboardFocusManager {
+    private Component focusOwner;
+
+    public Component getFocusOwner() {
+      return focusOwner;
+    }
+
+    void setFocusOwner(Component component) {
+      Component oldFocusOwner = focusOwner;
+      focusOwner = component;
+      firePropertyChange("focusOwner", oldFocusOwner, component);
+    }
+  }
+
+  private static final Runnable NOOP = new Runnable() {
+    public void run() {
+    }
+  };
+
+  private DirectFocusManager focusManager;
+  private RootWindow rootWindow;
+  private View[] views;
+  private JComponent[] components;
+  private int next;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    SwingUtilities.invokeAndWait(new Runnable() {
+      public void run() {
+        // Must be installed before the first root window is created
+        focusManager = new DirectFocusManager();
+        KeyboardFocusManager.setCurrentKeyboardFocusManager(focusManager);
+
+        ViewMap viewMap = new ViewMap();
+        views = new View[VIEW_COUNT];
+        components = new JComponent[VIEW_COUNT];
+
+        for (int i = 0; i < VIEW_COUNT; i++) {
+          components[i] = new JLabel("Content " + i);
+          JPanel panel = new JPanel(new BorderLayout());
+          panel.add(new JScrollPane(components[i]));
+          views[i] = new View("View " + i, null, panel);
+          viewMap.addView(i, views[i]);
+        }
+
+        rootWindow = DockingUtil.createRootWindow(viewMap, true);
+        rootWindow.getRootWindowProperties().setImmediateFocusTrackingEnabled(immediate);
+        rootWindow.setWindow(new SplitWindow(true,
+                                             new TabWindow(new DockingWindow[]{views[0], views[1], views[2], views[3]}),
+                                             new TabWindow(new DockingWindow[]{views[4], views[5], views[6], views[7]})));
+        rootWindow.setSize(1200, 800);
+      }
+    });
+  }
+
+  @Benchmark
+  public View switchFocus() throws Exception {
+    final int index = next;
+    next = (next + 1) % VIEW_COUNT;
+
+    EventQueue.invokeLater(new Runnable() {
+      public void run() {
+        focusManager.setFocusOwner(null);
+      }
+    });
+    EventQueue.invokeLater(new Runnable() {
+      public void run() {
+        focusManager.setFocusOwner(components[index]);
+      }
+    });
+
+    while (rootWindow.getFocusedView() != views[index])
+      SwingUtilities.invokeAndWait(NOOP);
+
+    return views[index];
+  }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2004 NNL Technology AB
+ * Visit www.infonode.net for information about InfoNode(R) 
+ * products and how to contact NNL Technology AB.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, 
+ * MA 02111-1307, USA.
+ */
+
+// $Id$
+package net.infonode.benchmark.docking;
+
+import net.infonode.docking.*;
+import net.infonode.docking.util.DockingUtil;
+import net.infonode.docking.util.ViewMap;
+import net.infonode.util.Direction;
+import org.openjdk.jmh.annotations.*;
+
+import javax.swing.*;
+import java.io.*;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for writing and reading the window state of a root window with 200 views in 10 tab windows, including
+ * property values. The <tt>size</tt> benchmark reports the size of the written state in the <tt>bytes</tt> counter.
+ * The setup verifies that the state survives a round trip, i.e. that a state read from the tested format is written
+ * identically in the legacy format, both when it's read directly and when it's applied from a prepared layout.
+ * <p>
+ * The <tt>read</tt> benchmark reads the state on the event dispatch thread. It is split into <tt>prepare</tt>, which
+ * reads and decodes the state into a {@link PreparedLayout} on the benchmark thread, and <tt>apply</tt>, which creates
+ * the windows of a prepared layout on the event dispatch thread. The decoding cost is thus reported by
+ * <tt>prepare</tt> and the event dispatch thread cost by <tt>apply</tt>. All other operations run on the event dispatch
+ * thread.
+ *
+ * @author $Author$
+ * @version $Revision$
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class LayoutSerializationBenchmark {
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Size {
+    public long bytes;
+  }
+
+  @State(Scope.Thread)
+  public static class Prepared {
+    private PreparedLayout layout;
+
+    @Setup(Level.Invocation)
+    public void prepare(LayoutSerializationBenchmark benchmark) throws IOException {
+      layout = benchmark.prepare();
+    }
+  }
+
+  @Param({"200"})
+  public int viewCount;
+
+  @Param({"LEGACY", "COMPACT", "COMPACT_COMPRESSED"})
+  public String format;
+
+  private LayoutFormat layoutFormat;
+  private RootWindow writeRootWindow;
+  private RootWindow readRootWindow;
+  private byte[] state;
+  private byte[] result;
+
+  @Setup
+  public void setup() throws Exception {
+    layoutFormat = LayoutFormat.valueOf(format);
+
+    SwingUtilities.invokeAndWait(new Runnable() {
+      public void run() {
+        try {
+          writeRootWindow = createRootWindow();
+          readRootWindow = createRootWindow();
+          state = write(writeRootWindow, layoutFormat);
+          read(readRootWindow, state);
+
+          if (!Arrays.equals(write(writeRootWindow, LayoutFormat.LEGACY), write(readRootWindow, LayoutFormat.LEGACY)))
+            throw new IllegalStateException("The window state changed in a round trip!");
+        }
+        catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    });
+
+    final PreparedLayout layout = prepare();
+
+    SwingUtilities.invokeAndWait(new Runnable() {
+      public void run() {
+        try {
+          RootWindow rootWindow = createRootWindow();
+          rootWindow.read(layout, true);
+
+          if (!Arrays.equals(write(writeRootWindow, LayoutFormat.LEGACY), write(rootWindow, LayoutFormat.LEGACY)))
+            throw new IllegalStateException("The window state changed in a round trip through a prepared layout!");
+        }
+        catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    });
+  }
+
+  private RootWindow createRootWindow() {
+    ViewMap viewMap = new ViewMap();
+
+    for (int i = 0; i < viewCount; i++)
+      viewMap.addView(i, new View("View " + i, null, new JLabel("Content " + i)));
+
+    RootWindow rootWindow = DockingUtil.createRootWindow(viewMap, true);
+    int tabWindowCount = 10;
+    DockingWindow window = null;
+
+    for (int i = 0; i < tabWindowCount; i++) {
+      TabWindow tabWindow = new TabWindow();
+
+      for (int j = i; j < viewCount; j += tabWindowCount) {
+        View view = viewMap.getView(j);
+        tabWindow.addTab(view);
+        view.getWindowProperties().setCloseEnabled(j % 2 == 0);
+      }
+
+      tabWindow.getTabWindowProperties().getTabbedPanelProperties().setTabAreaOrientation(
+          i % 2 == 0 ? Direction.UP : Direction.DOWN);
+      window = window == null ? tabWindow : new SplitWindow(i % 2 == 0, 0.4f, window, tabWindow);
+    }
+
+    rootWindow.setWindow(window);
+    return rootWindow;
+  }
+
+  private static byte[] write(RootWindow rootWindow, LayoutFormat format) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ObjectOutputStream out = new ObjectOutputStream(bytes);
+    rootWindow.write(out, true, format);
+    out.close();
+    return bytes.toByteArray();
+  }
+
+  private static void read(RootWindow rootWindow, byte[] state) throws IOException {
+    ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(state));
+    rootWindow.read(in, true);
+    in.close();
+  }
+
+  @Benchmark
+  public byte[] write() throws Exception {
+    SwingUtilities.invokeAndWait(new Runnable() {
+      public void run() {
+        try {
+          result = write(writeRootWindow, layoutFormat);
+        }
+        catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    });
+    return result;
+  }
+
+  @Benchmark
+  public RootWindow read() throws Exception {
+    SwingUtilities.invokeAndWait(new Runnable() {
+      public void run() {
+        try {
+          read(readRootWindow, state);
+        }
+        catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    });
+    return readRootWindow;
+  }
+
+  @Benchmark
+  public PreparedLayout prepare() throws IOException {
+    return new PreparedLayout(new ByteArrayInputStream(state));
+  }
+
+  @Benchmark
+  public RootWindow apply(final Prepared prepared) throws Exception {
+    SwingUtilities.invokeAndWait(new Runnable() {
+      public void run() {
+        try {
+          readRootWindow.read(prepared.layout, true);
+        }
+        catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    });
+    return readRootWindow;
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @Warmup(iterations = 0)
+  @Measurement(iterations = 1)
+  public byte[] size(Size size) throws Exception {
+    byte[] data = write();
+    size.bytes = data.length;
+    return data;
+  }
+}
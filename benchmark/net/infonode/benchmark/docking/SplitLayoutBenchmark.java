@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2004 NNL Technology AB
+ * Visit www.infonode.net for information about InfoNode(R) 
+ * products and how to contact NNL Technology AB.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, 
+ * MA 02111-1307, USA.
+ */
+
+// $Id$
+package net.infonode.benchmark.docking;
+
+import net.infonode.docking.*;
+import net.infonode.docking.util.DockingUtil;
+import net.infonode.docking.util.ViewMap;
+import org.openjdk.jmh.annotations.*;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the layout of a row of views after the root window has been resized. The views are either placed in a
+ * tree of nested {@link SplitWindow}'s or in a single {@link MultiSplitWindow}. The layout runs on the event dispatch
+ * thread.
+ *
+ * @author $Author$
+ * @version $Revision$
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class SplitLayoutBenchmark {
+  @Param({"8", "32"})
+  public int viewCount;
+
+  @Param({"NESTED", "MULTI"})
+  public String split;
+
+  private RootWindow rootWindow;
+  private int width;
+
+  @Setup
+  public void setup() throws Exception {
+    SwingUtilities.invokeAndWait(new Runnable() {
+      public void run() {
+        ViewMap viewMap = new ViewMap();
+        DockingWindow[] views = new DockingWindow[viewCount];
+
+        for (int i = 0; i < viewCount; i++) {
+          views[i] = new View("View " + i, null, new JLabel("Content " + i));
+          viewMap.addView(i, (View) views[i]);
+        }
+
+        rootWindow = DockingUtil.createRootWindow(viewMap, true);
+        rootWindow.setWindow("MULTI".equals(split) ? (DockingWindow) new MultiSplitWindow(true, views) :
+                             createNestedSplit(views, 0));
+        rootWindow.setSize(1600, 800);
+        layout(rootWindow);
+      }
+    });
+  }
+
+  private static DockingWindow createNestedSplit(DockingWindow[] windows, int index) {
+    return index == windows.length - 1 ?
+           windows[index] :
+           new SplitWindow(true, 1f / (windows.length - index), windows[index], createNestedSplit(windows, index + 1));
+  }
+
+  private static void layout(Component component) {
+    if (component instanceof Container) {
+      Container container = (Container) component;
+      container.doLayout();
+
+      for (int i = 0; i < container.getComponentCount(); i++)
+        layout(container.getComponent(i));
+    }
+  }
+
+  @Benchmark
+  public RootWindow resize() throws Exception {
+    SwingUtilities.invokeAndWait(new Runnable() {
+      public void run() {
+        width = width == 1600 ? 1601 : 1600;
+        rootWindow.setSize(width, 800);
+        layout(rootWindow);
+      }
+    });
+    return rootWindow;
+  }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2004 NNL Technology AB
+ * Visit www.infonode.net for information about InfoNode(R) 
+ * products and how to contact NNL Technology AB.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, 
+ * MA 02111-1307, USA.
+ */
+
+
+// $Id$
+package net.infonode.benchmark.docking;
+
+import net.infonode.docking.*;
+import net.infonode.docking.util.DockingUtil;
+import net.infonode.docking.util.ViewMap;
+import org.openjdk.jmh.annotations.*;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks a listener that keeps a list of the titles of all windows up to date, like a window menu, while switching
+ * between the tabs of a tab window at the bottom of a deep window tree. Each tab switch fires a hidden and a shown
+ * event. With the <tt>listener</tt> mode the list is rebuilt by a {@link DockingWindowListener} on every event, with
+ * the <tt>structureListener</tt> mode it's rebuilt by a {@link WindowStructureListener} once per batch of changes.
+ * The <tt>fireEvents</tt> benchmark only fires the hidden and shown events of a view at the bottom of the tree, which
+ * measures the propagation of the events to the root window without the cost of the tab switches.
+ *
+ * @author $Author$
+ * @version $Revision$
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class WindowEventBenchmark {
+  private static final int TAB_COUNT = 50;
+  private static final int SWITCHES = 100;
+
+  @Param({"16", "64"})
+  public int depth;
+
+  @Param({"listener", "structureListener"})
+  public String mode;
+
+  /**
+   * A view that can fire its own hidden and shown events.
+   */
+  private static class EventView extends View {
+    private static final long serialVersionUID = 1;
+
+    EventView(String title, JComponent component) {
+      super(title, null, component);
+    }
+
+    void fireHiddenAndShown() {
+      fireWindowHidden(this);
+      fireWindowShown(this);
+    }
+  }
+
+  private RootWindow rootWindow;
+  private TabWindow tabWindow;
+  private EventView eventView;
+  private ArrayList titles = new ArrayList();
+
+  private RootWindow createRootWindow() {
+    ViewMap viewMap = new ViewMap();
+    View[] views = new View[TAB_COUNT + depth];
+
+    for (int i = 0; i < views.length; i++) {
+      views[i] = new EventView("View " + i, new JLabel("Content " + i));
+      viewMap.addView(i, views[i]);
+    }
+
+    eventView = (EventView) views[0];
+
+    RootWindow root = DockingUtil.createRootWindow(viewMap, true);
+    DockingWindow[] tabs = new DockingWindow[TAB_COUNT];
+    System.arraycopy(views, 0, tabs, 0, TAB_COUNT);
+    tabWindow = new TabWindow(tabs);
+    DockingWindow window = tabWindow;
+
+    for (int i = 0; i < depth; i++)
+      window = new SplitWindow(i % 2 == 0, window, views[TAB_COUNT + i]);
+
+    root.setWindow(window);
+    root.setSize(1200, 800);
+    return root;
+  }
+
+  private void updateTitles() {
+    titles.clear();
+    addTitles(rootWindow);
+  }
+
+  private void addTitles(DockingWindow window) {
+    titles.add(window.getTitle());
+
+    for (int i = 0; i < window.getChildWindowCount(); i++)
+      addTitles(window.getChildWindow(i));
+  }
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    SwingUtilities.invokeAndWait(new Runnable() {
+      public void run() {
+        rootWindow = createRootWindow();
+
+        if (mode.equals("listener"))
+          rootWindow.addListener(new DockingWindowAdapter() {
+            public void windowShown(DockingWindow window) {
+              updateTitles();
+            }
+
+            public void windowHidden(DockingWindow window) {
+              updateTitles();
+            }
+          });
+        else
+          rootWindow.addStructureListener(new WindowStructureListener() {
+            public void windowStructureChanged(WindowStructureEvent event) {
+              updateTitles();
+            }
+          });
+      }
+    });
+  }
+
+  @Benchmark
+  public int switchTabs() throws Exception {
+    // Includes the delivery of the batched changes, which runs after the tab switches
+    SwingUtilities.invokeAndWait(new Runnable() {
+      public void run() {
+        for (int i = 0; i < SWITCHES; i++)
+          tabWindow.setSelectedTab(i % TAB_COUNT);
+      }
+    });
+    SwingUtilities.invokeAndWait(new Runnable() {
+      public void run() {
+      }
+    });
+    return titles.size();
+  }
+
+  @Benchmark
+  public int fireEvents() throws Exception {
+    // Includes the delivery of the batched changes, which have no net change
+    SwingUtilities.invokeAndWait(new Runnable() {
+      public void run() {
+        for (int i = 0; i < SWITCHES; i++)
+          eventView.fireHiddenAndShown();
+      }
+    });
+    SwingUtilities.invokeAndWait(new Runnable() {
+      public void run() {
+      }
+    });
+    return titles.size();
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2004 NNL Technology AB
+ * Visit www.infonode.net for information about InfoNode(R) 
+ * products and how to contact NNL Technology AB.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, 
+ * MA 02111-1307, USA.
+ */
+
+
+// $Id$
+package net.infonode.benchmark.properties;
+
+import net.infonode.docking.RootWindow;
+import net.infonode.docking.View;
+import net.infonode.docking.util.DockingUtil;
+import net.infonode.docking.util.ViewMap;
+import net.infonode.properties.propertymap.PropertyMapManager;
+import net.infonode.tabbedpanel.TabbedPanel;
+import net.infonode.tabbedpanel.titledtab.TitledTab;
+import org.openjdk.jmh.annotations.*;
+
+import javax.swing.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for creating views, root windows and titled tabs, which all add tree listeners to their property maps.
+ * Child property maps are only created when they are accessed, so the number of created maps depends on which
+ * properties the components read. The number of created child maps and the number of operations are reported as
+ * the <tt>childMaps</tt> and <tt>operations</tt> counters, their ratio is the number of child maps per operation.
+ *
+ * @author $Author$
+ * @version $Revision$
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class ChildMapBenchmark {
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class ChildMaps {
+    public long childMaps;
+    public long operations;
+
+    private long startCount;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      childMaps = 0;
+      operations = 0;
+    }
+
+    void begin() {
+      startCount = PropertyMapManager.getInstance().getChildMapCount();
+    }
+
+    void end() {
+      childMaps += PropertyMapManager.getInstance().getChildMapCount() - startCount;
+      operations++;
+    }
+  }
+
+  @Param({"20"})
+  public int count;
+
+  @Benchmark
+  public View createView(ChildMaps childMaps) {
+    childMaps.begin();
+    View view = new View("View", null, new JLabel("Content"));
+    childMaps.end();
+    return view;
+  }
+
+  @Benchmark
+  public RootWindow createRootWindow(ChildMaps childMaps) {
+    childMaps.begin();
+    ViewMap views = new ViewMap();
+
+    for (int i = 0; i < count; i++)
+      views.addView(i, new View("View " + i, null, new JLabel("Content " + i)));
+
+    RootWindow rootWindow = DockingUtil.createRootWindow(views, true);
+    childMaps.end();
+    return rootWindow;
+  }
+
+  @Benchmark
+  public TabbedPanel createTitledTabs(ChildMaps childMaps) {
+    childMaps.begin();
+    TabbedPanel tabbedPanel = new TabbedPanel();
+
+    for (int i = 0; i < count; i++)
+      tabbedPanel.addTab(new TitledTab("Tab " + i, null, new JLabel("Content " + i), null));
+
+    childMaps.end();
+    return tabbedPanel;
+  }
+}
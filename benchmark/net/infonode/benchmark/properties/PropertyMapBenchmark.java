@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2004 NNL Technology AB
+ * Visit www.infonode.net for information about InfoNode(R) 
+ * products and how to contact NNL Technology AB.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, 
+ * MA 02111-1307, USA.
+ */
+
+
+// $Id$
+package net.infonode.benchmark.properties;
+
+import net.infonode.docking.properties.DockingWindowProperties;
+import net.infonode.docking.properties.RootWindowProperties;
+import net.infonode.docking.properties.TabWindowProperties;
+import net.infonode.docking.properties.WindowTabProperties;
+import net.infonode.docking.theme.ShapedGradientDockingTheme;
+import net.infonode.properties.gui.util.ComponentProperties;
+import net.infonode.properties.propertymap.PropertyMap;
+import net.infonode.properties.propertymap.PropertyMapManager;
+import net.infonode.properties.propertymap.PropertyMapTreeListener;
+import net.infonode.properties.util.PropertyChangeListener;
+import net.infonode.properties.base.Property;
+import net.infonode.tabbedpanel.titledtab.TitledTabStateProperties;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.awt.*;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the property map engine. The benchmark state builds the same kind of map hierarchy as a root
+ * window with a theme: root window properties with theme properties as super map, tab window properties inheriting
+ * from the root window and one window tab property map per tab, inheriting from both the tab window and the
+ * window properties. Each tab map has a tree listener and a property change listener like the tab components have.
+ * The value cache of the tab maps is enabled or disabled depending on the <tt>valueCache</tt> parameter.
+ *
+ * @author $Author$
+ * @version $Revision$
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PropertyMapBenchmark {
+  @State(Scope.Thread)
+  public static class Hierarchy {
+    @Param({"20"})
+    public int tabCount;
+
+    @Param({"false", "true"})
+    public boolean valueCache;
+
+    RootWindowProperties rootProperties;
+    TabWindowProperties tabWindowProperties;
+    WindowTabProperties[] tabProperties;
+    byte[] serializedRootProperties;
+    int counter;
+
+    @Setup
+    public void setup() throws IOException {
+      rootProperties = RootWindowProperties.createDefault();
+      rootProperties.addSuperObject(new ShapedGradientDockingTheme().getRootWindowProperties());
+      rootProperties.getTabWindowProperties().getTabProperties().getTitledTabProperties().getNormalProperties()
+          .getComponentProperties().setForegroundColor(Color.BLACK);
+
+      tabWindowProperties = new TabWindowProperties(rootProperties.getTabWindowProperties());
+      tabProperties = new WindowTabProperties[tabCount];
+
+      PropertyMapTreeListener treeListener = new PropertyMapTreeListener() {
+        public void propertyValuesChanged(Map changes) {
+        }
+      };
+
+      PropertyChangeListener propertyListener = new PropertyChangeListener() {
+        public void propertyChanged(Property property, Object valueContainer, Object oldValue, Object newValue) {
+        }
+      };
+
+      for (int i = 0; i < tabCount; i++) {
+        DockingWindowProperties windowProperties = new DockingWindowProperties(
+            rootProperties.getDockingWindowProperties());
+        windowProperties.getTabProperties().getTitledTabProperties().getNormalProperties().setText("View " + i);
+
+        tabProperties[i] = new WindowTabProperties(tabWindowProperties.getTabProperties());
+        tabProperties[i].addSuperObject(windowProperties.getTabProperties());
+        tabProperties[i].getMap().addTreeListener(treeListener);
+        tabProperties[i].getTitledTabProperties().getNormalProperties().getComponentProperties().getMap()
+            .addPropertyChangeListener(ComponentProperties.FOREGROUND_COLOR, propertyListener);
+        tabProperties[i].getMap().setValueCacheEnabled(valueCache, true);
+      }
+
+      serializedRootProperties = serialize(rootProperties.getMap());
+    }
+  }
+
+  private static byte[] serialize(PropertyMap map) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ObjectOutputStream out = new ObjectOutputStream(bytes);
+    map.write(out);
+    out.close();
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Reads values inherited through super maps the way a titled tab does when it's painted.
+   */
+  @Benchmark
+  public void resolveInheritedValues(Hierarchy state, Blackhole blackhole) {
+    for (int i = 0; i < state.tabProperties.length; i++) {
+      TitledTabStateProperties normal = state.tabProperties[i].getTitledTabProperties().getNormalProperties();
+      blackhole.consume(normal.getComponentProperties().getForegroundColor());
+      blackhole.consume(normal.getComponentProperties().getFont());
+      blackhole.consume(normal.getText());
+      blackhole.consume(normal.getIconTextGap());
+      blackhole.consume(normal.getShapedPanelProperties().getComponentPainter());
+    }
+  }
+
+  /**
+   * Reads values that are resolved through relative references, the highlighted state refers to the normal state.
+   */
+  @Benchmark
+  public void resolveReferenceValues(Hierarchy state, Blackhole blackhole) {
+    for (int i = 0; i < state.tabProperties.length; i++) {
+      TitledTabStateProperties highlighted = state.tabProperties[i].getTitledTabProperties()
+          .getHighlightedProperties();
+      blackhole.consume(highlighted.getText());
+      blackhole.consume(highlighted.getIcon());
+      blackhole.consume(highlighted.getToolTipText());
+    }
+  }
+
+  /**
+   * Modifies a value in the tab window properties inside a batch, the change is propagated to all tab maps.
+   */
+  @Benchmark
+  public void setValueInBatch(Hierarchy state) {
+    PropertyMapManager.getInstance().beginBatch();
+
+    try {
+      ComponentProperties properties = state.tabWindowProperties.getTabProperties().getTitledTabProperties()
+          .getNormalProperties().getComponentProperties();
+      properties.setForegroundColor((state.counter++ & 1) == 0 ? Color.RED : Color.BLUE);
+      properties.setBackgroundColor((state.counter & 1) == 0 ? Color.WHITE : Color.GRAY);
+    }
+    finally {
+      PropertyMapManager.getInstance().endBatch();
+    }
+  }
+
+  /**
+   * Modifies a value in every tab map, each change is fired to the listeners of that map.
+   */
+  @Benchmark
+  public void listenerFanOut(Hierarchy state) {
+    Color color = (state.counter++ & 1) == 0 ? Color.RED : Color.BLUE;
+
+    for (int i = 0; i < state.tabProperties.length; i++)
+      state.tabProperties[i].getTitledTabProperties().getNormalProperties().getComponentProperties()
+          .setForegroundColor(color);
+  }
+
+  @Benchmark
+  public PropertyMap copy(Hierarchy state) {
+    return state.tabProperties[0].getMap().copy(true, true);
+  }
+
+  @Benchmark
+  public byte[] write(Hierarchy state) throws IOException {
+    return serialize(state.rootProperties.getMap());
+  }
+
+  @Benchmark
+  public RootWindowProperties read(Hierarchy state) throws IOException {
+    RootWindowProperties properties = new RootWindowProperties();
+    ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(state.serializedRootProperties));
+    properties.getMap().read(in);
+    in.close();
+    return properties;
+  }
+}
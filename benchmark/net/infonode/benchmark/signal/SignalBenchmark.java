@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2004 NNL Technology AB
+ * Visit www.infonode.net for information about InfoNode(R) 
+ * products and how to contact NNL Technology AB.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, 
+ * MA 02111-1307, USA.
+ */
+
+
+// $Id$
+package net.infonode.benchmark.signal;
+
+import net.infonode.util.signal.Signal;
+import net.infonode.util.signal.SignalListener;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for emitting a signal to 1, 10 and 100 listeners, either strongly or weakly referenced. Run with the
+ * GC profiler to check that emitting doesn't allocate.
+ *
+ * @author $Author$
+ * @version $Revision$
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SignalBenchmark {
+  @Param({"1", "10", "100"})
+  public int listenerCount;
+
+  @Param({"false", "true"})
+  public boolean weak;
+
+  private Signal signal;
+  private SignalListener[] listeners;
+  private int count;
+
+  @Setup
+  public void setup() {
+    signal = new Signal();
+    listeners = new SignalListener[listenerCount];
+
+    for (int i = 0; i < listenerCount; i++) {
+      listeners[i] = new SignalListener() {
+        public void signalEmitted(Signal signal, Object object) {
+          count++;
+        }
+      };
+
+      if (weak)
+        signal.getHook().addWeak(listeners[i]);
+      else
+        signal.getHook().add(listeners[i]);
+    }
+  }
+
+  @Benchmark
+  public int emit() {
+    signal.emit(this);
+    return count;
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2004 NNL Technology AB
+ * Visit www.infonode.net for information about InfoNode(R) 
+ * products and how to contact NNL Technology AB.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, 
+ * MA 02111-1307, USA.
+ */
+
+// $Id$
+package net.infonode.benchmark.tabbedpanel;
+
+import net.infonode.tabbedpanel.TabbedPanel;
+import net.infonode.tabbedpanel.titledtab.TitledTab;
+import org.openjdk.jmh.annotations.*;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for selecting tabs in a tabbed panel with 500 tabs. With a negative tab spacing the tabs overlap and the
+ * paint order of the tabs is updated when the highlighted tab changes. The tabbed panel is added to a root container
+ * that validates its invalid descendants like a window does, without needing a peer. All operations are performed on
+ * the event dispatch thread.
+ *
+ * @author $Author$
+ * @version $Revision$
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class TabSelectionBenchmark {
+  /**
+   * Container that validates its tree without a peer, {@link Container#validate()} does nothing until the container is
+   * displayable.
+   */
+  private static class RootContainer extends Container {
+    private static final long serialVersionUID = 1;
+
+    public void validate() {
+      synchronized (getTreeLock()) {
+        validateTree();
+      }
+    }
+  }
+
+  private final Runnable selectNextTab = new Runnable() {
+    public void run() {
+      counter = (counter + 97) % tabCount;
+      tabbedPanel.setSelectedTab(tabbedPanel.getTabAt(counter));
+      container.validate();
+    }
+  };
+
+  @Param({"500"})
+  public int tabCount;
+
+  @Param({"-1", "0"})
+  public int tabSpacing;
+
+  private RootContainer container;
+  private TabbedPanel tabbedPanel;
+  private int counter;
+
+  @Setup
+  public void setup() throws Exception {
+    SwingUtilities.invokeAndWait(new Runnable() {
+      public void run() {
+        createTabbedPanel();
+      }
+    });
+  }
+
+  private void createTabbedPanel() {
+    container = new RootContainer();
+    container.setLayout(new BorderLayout());
+
+    tabbedPanel = new TabbedPanel();
+    tabbedPanel.getProperties().setTabSpacing(tabSpacing);
+
+    for (int i = 0; i < tabCount; i++)
+      tabbedPanel.addTab(new TitledTab("Tab " + i, null, new JLabel("Content " + i), null));
+
+    container.add(tabbedPanel);
+    container.setSize(800, 600);
+    container.validate();
+  }
+
+  /**
+   * Selects tabs spread over the tab area and validates the tabbed panel after each selection.
+   */
+  @Benchmark
+  public TabbedPanel selectTab() throws Exception {
+    SwingUtilities.invokeAndWait(selectNextTab);
+    return tabbedPanel;
+  }
+}
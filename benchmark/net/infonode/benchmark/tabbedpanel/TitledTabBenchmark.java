@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2004 NNL Technology AB
+ * Visit www.infonode.net for information about InfoNode(R) 
+ * products and how to contact NNL Technology AB.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, 
+ * MA 02111-1307, USA.
+ */
+
+
+// $Id$
+package net.infonode.benchmark.tabbedpanel;
+
+import net.infonode.tabbedpanel.TabbedPanel;
+import net.infonode.tabbedpanel.titledtab.TitledTab;
+import net.infonode.tabbedpanel.titledtab.TitledTabSizePolicy;
+import org.openjdk.jmh.annotations.*;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for creating a tabbed panel with 1000 titled tabs and laying it out. The <tt>footprint</tt> benchmark
+ * reports the number of components and the number of bytes retained by the tabbed panel as the <tt>components</tt>
+ * and <tt>retainedBytes</tt> counters. The selected tab is highlighted, all other tabs are in the normal state. The
+ * setup checks that the laid out tabbed panel has fewer components than one where every tab has been highlighted and
+ * disabled, which creates all state panels.
+ *
+ * @author $Author$
+ * @version $Revision$
+ */
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class TitledTabBenchmark {
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Footprint {
+    public long components;
+    public long retainedBytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      components = 0;
+      retainedBytes = 0;
+    }
+  }
+
+  @Param({"1000"})
+  public int tabCount;
+
+  @Param({"INDIVIDUAL_SIZE", "EQUAL_SIZE"})
+  public String sizePolicy;
+
+  @Setup(Level.Trial)
+  public void checkComponentCount() {
+    int components = countComponents(createTabbedPanel(false));
+    int allStatesComponents = countComponents(createTabbedPanel(true));
+
+    if (components >= allStatesComponents)
+      throw new IllegalStateException("The tabbed panel has " + components +
+                                      " components after layout, with all state panels it has " +
+                                      allStatesComponents + ".");
+  }
+
+  private TabbedPanel createTabbedPanel() {
+    return createTabbedPanel(false);
+  }
+
+  private TabbedPanel createTabbedPanel(boolean createAllStates) {
+    TitledTabSizePolicy policy = "EQUAL_SIZE".equals(sizePolicy) ?
+                                 TitledTabSizePolicy.EQUAL_SIZE : TitledTabSizePolicy.INDIVIDUAL_SIZE;
+    TabbedPanel tabbedPanel = new TabbedPanel();
+
+    for (int i = 0; i < tabCount; i++) {
+      TitledTab tab = new TitledTab("Tab " + i, null, new JLabel("Content " + i), null);
+      tab.getProperties().setSizePolicy(policy);
+      tabbedPanel.addTab(tab);
+
+      if (createAllStates) {
+        tab.setEnabled(false);
+        tab.setEnabled(true);
+        tabbedPanel.setHighlightedTab(tab);
+      }
+    }
+
+    if (createAllStates)
+      tabbedPanel.setHighlightedTab(tabbedPanel.getSelectedTab());
+
+    tabbedPanel.setSize(tabbedPanel.getPreferredSize());
+    layout(tabbedPanel);
+    return tabbedPanel;
+  }
+
+  private static void layout(Component component) {
+    if (component instanceof Container) {
+      Container container = (Container) component;
+      container.doLayout();
+
+      for (int i = 0; i < container.getComponentCount(); i++)
+        layout(container.getComponent(i));
+    }
+  }
+
+  private static int countComponents(Component component) {
+    int count = 1;
+
+    if (component instanceof Container) {
+      Container container = (Container) component;
+
+      for (int i = 0; i < container.getComponentCount(); i++)
+        count += countComponents(container.getComponent(i));
+    }
+
+    return count;
+  }
+
+  private static long getUsedMemory() {
+    for (int i = 0; i < 3; i++)
+      System.gc();
+
+    return Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public TabbedPanel create() {
+    return createTabbedPanel();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Warmup(iterations = 2)
+  @Measurement(iterations = 5)
+  public TabbedPanel footprint(Footprint footprint) {
+    long before = getUsedMemory();
+    TabbedPanel tabbedPanel = createTabbedPanel();
+    footprint.retainedBytes = getUsedMemory() - before;
+    footprint.components = countComponents(tabbedPanel);
+    return tabbedPanel;
+  }
+}
@@ -25,6 +25,7 @@ package net.infonode.docking;
 
 import java.awt.Dimension;
 import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.io.IOException;
@@ -41,7 +42,6 @@ import net.infonode.docking.internal.WindowAncestors;
 import net.infonode.docking.internal.WriteContext;
 import net.infonode.docking.internalutil.DropAction;
 import net.infonode.docking.model.AbstractTabWindowItem;
-import net.infonode.docking.model.ViewReader;
 import net.infonode.docking.model.ViewWriter;
 import net.infonode.docking.model.WindowItem;
 import net.infonode.docking.properties.TabWindowProperties;
@@ -118,6 +118,8 @@ abstract public class AbstractTabWindow extends DockingWindow {
 
   private java.util.List tabAreaComponents;
 
+  private boolean buttonVisibilityUpdatePending;
+
   /**
    * Returns the properties for this tab window.
    *
@@ -161,19 +163,11 @@ abstract public class AbstractTabWindow extends DockingWindow {
 
     getTabbedPanel().addTabListener(new TabAdapter() {
       public void tabAdded(final TabEvent event) {
-        SwingUtilities.invokeLater(new Runnable() {
-          public void run() {
-            updateButtonVisibility();
-          }
-        });
+        updateButtonVisibilityLater();
       }
 
       public void tabRemoved(final TabRemovedEvent event) {
-        SwingUtilities.invokeLater(new Runnable() {
-          public void run() {
-            updateButtonVisibility();
-          }
-        });
+        updateButtonVisibilityLater();
       }
 
       public void tabSelected(TabStateChangedEvent event) {
@@ -212,6 +206,20 @@ abstract public class AbstractTabWindow extends DockingWindow {
     });
   }
 
+  private void updateButtonVisibilityLater() {
+    // One update covers all tabs added or removed before it runs
+    if (buttonVisibilityUpdatePending)
+      return;
+
+    buttonVisibilityUpdatePending = true;
+    SwingUtilities.invokeLater(new Runnable() {
+      public void run() {
+        buttonVisibilityUpdatePending = false;
+        updateButtonVisibility();
+      }
+    });
+  }
+
   private Dimension getTabbedPanelMinimumSize(Dimension d) {
     if (tabbedPanel.getProperties().getTabAreaOrientation().isHorizontal())
       return new Dimension(d.width, MINIMUM_SIZE);
@@ -495,8 +503,18 @@ abstract public class AbstractTabWindow extends DockingWindow {
 
     Point p2 = SwingUtilities.convertPoint(this, p, tabbedPanel);
 
-    if ((getRootWindow().getRootWindowProperties().getRecursiveTabsEnabled() || window.getChildWindowCount() <= 1) &&
-        isInsideTabArea(p2)) {
+    if (getRootWindow().getRootWindowProperties().getRecursiveTabsEnabled() || window.getChildWindowCount() <= 1) {
+      if (!isInsideTabArea(p2)) {
+        Rectangle tabArea = tabbedPanel.getTabAreaBounds();
+
+        if (tabArea != null)
+          getRootWindow().excludeDropRegion(tabbedPanel, tabArea);
+
+        return null;
+      }
+
+      // The tab insert position depends on the exact point
+      getRootWindow().limitDropRegionToPoint();
       getRootWindow().setDragRectangle(null);
 
       if (window.getWindowParent() == this) {
@@ -573,17 +591,13 @@ abstract public class AbstractTabWindow extends DockingWindow {
       getChildWindow(i).write(out, context, viewWriter);
   }
 
-  protected DockingWindow newRead(ObjectInputStream in, ReadContext context, ViewReader viewReader) throws IOException {
-    int size = in.readInt();
-
+  DockingWindow setDecodedWindows(DockingWindow[] windows) {
     while (getChildWindowCount() > 0)
       removeChildWindow(getChildWindow(0));
 
-    for (int i = 0; i < size; i++) {
-      DockingWindow window = WindowDecoder.decodeWindow(in, context, viewReader);
-
-      if (window != null)
-        addTab(window);
+    for (int i = 0; i < windows.length; i++) {
+      if (windows[i] != null)
+        addTab(windows[i]);
     }
 
     updateSelectedTab();
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2004 NNL Technology AB
+ * Visit www.infonode.net for information about InfoNode(R) 
+ * products and how to contact NNL Technology AB.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, 
+ * MA 02111-1307, USA.
+ */
+
+// $Id$
+package net.infonode.docking;
+
+import net.infonode.docking.internal.ReadContext;
+import net.infonode.docking.model.MultiSplitWindowItem;
+import net.infonode.docking.model.SplitWindowItem;
+import net.infonode.docking.model.TabWindowItem;
+import net.infonode.docking.model.WindowItem;
+
+/**
+ * A window in a window bar or a floating window that has been decoded from a window state, but not yet created. The
+ * window is created on the event dispatch thread when the state is applied.
+ *
+ * @author $Author$
+ * @version $Revision$
+ */
+class DecodedWindow {
+  private int id;
+  private int viewIndex;
+  private WindowItem windowItem;
+  private boolean settingsDecoded;
+  private DecodedWindow[] windows;
+  private float[] weights;
+
+  DecodedWindow(int viewIndex) {
+    id = WindowIds.VIEW;
+    this.viewIndex = viewIndex;
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param id              the window id
+   * @param windowItem      the window item
+   * @param settingsDecoded true if the window item is new and its settings have been decoded into the item itself
+   * @param windows         the child windows
+   * @param weights         the weights of the child windows of a multi split window
+   */
+  DecodedWindow(int id, WindowItem windowItem, boolean settingsDecoded, DecodedWindow[] windows, float[] weights) {
+    this.id = id;
+    this.windowItem = windowItem;
+    this.settingsDecoded = settingsDecoded;
+    this.windows = windows;
+    this.weights = weights;
+  }
+
+  DockingWindow create(View[] views, ReadContext context) {
+    if (id == WindowIds.VIEW)
+      return viewIndex == -1 ? null : views[viewIndex];
+
+    if (settingsDecoded)
+      windowItem.applyDecodedSettings(windowItem, context);
+
+    switch (id) {
+      case WindowIds.SPLIT: {
+        SplitWindowItem item = (SplitWindowItem) windowItem;
+        SplitWindow w = new SplitWindow(item.isHorizontal(), item.getDividerLocation(), null, null, item);
+        return w.setDecodedWindows(windows[0].create(views, context), windows[1].create(views, context));
+      }
+
+      case WindowIds.TAB: {
+        TabWindow w = new TabWindow(null, (TabWindowItem) windowItem);
+        return w.setDecodedWindows(create(windows, views, context));
+      }
+
+      default: {
+        MultiSplitWindowItem item = (MultiSplitWindowItem) windowItem;
+        MultiSplitWindow w = new MultiSplitWindow(item.isHorizontal(), null, null, item);
+        return w.setDecodedWindows(create(windows, views, context), weights);
+      }
+    }
+  }
+
+  static DockingWindow[] create(DecodedWindow[] windows, View[] views, ReadContext context) {
+    DockingWindow[] dockingWindows = new DockingWindow[windows.length];
+
+    for (int i = 0; i < windows.length; i++)
+      dockingWindows[i] = windows[i].create(views, context);
+
+    return dockingWindows;
+  }
+}
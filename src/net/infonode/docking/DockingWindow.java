@@ -32,6 +32,7 @@ import net.infonode.docking.internal.WindowAncestors;
 import net.infonode.docking.internal.WriteContext;
 import net.infonode.docking.internalutil.DropAction;
 import net.infonode.docking.location.LocationDecoder;
+import net.infonode.docking.model.MultiSplitWindowItem;
 import net.infonode.docking.model.SplitWindowItem;
 import net.infonode.docking.model.TabWindowItem;
 import net.infonode.docking.model.ViewWriter;
@@ -120,12 +121,15 @@ abstract public class DockingWindow extends BasePanel {
   private WindowPopupMenuFactory popupMenuFactory;
   private ArrayList mouseButtonListeners;
   private ArrayList listeners;
+  private DockingWindowListener[] listenerArray;
+  private WeakReference eventParent;
+  private int eventParentVersion = -1;
 
   private PropertyMapListener propertiesListener = new PropertyMapListener() {
     public void propertyValuesChanged(PropertyMap propertyMap, Map changes) {
       doUpdate();
 
-      updateButtonVisibility();
+      updateButtonVisibilityAfterOptimize();
     }
   };
 
@@ -135,8 +139,14 @@ abstract public class DockingWindow extends BasePanel {
     }
   };
 
+  private static final DockingWindowListener[] NO_LISTENERS = new DockingWindowListener[0];
+
+  // Incremented when a window parent changes or a window gets or loses its listeners, invalidates the event parents
+  private static int eventParentsVersion;
+
   private static HashSet optimizeWindows = new HashSet();
   private static int optimizeDepth;
+  private static HashSet buttonVisibilityWindows = new HashSet();
 
   private WindowItem windowItem;
   private WeakReference lastRootWindow = new WeakReference(null);
@@ -261,8 +271,89 @@ abstract public class DockingWindow extends BasePanel {
     return listeners;
   }
 
+  private DockingWindowListener[] getListenerArray() {
+    if (getListeners() == null)
+      return NO_LISTENERS;
+
+    // The array is replaced, never modified, when the listeners change so it can be shared between events
+    if (listenerArray == null)
+      listenerArray = (DockingWindowListener[]) getListeners().toArray(
+          new DockingWindowListener[getListeners().size()]);
+
+    return listenerArray;
+  }
+
   private void setListeners(ArrayList listeners) {
     this.listeners = listeners;
+    listenerArray = null;
+    eventParentsVersion++;
+  }
+
+  /**
+   * Returns the nearest ancestor that has listeners, or the top window if no ancestor has listeners. Events that are
+   * propagated to the ancestors skip the windows in between.
+   *
+   * @return the nearest ancestor that has listeners, null if this is the top window
+   */
+  private DockingWindow getEventParent() {
+    if (eventParentVersion != eventParentsVersion) {
+      DockingWindow w = windowParent;
+
+      while (w != null && w.getListeners() == null && w.windowParent != null)
+        w = w.windowParent;
+
+      // A weak reference so that a removed window doesn't keep its old ancestors alive
+      eventParent = w == null ? null : new WeakReference(w);
+      eventParentVersion = eventParentsVersion;
+    }
+
+    return eventParent == null ? null : (DockingWindow) eventParent.get();
+  }
+
+  /**
+   * Returns the listeners of this window and of the ancestors that an event from this window is propagated to, in
+   * the order they are notified.
+   *
+   * @return the listeners
+   */
+  private DockingWindowListener[] getPropagatedListeners() {
+    DockingWindowListener[] l = getListenerArray();
+
+    for (DockingWindow w = getEventParent(); w != null; w = w.getEventParent())
+      l = concat(l, w.getListenerArray());
+
+    return l;
+  }
+
+  private static DockingWindowListener[] concat(DockingWindowListener[] l1, DockingWindowListener[] l2) {
+    if (l2.length == 0)
+      return l1;
+
+    if (l1.length == 0)
+      return l2;
+
+    DockingWindowListener[] l = new DockingWindowListener[l1.length + l2.length];
+    System.arraycopy(l1, 0, l, 0, l1.length);
+    System.arraycopy(l2, 0, l, l1.length, l2.length);
+    return l;
+  }
+
+  /**
+   * Fires an event to the listeners of this window and its ancestors.
+   *
+   * @return the top window
+   */
+  private DockingWindow firePropagatedEvent(int type, DockingWindow window, DockingWindow otherWindow) {
+    DockingWindowListener[] l = getListenerArray();
+    DockingWindow top = this;
+
+    for (DockingWindow w = getEventParent(); w != null; w = w.getEventParent()) {
+      l = concat(l, w.getListenerArray());
+      top = w;
+    }
+
+    WindowEventQueue.fire(l, type, window, otherWindow);
+    return top;
   }
 
   public boolean isUndocked() {
@@ -341,6 +432,7 @@ abstract public class DockingWindow extends BasePanel {
       setListeners(new ArrayList(2));
 
     getListeners().add(listener);
+    listenerArray = null;
   }
 
   /**
@@ -352,6 +444,7 @@ abstract public class DockingWindow extends BasePanel {
   public void removeListener(DockingWindowListener listener) {
     if (getListeners() != null) {
       getListeners().remove(listener);
+      listenerArray = null;
 
       if (getListeners().size() == 0)
         setListeners(null);
@@ -904,6 +997,23 @@ abstract public class DockingWindow extends BasePanel {
     if (oldWindow == newWindow)
       return;
 
+    if (getUpdateModel() && isNestedSplitMergeEnabled(newWindow)) {
+      // The new window can be merged when it's optimized, so the window layout is optimized after the model has been
+      // updated
+      beginOptimize(null);
+
+      try {
+        doReplaceChildWindow(oldWindow, newWindow);
+      }
+      finally {
+        endOptimize();
+      }
+    }
+    else
+      doReplaceChildWindow(oldWindow, newWindow);
+  }
+
+  private void doReplaceChildWindow(DockingWindow oldWindow, DockingWindow newWindow) {
     DockingWindow nw = internalReplaceChildWindow(oldWindow, newWindow);
 
     if (getUpdateModel()) {
@@ -917,6 +1027,18 @@ abstract public class DockingWindow extends BasePanel {
     }
   }
 
+  private boolean isNestedSplitMergeEnabled(DockingWindow window) {
+    RootWindow root = getRootWindow();
+
+    if (root != null && root.getRootWindowProperties().getSplitWindowProperties().getNestedSplitMergeEnabled())
+      return true;
+
+    return window instanceof SplitWindow ?
+           ((SplitWindow) window).getSplitWindowProperties().getNestedSplitMergeEnabled() :
+           window instanceof MultiSplitWindow &&
+           ((MultiSplitWindow) window).getSplitWindowProperties().getNestedSplitMergeEnabled();
+  }
+
   protected DockingWindow internalReplaceChildWindow(final DockingWindow oldWindow,
                                                      final DockingWindow newWindow) {
     final WindowAncestors oldAncestors = newWindow.storeAncestors();
@@ -1091,102 +1213,55 @@ abstract public class DockingWindow extends BasePanel {
 
 
   private void fireWindowRemoved(DockingWindow removedFromWindow, DockingWindow removedWindow) {
-    if (getListeners() != null) {
-      DockingWindowListener[] l = (DockingWindowListener[]) getListeners().toArray(
-          new DockingWindowListener[getListeners().size()]);
-
-      for (int i = 0; i < l.length; i++)
-        l[i].windowRemoved(removedFromWindow, removedWindow);
-    }
-
-    if (windowParent != null)
-      windowParent.fireWindowRemoved(removedFromWindow, removedWindow);
+    DockingWindow top = firePropagatedEvent(WindowEventQueue.REMOVED, removedFromWindow, removedWindow);
+    top.recordStructureChange(WindowStructureJournal.REMOVED, removedWindow);
   }
 
   protected void fireWindowShown(DockingWindow window) {
-    if (getListeners() != null) {
-      DockingWindowListener[] l = (DockingWindowListener[]) getListeners().toArray(
-          new DockingWindowListener[getListeners().size()]);
-
-      for (int i = 0; i < l.length; i++)
-        l[i].windowShown(window);
-    }
-
-    if (windowParent != null)
-      windowParent.fireWindowShown(window);
+    DockingWindow top = firePropagatedEvent(WindowEventQueue.SHOWN, window, null);
+    top.recordStructureChange(WindowStructureJournal.SHOWN, window);
   }
 
   protected void fireViewFocusChanged(View previouslyFocusedView, View focusedView) {
-    if (getListeners() != null) {
-      DockingWindowListener[] l = (DockingWindowListener[]) getListeners().toArray(
-          new DockingWindowListener[getListeners().size()]);
-
-      for (int i = 0; i < l.length; i++)
-        l[i].viewFocusChanged(previouslyFocusedView, focusedView);
-    }
+    WindowEventQueue.fire(getListenerArray(), WindowEventQueue.VIEW_FOCUS_CHANGED, previouslyFocusedView, focusedView);
   }
 
   protected void fireWindowHidden(DockingWindow window) {
-    if (getListeners() != null) {
-      DockingWindowListener[] l = (DockingWindowListener[]) getListeners().toArray(
-          new DockingWindowListener[getListeners().size()]);
-
-      for (int i = 0; i < l.length; i++)
-        l[i].windowHidden(window);
-    }
-
-    if (windowParent != null)
-      windowParent.fireWindowHidden(window);
+    DockingWindow top = firePropagatedEvent(WindowEventQueue.HIDDEN, window, null);
+    top.recordStructureChange(WindowStructureJournal.HIDDEN, window);
   }
 
   private void fireWindowAdded(DockingWindow addedToWindow, DockingWindow addedWindow) {
-    if (getListeners() != null) {
-      DockingWindowListener[] l = (DockingWindowListener[]) getListeners().toArray(
-          new DockingWindowListener[getListeners().size()]);
-
-      for (int i = 0; i < l.length; i++)
-        l[i].windowAdded(addedToWindow, addedWindow);
-    }
+    DockingWindow top = firePropagatedEvent(WindowEventQueue.ADDED, addedToWindow, addedWindow);
+    top.recordStructureChange(WindowStructureJournal.ADDED, addedWindow);
+  }
 
-    if (windowParent != null)
-      windowParent.fireWindowAdded(addedToWindow, addedWindow);
+  /**
+   * Called on the top window of the window tree when a structural event has been fired.
+   *
+   * @param type   the type of change, one of the {@link WindowStructureJournal} constants
+   * @param window the window that was changed
+   */
+  void recordStructureChange(int type, DockingWindow window) {
   }
 
 
   private void fireWindowClosing(DockingWindow window) throws OperationAbortedException {
-    if (getListeners() != null) {
-      DockingWindowListener[] l = (DockingWindowListener[]) getListeners().toArray(
-          new DockingWindowListener[getListeners().size()]);
+    DockingWindowListener[] l = getPropagatedListeners();
 
-      for (int i = 0; i < l.length; i++)
-        l[i].windowClosing(window);
-    }
-
-    if (windowParent != null)
-      windowParent.fireWindowClosing(window);
+    for (int i = 0; i < l.length; i++)
+      l[i].windowClosing(window);
   }
 
   private void fireWindowClosed(DockingWindow window) {
-    if (getListeners() != null) {
-      DockingWindowListener[] l = (DockingWindowListener[]) getListeners().toArray(
-          new DockingWindowListener[getListeners().size()]);
-
-      for (int i = 0; i < l.length; i++)
-        l[i].windowClosed(window);
-    }
+    WindowEventQueue.fire(getListenerArray(), WindowEventQueue.CLOSED, window, null);
   }
 
   void fireWindowUndocking(DockingWindow window) throws OperationAbortedException {
-    if (getListeners() != null) {
-      DockingWindowListener[] l = (DockingWindowListener[]) getListeners().toArray(
-          new DockingWindowListener[getListeners().size()]);
-
-      for (int i = 0; i < l.length; i++)
-        l[i].windowUndocking(window);
-    }
+    DockingWindowListener[] l = getPropagatedListeners();
 
-    if (windowParent != null)
-      windowParent.fireWindowUndocking(window);
+    for (int i = 0; i < l.length; i++)
+      l[i].windowUndocking(window);
   }
 
   void fireWindowUndocked(DockingWindow window, DockingWindow[] oldAncestors) {
@@ -1197,65 +1272,35 @@ abstract public class DockingWindow extends BasePanel {
   }
 
   private void doFireWindowUndocked(DockingWindow window) {
-    if (getListeners() != null) {
-      DockingWindowListener[] l = (DockingWindowListener[]) getListeners().toArray(
-          new DockingWindowListener[getListeners().size()]);
-
-      for (int i = 0; i < l.length; i++)
-        l[i].windowUndocked(window);
-    }
+    WindowEventQueue.fire(getListenerArray(), WindowEventQueue.UNDOCKED, window, null);
   }
 
   void fireWindowMinimizing(DockingWindow window) throws OperationAbortedException {
-    if (getListeners() != null) {
-      DockingWindowListener[] l = (DockingWindowListener[]) getListeners().toArray(
-          new DockingWindowListener[getListeners().size()]);
-
-      for (int i = 0; i < l.length; i++)
-        l[i].windowMinimizing(window);
-    }
+    DockingWindowListener[] l = getPropagatedListeners();
 
-    if (windowParent != null)
-      windowParent.fireWindowMinimizing(window);
+    for (int i = 0; i < l.length; i++)
+      l[i].windowMinimizing(window);
   }
 
   void fireWindowMaximizing(DockingWindow window) throws OperationAbortedException {
-    if (getListeners() != null) {
-      DockingWindowListener[] l = (DockingWindowListener[]) getListeners().toArray(
-          new DockingWindowListener[getListeners().size()]);
-
-      for (int i = 0; i < l.length; i++)
-        l[i].windowMaximizing(window);
-    }
+    DockingWindowListener[] l = getPropagatedListeners();
 
-    if (windowParent != null)
-      windowParent.fireWindowMaximizing(window);
+    for (int i = 0; i < l.length; i++)
+      l[i].windowMaximizing(window);
   }
 
   void fireWindowRestoring(DockingWindow window) throws OperationAbortedException {
-    if (getListeners() != null) {
-      DockingWindowListener[] l = (DockingWindowListener[]) getListeners().toArray(
-          new DockingWindowListener[getListeners().size()]);
-
-      for (int i = 0; i < l.length; i++)
-        l[i].windowRestoring(window);
-    }
+    DockingWindowListener[] l = getPropagatedListeners();
 
-    if (windowParent != null)
-      windowParent.fireWindowRestoring(window);
+    for (int i = 0; i < l.length; i++)
+      l[i].windowRestoring(window);
   }
 
   void fireWindowDocking(DockingWindow window) throws OperationAbortedException {
-    if (getListeners() != null) {
-      DockingWindowListener[] l = (DockingWindowListener[]) getListeners().toArray(
-          new DockingWindowListener[getListeners().size()]);
+    DockingWindowListener[] l = getPropagatedListeners();
 
-      for (int i = 0; i < l.length; i++)
-        l[i].windowDocking(window);
-    }
-
-    if (windowParent != null)
-      windowParent.fireWindowDocking(window);
+    for (int i = 0; i < l.length; i++)
+      l[i].windowDocking(window);
   }
 
   void fireWindowDocked(DockingWindow window, DockingWindow[] oldAncestors) {
@@ -1277,36 +1322,15 @@ abstract public class DockingWindow extends BasePanel {
   }
 
   private void doFireWindowDocked(DockingWindow window) {
-    if (getListeners() != null) {
-      DockingWindowListener[] l = (DockingWindowListener[]) getListeners().toArray(
-          new DockingWindowListener[getListeners().size()]);
-
-      for (int i = 0; i < l.length; i++)
-        l[i].windowDocked(window);
-    }
+    WindowEventQueue.fire(getListenerArray(), WindowEventQueue.DOCKED, window, null);
   }
 
   private void doFireWindowRestored(DockingWindow window) {
-    if (getListeners() != null) {
-      DockingWindowListener[] l = (DockingWindowListener[]) getListeners().toArray(
-          new DockingWindowListener[getListeners().size()]);
-
-      for (int i = 0; i < l.length; i++)
-        l[i].windowRestored(window);
-    }
+    WindowEventQueue.fire(getListenerArray(), WindowEventQueue.RESTORED, window, null);
   }
 
   void fireWindowMaximized(DockingWindow window) {
-    if (getListeners() != null) {
-      DockingWindowListener[] l = (DockingWindowListener[]) getListeners().toArray(
-          new DockingWindowListener[getListeners().size()]);
-
-      for (int i = 0; i < l.length; i++)
-        l[i].windowMaximized(window);
-    }
-
-    if (windowParent != null)
-      windowParent.fireWindowMaximized(window);
+    firePropagatedEvent(WindowEventQueue.MAXIMIZED, window, null);
   }
 
   void fireWindowMinimized(DockingWindow window, DockingWindow[] oldAncestors) {
@@ -1317,26 +1341,11 @@ abstract public class DockingWindow extends BasePanel {
   }
 
   private void doFireWindowMinimized(DockingWindow window) {
-    if (getListeners() != null) {
-      DockingWindowListener[] l = (DockingWindowListener[]) getListeners().toArray(
-          new DockingWindowListener[getListeners().size()]);
-
-      for (int i = 0; i < l.length; i++)
-        l[i].windowMinimized(window);
-    }
+    WindowEventQueue.fire(getListenerArray(), WindowEventQueue.MINIMIZED, window, null);
   }
 
   void fireWindowRestored(DockingWindow window) {
-    if (getListeners() != null) {
-      DockingWindowListener[] l = (DockingWindowListener[]) getListeners().toArray(
-          new DockingWindowListener[getListeners().size()]);
-
-      for (int i = 0; i < l.length; i++)
-        l[i].windowRestored(window);
-    }
-
-    if (windowParent != null)
-      windowParent.fireWindowRestored(window);
+    firePropagatedEvent(WindowEventQueue.RESTORED, window, null);
   }
 
   protected void setLastMinimizedDirection(Direction direction) {
@@ -1444,9 +1453,30 @@ abstract public class DockingWindow extends BasePanel {
           window.optimizeWindowLayout();
         }
       }
+
+      while (buttonVisibilityWindows.size() > 0) {
+        HashSet s = buttonVisibilityWindows;
+        buttonVisibilityWindows = new HashSet();
+
+        for (Iterator it = s.iterator(); it.hasNext();) {
+          DockingWindow window = (DockingWindow) it.next();
+          window.updateButtonVisibility();
+        }
+      }
     }
   }
 
+  /**
+   * Updates the button visibility of this window. Inside an optimization batch the update is deferred to the end of
+   * the batch, so that a window changed many times during the batch is only updated once.
+   */
+  void updateButtonVisibilityAfterOptimize() {
+    if (optimizeDepth > 0)
+      buttonVisibilityWindows.add(this);
+    else
+      updateButtonVisibility();
+  }
+
   /**
  *
    */
@@ -1603,6 +1633,7 @@ abstract public class DockingWindow extends BasePanel {
     }
 
     windowParent = window;
+    eventParentsVersion++;
     final RootWindow newRoot = getRootWindow();
 
     if (oldRoot != newRoot) {
@@ -1625,6 +1656,44 @@ abstract public class DockingWindow extends BasePanel {
            p.y;
   }
 
+  /**
+   * Returns a split drop region of this window.
+   *
+   * @param p         the drop point
+   * @param dir       the split direction
+   * @param distance  the maximum distance from the window edge
+   * @param inside    if true, returns a rectangle around the drop point where the split direction is <tt>dir</tt>,
+   *                  otherwise returns a rectangle containing all points within the distance from the <tt>dir</tt> edge
+   * @return the region
+   */
+  private Rectangle getSplitRegion(Point p, Direction dir, int distance, boolean inside) {
+    boolean horizontal = dir == Direction.LEFT || dir == Direction.RIGHT;
+    int length = horizontal ? getWidth() : getHeight();
+    int crossLength = horizontal ? getHeight() : getWidth();
+    int end;
+    int crossStart = 0;
+    int crossEnd = crossLength;
+
+    if (inside) {
+      // The edge distance must be smaller than the distance to the opposite edge and the relative distance must be
+      // smaller than the relative distances to the adjacent edges
+      int cross = horizontal ? p.y : p.x;
+      end = Math.min(Math.min(distance + 1, (length + 1) / 2),
+                     (int) ((long) length * Math.min(cross, crossLength - cross) / Math.max(crossLength, 1)));
+      crossStart = (int) ((long) crossLength * end / Math.max(length, 1)) + 1;
+      crossEnd = crossLength - crossStart + 1;
+    }
+    else
+      end = distance + 1;
+
+    int start = dir == Direction.LEFT || dir == Direction.UP ? 0 : Math.max(0, length - end + 1);
+    end = dir == Direction.LEFT || dir == Direction.UP ? Math.min(end, length) : length;
+
+    return horizontal ?
+           new Rectangle(start, crossStart, end - start, crossEnd - crossStart) :
+           new Rectangle(crossStart, start, crossEnd - crossStart, end - start);
+  }
+
   DropAction acceptDrop(Point p, DockingWindow window) {
     DropAction da = null;
     DockingWindow fw = DockingUtil.getFloatingWindowFor(window);
@@ -1634,9 +1703,17 @@ abstract public class DockingWindow extends BasePanel {
     if (getRootWindow() != window.getRootWindow() ||
         ((window.getWindowProperties().getDockEnabled() || fw == null || fw2 != null) &&
          (window.getWindowProperties().getUndockEnabled() || (fw == fw2)))) {
-      da = !isShowing() || !contains(p) || hasParent(window) || (!getRootWindow().getRootWindowProperties()
-          .getRecursiveTabsEnabled() && insideTab()) ?
-                                                     null : doAcceptDrop(p, window);
+      if (isShowing() && !hasParent(window) &&
+          (getRootWindow().getRootWindowProperties().getRecursiveTabsEnabled() || !insideTab())) {
+        Rectangle bounds = new Rectangle(0, 0, getWidth(), getHeight());
+
+        if (contains(p)) {
+          getRootWindow().limitDropRegion(this, bounds);
+          da = doAcceptDrop(p, window);
+        }
+        else
+          getRootWindow().excludeDropRegion(this, bounds);
+      }
     }
     //System.out.println(!isShowing() + "  " + !contains(p) + "  " + hasParent(window) + "  " + (!getRootWindow().getRootWindowProperties().getRecursiveTabsEnabled() && insideTab()));
     //System.out.println(" \n ----- Accept drop: " + (this instanceof
@@ -1707,8 +1784,25 @@ abstract public class DockingWindow extends BasePanel {
     Direction splitDir = getSplitDirection(p);
     int dist = getEdgeDistance(p, splitDir);
 
-    if (splitDistance != -1 && dist > splitDistance * getEdgeDepth(splitDir))
+    if (splitDistance != -1 && dist > splitDistance * getEdgeDepth(splitDir)) {
+      Direction[] directions = Direction.values();
+
+      for (int i = 0; i < directions.length; i++)
+        getRootWindow().excludeDropRegion(this,
+                                          getSplitRegion(p,
+                                                         directions[i],
+                                                         splitDistance * getEdgeDepth(directions[i]),
+                                                         false));
+
       return null;
+    }
+
+    getRootWindow().limitDropRegion(this,
+                                    getSplitRegion(p,
+                                                   splitDir,
+                                                   splitDistance == -1 ?
+                                                   Integer.MAX_VALUE / 2 : splitDistance * getEdgeDepth(splitDir),
+                                                   true));
 
     if (getSplitDropFilter().acceptDrop(new SplitDropInfo(window, this, p, splitDir)))
       return split(window, splitDir);
@@ -1890,6 +1984,8 @@ abstract public class DockingWindow extends BasePanel {
               !parentWindow.isUndocked()) {
             if (parentWindow instanceof TabWindow)
               insertTab((TabWindow) parentWindow, this);
+            else if (parentWindow instanceof MultiSplitWindow)
+              ((MultiSplitWindow) parentWindow).restoreWindow(getContainer(item.getParent(), windowItem), item);
             else if (parentWindow instanceof RootWindow) {
               DockingWindow w = getContainer(item.getParent(), windowItem);
               ((RootWindow) parentWindow).setWindow(w);
@@ -1930,6 +2026,25 @@ abstract public class DockingWindow extends BasePanel {
                     DockingWindow w2 = w1.getContainer(splitWindowItem, w1.windowItem);
                     newWindow.setWindows(isLeft ? w : w2, isLeft ? w2 : w);
                   }
+                  else if (fitem.getParent() instanceof MultiSplitWindowItem) {
+                    MultiSplitWindowItem splitWindowItem = (MultiSplitWindowItem) fitem.getParent();
+                    WindowItem otherItem = splitWindowItem.getChildWindowContaining(w1.windowItem);
+                    boolean isFirst = splitWindowItem.getWindowIndex(fitem) < splitWindowItem.getWindowIndex(otherItem);
+                    float weight = splitWindowItem.getWeight(fitem);
+                    float otherWeight = splitWindowItem.getWeight(otherItem);
+                    MultiSplitWindow newWindow = new MultiSplitWindow(splitWindowItem.isHorizontal(),
+                                                                      null,
+                                                                      null,
+                                                                      splitWindowItem);
+                    w1.getWindowParent().internalReplaceChildWindow(w1, newWindow);
+                    DockingWindow w = getContainer(splitWindowItem, windowItem);
+                    DockingWindow w2 = w1.getContainer(splitWindowItem, w1.windowItem);
+                    weight = weight < 0 ? 0.5f : weight;
+                    otherWeight = otherWeight < 0 ? 0.5f : otherWeight;
+                    newWindow.setWindows(isFirst ? new DockingWindow[]{w, w2} : new DockingWindow[]{w2, w},
+                                         isFirst ? new float[]{weight, otherWeight} :
+                                         new float[]{otherWeight, weight});
+                  }
                   else if (fitem.getParent() instanceof TabWindowItem) {
                     TabWindowItem tabWindowItem = (TabWindowItem) fitem.getParent();
                     TabWindow newWindow = new TabWindow(null, tabWindowItem);
@@ -0,0 +1,270 @@
+/*
+ * Copyright (C) 2004 NNL Technology AB
+ * Visit www.infonode.net for information about InfoNode(R) 
+ * products and how to contact NNL Technology AB.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, 
+ * MA 02111-1307, USA.
+ */
+
+// $Id$
+package net.infonode.docking;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+
+/**
+ * Spatial index of the docking windows in a root pane, used to find the drop window under the mouse during a drag.
+ * The index is built when the drag starts and stores the bounds of all visible windows in root pane coordinates in a
+ * bounding box tree, so a lookup only visits the part of the tree that contains the point instead of the whole
+ * component tree. The windows found are verified against the live component tree, so the result is the same as the
+ * deepest window found by a full component tree search.
+ *
+ * @author $Author$
+ * @version $Revision$
+ */
+class DropTargetIndex {
+  private static final int LEAF_SIZE = 4;
+
+  private static class Entry {
+    private final DockingWindow window;
+    private final int order;
+    private final int x;
+    private final int y;
+    private final int width;
+    private final int height;
+    private final Rectangle visibleBounds;
+
+    Entry(DockingWindow window, int order, int x, int y, Rectangle visibleBounds) {
+      this.window = window;
+      this.order = order;
+      this.x = x;
+      this.y = y;
+      this.width = window.getWidth();
+      this.height = window.getHeight();
+      this.visibleBounds = visibleBounds;
+    }
+
+    boolean contains(int px, int py) {
+      return px >= x && py >= y && px < x + width && py < y + height;
+    }
+  }
+
+  private static class Node {
+    private Rectangle bounds;
+    private Node left;
+    private Node right;
+    private Entry[] entries;
+  }
+
+  private static final Comparator X_ORDER = new Comparator() {
+    public int compare(Object o1, Object o2) {
+      Rectangle r1 = ((Entry) o1).visibleBounds;
+      Rectangle r2 = ((Entry) o2).visibleBounds;
+      return (r1.x * 2 + r1.width) - (r2.x * 2 + r2.width);
+    }
+  };
+
+  private static final Comparator Y_ORDER = new Comparator() {
+    public int compare(Object o1, Object o2) {
+      Rectangle r1 = ((Entry) o1).visibleBounds;
+      Rectangle r2 = ((Entry) o2).visibleBounds;
+      return (r1.y * 2 + r1.height) - (r2.y * 2 + r2.height);
+    }
+  };
+
+  private final RootWindow rootWindow;
+  private final JRootPane rootPane;
+  private final HashMap entryMap = new HashMap();
+  private Node root;
+  private Entry[] candidates;
+
+  DropTargetIndex(RootWindow rootWindow, JRootPane rootPane) {
+    this.rootWindow = rootWindow;
+    this.rootPane = rootPane;
+
+    ArrayList entries = new ArrayList();
+
+    if (rootPane.isVisible())
+      addWindows(rootPane, 0, 0, new Rectangle(0, 0, rootPane.getWidth(), rootPane.getHeight()), entries);
+
+    Entry[] e = (Entry[]) entries.toArray(new Entry[entries.size()]);
+    candidates = new Entry[Math.min(e.length, 16)];
+    root = e.length == 0 ? null : createNode(e, 0, e.length);
+  }
+
+  JRootPane getRootPane() {
+    return rootPane;
+  }
+
+  /**
+   * Returns the deepest visible window in this index that contains a point.
+   *
+   * @param x the x coordinate in root pane coordinates
+   * @param y the y coordinate in root pane coordinates
+   * @return the deepest window containing the point, null if there is no such window
+   */
+  DockingWindow getDeepestWindowAt(int x, int y) {
+    if (root == null)
+      return null;
+
+    int count = findCandidates(root, x, y, 0);
+
+    // Sort the candidates in component tree search order, the number of candidates is the nesting depth
+    for (int i = 1; i < count; i++) {
+      Entry e = candidates[i];
+      int j = i - 1;
+
+      for (; j >= 0 && candidates[j].order > e.order; j--)
+        candidates[j + 1] = candidates[j];
+
+      candidates[j + 1] = e;
+    }
+
+    DockingWindow window = null;
+
+    for (int i = 0; i < count; i++) {
+      if (window == null && isHit(candidates[i].window, x, y))
+        window = candidates[i].window;
+
+      candidates[i] = null;
+    }
+
+    return window;
+  }
+
+  /**
+   * Checks if a window contains a point. The bounds stored when the index was built are used for windows in the
+   * index.
+   *
+   * @param window the window
+   * @param point  the point in root pane coordinates
+   * @return true if the window contains the point
+   */
+  boolean windowContains(DockingWindow window, Point point) {
+    Entry e = (Entry) entryMap.get(window);
+    return e == null ? window.contains(SwingUtilities.convertPoint(rootPane, point, window)) : e.contains(point.x, point.y);
+  }
+
+  /**
+   * Converts a point in root pane coordinates to window coordinates.
+   *
+   * @param point  the point in root pane coordinates
+   * @param window the window
+   * @return the point in window coordinates
+   */
+  Point convertPoint(Point point, DockingWindow window) {
+    Entry e = (Entry) entryMap.get(window);
+    return e == null ?
+           SwingUtilities.convertPoint(rootPane, point, window) :
+           new Point(point.x - e.x, point.y - e.y);
+  }
+
+  private void addWindows(Component component, int x, int y, Rectangle clip, ArrayList entries) {
+    if (component instanceof Container) {
+      Container container = (Container) component;
+
+      for (int i = 0; i < container.getComponentCount(); i++) {
+        Component c = container.getComponent(i);
+
+        if (c.isVisible()) {
+          Rectangle childClip = clip.intersection(new Rectangle(x + c.getX(), y + c.getY(), c.getWidth(), c.getHeight()));
+
+          if (!childClip.isEmpty())
+            addWindows(c, x + c.getX(), y + c.getY(), childClip, entries);
+        }
+      }
+    }
+
+    if (component instanceof DockingWindow && ((DockingWindow) component).getRootWindow() == rootWindow) {
+      // Entries are added in post order, which is the order a component tree search finds them
+      Entry e = new Entry((DockingWindow) component, entries.size(), x, y, clip);
+      entries.add(e);
+      entryMap.put(component, e);
+    }
+  }
+
+  private Node createNode(Entry[] entries, int start, int end) {
+    Node node = new Node();
+    node.bounds = new Rectangle(entries[start].visibleBounds);
+
+    for (int i = start + 1; i < end; i++)
+      node.bounds.add(entries[i].visibleBounds);
+
+    if (end - start <= LEAF_SIZE) {
+      node.entries = new Entry[end - start];
+      System.arraycopy(entries, start, node.entries, 0, node.entries.length);
+    }
+    else {
+      Arrays.sort(entries, start, end, node.bounds.width >= node.bounds.height ? X_ORDER : Y_ORDER);
+      int middle = (start + end) / 2;
+      node.left = createNode(entries, start, middle);
+      node.right = createNode(entries, middle, end);
+    }
+
+    return node;
+  }
+
+  private int findCandidates(Node node, int x, int y, int count) {
+    if (!node.bounds.contains(x, y))
+      return count;
+
+    if (node.entries != null) {
+      for (int i = 0; i < node.entries.length; i++) {
+        if (node.entries[i].visibleBounds.contains(x, y)) {
+          if (count == candidates.length) {
+            Entry[] c = new Entry[count * 2];
+            System.arraycopy(candidates, 0, c, 0, count);
+            candidates = c;
+          }
+
+          candidates[count++] = node.entries[i];
+        }
+      }
+
+      return count;
+    }
+
+    return findCandidates(node.right, x, y, findCandidates(node.left, x, y, count));
+  }
+
+  private boolean isHit(DockingWindow window, int x, int y) {
+    int wx = 0;
+    int wy = 0;
+    Component c = window;
+
+    for (; c != null && c != rootPane; c = c.getParent()) {
+      wx += c.getX();
+      wy += c.getY();
+    }
+
+    if (c == null || !rootPane.isVisible() || !rootPane.contains(x, y))
+      return false;
+
+    for (c = window; c != rootPane; c = c.getParent()) {
+      if (!c.isVisible() || !c.contains(x - wx, y - wy))
+        return false;
+
+      wx -= c.getX();
+      wy -= c.getY();
+    }
+
+    return true;
+  }
+}
@@ -25,12 +25,10 @@ package net.infonode.docking;
 
 import net.infonode.docking.drop.ChildDropInfo;
 import net.infonode.docking.drop.InteriorDropInfo;
-import net.infonode.docking.internal.ReadContext;
 import net.infonode.docking.internal.WindowAncestors;
 import net.infonode.docking.internal.WriteContext;
 import net.infonode.docking.internalutil.DropAction;
 import net.infonode.docking.model.FloatingWindowItem;
-import net.infonode.docking.model.ViewReader;
 import net.infonode.docking.model.ViewWriter;
 import net.infonode.docking.properties.DockingWindowProperties;
 import net.infonode.docking.properties.FloatingWindowProperties;
@@ -52,7 +50,6 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.io.IOException;
-import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.util.Map;
 
@@ -487,12 +484,16 @@ public class FloatingWindow extends DockingWindow {
 
     if (dropWindow != null) {
       Point p2 = SwingUtilities.convertPoint(this, p, dropWindow);
+      Rectangle bounds = new Rectangle(0, 0, dropWindow.getWidth(), dropWindow.getHeight());
 
       if (dropWindow.contains(p2)) {
+        getRootWindow().limitDropRegion(dropWindow, bounds);
         return getChildDropFilter().acceptDrop(new ChildDropInfo(window, this, p, dropWindow)) ?
                dropWindow.acceptDrop(p2, window) :
                null;
       }
+
+      getRootWindow().excludeDropRegion(dropWindow, bounds);
     }
 
     return super.doAcceptDrop(p, window);
@@ -572,17 +573,10 @@ public class FloatingWindow extends DockingWindow {
     ((RootPaneContainer) dialog).getRootPane().setPreferredSize(null);
   }
 
-  protected DockingWindow read(ObjectInputStream in, ReadContext context, ViewReader viewReader) throws IOException {
-    dialog.setSize(new Dimension(in.readInt(), in.readInt()));
-    dialog.setLocation(in.readInt(), in.readInt());
-
-    dialog.setVisible(in.readBoolean());
-    getWindowItem().readSettings(in, context);
-
-    if (in.readBoolean())
-      setWindow(WindowDecoder.decodeWindow(in, context, viewReader));
-
-    return this;
+  void setDecodedBounds(Dimension size, Point location, boolean visible) {
+    dialog.setSize(size);
+    dialog.setLocation(location);
+    dialog.setVisible(visible);
   }
 
   protected void write(ObjectOutputStream out, WriteContext context, ViewWriter viewWriter) throws IOException {
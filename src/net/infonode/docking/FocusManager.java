@@ -50,6 +50,18 @@ class FocusManager {
   private boolean focusUpdateTriggered;
   private ArrayList lastFocusedWindows = new ArrayList();
   private Component focusedComponent;
+
+  // Set when the last focus update was in a root window with immediate focus tracking
+  private boolean immediateFocusTracking;
+  private boolean laterFocusUpdateTriggered;
+  private int focusRequest;
+  private Runnable laterFocusUpdate = new Runnable() {
+    public void run() {
+      laterFocusUpdateTriggered = false;
+      updateFocus();
+    }
+  };
+
   private PropertyChangeListener focusListener = new PropertyChangeListener() {
     public void propertyChange(PropertyChangeEvent evt) {
       if (ignoreFocusChanges > 0)
@@ -58,13 +70,33 @@ class FocusManager {
       ignoreFocusChanges++;
 
       try {
-        triggerFocusUpdate();
+        Component component = (Component) evt.getNewValue();
+
+        if (isImmediateFocusTracking(getViewContaining(component))) {
+          focusTimer.stop();
+          focusUpdateTriggered = false;
+          updateFocus();
+        }
+        else if (immediateFocusTracking)
+          // The focus has left the view, wait until the pending focus events have been processed so that a focus
+          // transfer to another view only causes one view focus change
+          triggerLaterFocusUpdate();
+        else
+          triggerFocusUpdate();
       }
       finally {
         ignoreFocusChanges--;
       }
     }
 
+    private void triggerLaterFocusUpdate() {
+      if (laterFocusUpdateTriggered)
+        return;
+
+      laterFocusUpdateTriggered = true;
+      SwingUtilities.invokeLater(laterFocusUpdate);
+    }
+
     private void triggerFocusUpdate() {
       if (focusUpdateTriggered)
         return;
@@ -90,6 +122,8 @@ class FocusManager {
 //    System.out.println("Focus: " + System.identityHashCode(focusedComponent) + ", " + focusedComponent);
     ArrayList oldFocusedWindows = lastFocusedWindows;
     lastFocusedWindows = new ArrayList();
+    immediateFocusTracking = isImmediateFocusTracking(getViewContaining(focusedComponent));
+
     updateWindows(focusedComponent, focusedComponent, oldFocusedWindows);
 
     for (int i = 0; i < oldFocusedWindows.size(); i++) {
@@ -112,15 +146,28 @@ class FocusManager {
       if (--ignoreFocusChanges == 0 && c != null) {
         c.requestFocusInWindow();
 
-        SwingUtilities.invokeLater(new Runnable() {
-          public void run() {
-            SwingUtilities.invokeLater(new Runnable() {
-              public void run() {
+        if (isImmediateFocusTracking(getViewContaining(c))) {
+          final int request = ++focusRequest;
+
+          // Only request the focus again if no other focus request has been made since
+          SwingUtilities.invokeLater(new Runnable() {
+            public void run() {
+              if (request == focusRequest && c.isShowing() &&
+                  KeyboardFocusManager.getCurrentKeyboardFocusManager().getFocusOwner() != c)
                 c.requestFocusInWindow();
-              }
-            });
-          }
-        });
+            }
+          });
+        }
+        else
+          SwingUtilities.invokeLater(new Runnable() {
+            public void run() {
+              SwingUtilities.invokeLater(new Runnable() {
+                public void run() {
+                  c.requestFocusInWindow();
+                }
+              });
+            }
+          });
       }
     }
   }
@@ -141,15 +188,33 @@ class FocusManager {
 
     window.restoreFocus();
 
-    SwingUtilities.invokeLater(new Runnable() {
-      public void run() {
-        SwingUtilities.invokeLater(new Runnable() {
-          public void run() {
+    RootWindow rootWindow = window.getRootWindow();
+
+    if (rootWindow != null && rootWindow.getRootWindowProperties().getImmediateFocusTrackingEnabled()) {
+      final int request = ++INSTANCE.focusRequest;
+
+      SwingUtilities.invokeLater(new Runnable() {
+        public void run() {
+          if (request == INSTANCE.focusRequest)
             window.restoreFocus();
-          }
-        });
-      }
-    });
+        }
+      });
+    }
+    else
+      SwingUtilities.invokeLater(new Runnable() {
+        public void run() {
+          SwingUtilities.invokeLater(new Runnable() {
+            public void run() {
+              window.restoreFocus();
+            }
+          });
+        }
+      });
+  }
+
+  private static boolean isImmediateFocusTracking(View view) {
+    RootWindow rootWindow = view == null ? null : view.getRootWindow();
+    return rootWindow != null && rootWindow.getRootWindowProperties().getImmediateFocusTrackingEnabled();
   }
 
   private static View getViewContaining(Component component) {
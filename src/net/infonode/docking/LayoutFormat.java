@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2004 NNL Technology AB
+ * Visit www.infonode.net for information about InfoNode(R) 
+ * products and how to contact NNL Technology AB.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, 
+ * MA 02111-1307, USA.
+ */
+
+// $Id$
+package net.infonode.docking;
+
+/**
+ * The format used when writing the window state of a root window.
+ *
+ * @author $Author$
+ * @version $Revision$
+ * @see RootWindow#write(java.io.ObjectOutputStream, boolean, LayoutFormat)
+ * @since IDW 1.7.0
+ */
+public enum LayoutFormat {
+
+  /**
+   * The format written by earlier versions of InfoNode Docking Windows. Use this format if the window state must be
+   * readable by an earlier version.
+   */
+  LEGACY,
+
+  /**
+   * Compact format. Integers are written with a variable length encoding and repeated strings, for example property
+   * names, are only written once.
+   */
+  COMPACT,
+
+  /**
+   * The compact format compressed with the deflate algorithm.
+   */
+  COMPACT_COMPRESSED
+}
@@ -0,0 +1,513 @@
+/*
+ * Copyright (C) 2004 NNL Technology AB
+ * Visit www.infonode.net for information about InfoNode(R) 
+ * products and how to contact NNL Technology AB.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, 
+ * MA 02111-1307, USA.
+ */
+
+// $Id$
+package net.infonode.docking;
+
+import net.infonode.docking.drop.InteriorDropInfo;
+import net.infonode.docking.drop.SplitDropInfo;
+import net.infonode.docking.internal.WindowAncestors;
+import net.infonode.docking.internal.WriteContext;
+import net.infonode.docking.internalutil.DropAction;
+import net.infonode.docking.model.MultiSplitWindowItem;
+import net.infonode.docking.model.SplitWindowItem;
+import net.infonode.docking.model.ViewWriter;
+import net.infonode.docking.model.WindowItem;
+import net.infonode.docking.properties.SplitWindowProperties;
+import net.infonode.gui.ComponentUtil;
+import net.infonode.gui.MultiSplitPane;
+import net.infonode.gui.MultiSplitPaneListener;
+import net.infonode.gui.panel.BaseContainerUtil;
+import net.infonode.properties.propertymap.PropertyMap;
+import net.infonode.util.Direction;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+
+/**
+ * A window with a split pane that contains any number of child windows separated by dividers. The size of each child
+ * window is proportional to its weight. A row or column of windows in a multi split window only needs one container
+ * and one layout pass, compared to a tree of nested {@link SplitWindow}'s.
+ * <p>
+ * Nested split windows with the same orientation are merged into a multi split window when the window layout is
+ * optimized if {@link SplitWindowProperties#NESTED_SPLIT_MERGE_ENABLED} is enabled.
+ * <p>
+ * A multi split window can't be written in the {@link LayoutFormat#LEGACY} format.
+ *
+ * @author $Author$
+ * @version $Revision$
+ * @since IDW 1.7.0
+ */
+public class MultiSplitWindow extends DockingWindow {
+  private static final long serialVersionUID = 1;
+
+  private MultiSplitPane splitPane;
+  private ArrayList windows = new ArrayList();
+
+  /**
+   * Creates an empty multi split window.
+   *
+   * @param horizontal true if the split is horizontal
+   */
+  public MultiSplitWindow(boolean horizontal) {
+    this(horizontal, null, null, null);
+  }
+
+  /**
+   * Creates a multi split window with the given child windows, all with the same weight.
+   *
+   * @param horizontal true if the split is horizontal
+   * @param windows    the child windows, from left to right or top to bottom
+   */
+  public MultiSplitWindow(boolean horizontal, DockingWindow... windows) {
+    this(horizontal, null, windows, null);
+  }
+
+  /**
+   * Creates a multi split window with the given child windows and weights.
+   *
+   * @param horizontal true if the split is horizontal
+   * @param weights    the child window weights, the size of a child window is proportional to its weight
+   * @param windows    the child windows, from left to right or top to bottom
+   */
+  public MultiSplitWindow(boolean horizontal, float[] weights, DockingWindow[] windows) {
+    this(horizontal, weights, windows, null);
+  }
+
+  protected MultiSplitWindow(boolean horizontal, float[] weights, DockingWindow[] windows,
+                             MultiSplitWindowItem windowItem) {
+    super(windowItem == null ? new MultiSplitWindowItem() : windowItem);
+
+    splitPane = new MultiSplitPane(horizontal);
+    BaseContainerUtil.setForcedOpaque(splitPane, false);
+    splitPane.addListener(new MultiSplitPaneListener() {
+      public void weightsChanged(MultiSplitPane multiSplitPane) {
+        updateItemWeights();
+      }
+    });
+    setComponent(splitPane);
+    setHorizontal(horizontal);
+
+    if (windows != null)
+      setWindows(windows, weights == null ? getItemWeights(windows) : weights);
+
+    splitPane.addDividerMouseListener(new MouseAdapter() {
+      public void mousePressed(MouseEvent e) {
+        if (e.isPopupTrigger()) {
+          showPopupMenu(e);
+        }
+      }
+
+      public void mouseReleased(MouseEvent e) {
+        mousePressed(e);
+      }
+    });
+    init();
+  }
+
+  /**
+   * Returns the property values for this split window.
+   *
+   * @return the property values for this split window
+   */
+  public SplitWindowProperties getSplitWindowProperties() {
+    return ((MultiSplitWindowItem) getWindowItem()).getSplitWindowProperties();
+  }
+
+  /**
+   * Returns true if this window is a horizontal split, otherwise it's vertical.
+   *
+   * @return true if this window is a horizontal split, otherwise it's vertical
+   */
+  public boolean isHorizontal() {
+    return splitPane.isHorizontal();
+  }
+
+  /**
+   * Sets the split to horizontal or vertical.
+   *
+   * @param horizontal if true the split is set to horizontal, otherwise vertical
+   */
+  public void setHorizontal(boolean horizontal) {
+    splitPane.setHorizontal(horizontal);
+    ((MultiSplitWindowItem) getWindowItem()).setHorizontal(horizontal);
+  }
+
+  /**
+   * Returns the child window weights. The weights are normalized so that their sum is 1.
+   *
+   * @return the child window weights
+   */
+  public float[] getWeights() {
+    return splitPane.getWeights();
+  }
+
+  /**
+   * Sets the child window weights. The size of a child window is proportional to its weight.
+   *
+   * @param weights the weights, one for each child window
+   */
+  public void setWeights(float[] weights) {
+    if (weights.length != windows.size())
+      throw new IllegalArgumentException("The number of weights must be equal to the number of child windows!");
+
+    splitPane.setWeights(weights);
+  }
+
+  /**
+   * Sets the child windows of this split window.
+   *
+   * @param windows the child windows, from left to right or top to bottom
+   * @param weights the child window weights, one for each window
+   */
+  public void setWindows(final DockingWindow[] windows, final float[] weights) {
+    if (weights.length != windows.length)
+      throw new IllegalArgumentException("The number of weights must be equal to the number of windows!");
+
+    optimizeAfter(null, new Runnable() {
+      public void run() {
+        WindowAncestors[] ancestors = new WindowAncestors[windows.length];
+        DockingWindow[] contentWindows = new DockingWindow[windows.length];
+
+        for (int i = 0; i < windows.length; i++) {
+          ancestors[i] = windows[i].storeAncestors();
+          contentWindows[i] = windows[i].getContentWindow(MultiSplitWindow.this);
+        }
+
+        for (int i = 0; i < contentWindows.length; i++)
+          contentWindows[i].detach();
+
+        while (MultiSplitWindow.this.windows.size() > 0) {
+          DockingWindow w = getChildWindow(0);
+          MultiSplitWindow.this.windows.remove(0);
+          splitPane.removeSplitComponent(0);
+          removeWindow(w);
+        }
+
+        for (int i = 0; i < contentWindows.length; i++) {
+          MultiSplitWindow.this.windows.add(contentWindows[i]);
+          splitPane.insertSplitComponent(i, contentWindows[i], 0);
+          addWindow(contentWindows[i]);
+        }
+
+        if (getUpdateModel()) {
+          for (int i = 0; i < contentWindows.length; i++)
+            addWindowItem(contentWindows[i], -1);
+
+          cleanUpModel();
+        }
+
+        splitPane.setWeights(weights);
+
+        for (int i = 0; i < windows.length; i++)
+          windows[i].notifyListeners(ancestors[i]);
+      }
+    });
+  }
+
+  /**
+   * Inserts a child window.
+   *
+   * @param window the window to insert
+   * @param index  the index where to insert the window
+   * @param weight the weight of the window as a fraction of the total weight, 0 - 1. The weights of the other child
+   *               windows are scaled proportionally.
+   */
+  public void insertWindow(final DockingWindow window, final int index, final float weight) {
+    optimizeAfter(null, new Runnable() {
+      public void run() {
+        WindowAncestors ancestors = window.storeAncestors();
+        DockingWindow w = window.getContentWindow(MultiSplitWindow.this);
+        w.detach();
+        doInsertWindow(w, Math.max(0, Math.min(index, windows.size())), weight);
+        window.notifyListeners(ancestors);
+      }
+    });
+  }
+
+  private void doInsertWindow(DockingWindow window, int index, float weight) {
+    windows.add(index, window);
+    splitPane.insertSplitComponent(index, window, weight);
+    addWindow(window);
+
+    if (getUpdateModel()) {
+      addWindowItem(window, index == 0 ? 0 : getWindowItem().getWindowIndex(
+          getWindowItem().getChildWindowContaining(getChildWindow(index - 1).getWindowItem())) + 1);
+      cleanUpModel();
+    }
+
+    updateItemWeights();
+  }
+
+  /**
+   * Inserts a window that is restored to its location in the model.
+   */
+  void restoreWindow(DockingWindow window, WindowItem item) {
+    MultiSplitWindowItem splitItem = (MultiSplitWindowItem) getWindowItem();
+    WindowItem childItem = splitItem.getChildWindowContaining(item);
+    int index = 0;
+
+    for (int i = 0; i < splitItem.getWindowCount(); i++) {
+      WindowItem wi = splitItem.getWindow(i);
+
+      if (wi == childItem)
+        break;
+
+      if (wi.getVisibleDockingWindow() != null)
+        index++;
+    }
+
+    float weight = splitItem.getWeight(childItem);
+    doInsertWindow(window, Math.min(index, windows.size()), weight < 0 ? 1f / (windows.size() + 1) : weight);
+  }
+
+  private float[] getItemWeights(DockingWindow[] windows) {
+    MultiSplitWindowItem item = (MultiSplitWindowItem) getWindowItem();
+    float[] weights = new float[windows.length];
+
+    for (int i = 0; i < windows.length; i++) {
+      WindowItem childItem = item.getChildWindowContaining(windows[i].getWindowItem());
+      weights[i] = childItem == null ? -1 : item.getWeight(childItem);
+    }
+
+    for (int i = 0; i < windows.length; i++)
+      if (weights[i] < 0)
+        weights[i] = 1f / windows.length;
+
+    return weights;
+  }
+
+  private void updateItemWeights() {
+    MultiSplitWindowItem item = (MultiSplitWindowItem) getWindowItem();
+    float[] weights = splitPane.getWeights();
+
+    for (int i = 0; i < windows.size() && i < weights.length; i++) {
+      WindowItem childItem = item.getChildWindowContaining(getChildWindow(i).getWindowItem());
+
+      if (childItem != null)
+        item.setWeight(childItem, weights[i]);
+    }
+  }
+
+  protected void update() {
+    splitPane.setDividerSize(getSplitWindowProperties().getDividerSize());
+    splitPane.setContinuousLayout(getSplitWindowProperties().getContinuousLayoutEnabled());
+    splitPane.setContinuousLayoutFrameBudget(getSplitWindowProperties().getContinuousLayoutFrameBudget());
+    splitPane.setDividerDraggable(getSplitWindowProperties().getDividerLocationDragEnabled());
+    splitPane.setDragIndicatorColor(getSplitWindowProperties().getDragIndicatorColor());
+  }
+
+  protected void optimizeWindowLayout() {
+    DockingWindow parent = getWindowParent();
+
+    if (parent == null)
+      return;
+
+    if (windows.size() == 0)
+      parent.removeChildWindow(this);
+    else if (windows.size() == 1)
+      parent.internalReplaceChildWindow(this, getChildWindow(0).getBestFittedWindow(parent));
+    else if (getSplitWindowProperties().getNestedSplitMergeEnabled())
+      mergeNestedSplits();
+  }
+
+  private void mergeNestedSplits() {
+    ArrayList mergedWindows = new ArrayList();
+    ArrayList mergedWeights = new ArrayList();
+    float[] weights = getWeights();
+    boolean merged = false;
+
+    for (int i = 0; i < windows.size(); i++)
+      merged |= addMergedWindows(getChildWindow(i), weights[i], isHorizontal(), mergedWindows, mergedWeights);
+
+    if (merged) {
+      float[] w = new float[mergedWeights.size()];
+
+      for (int i = 0; i < w.length; i++)
+        w[i] = ((Float) mergedWeights.get(i)).floatValue();
+
+      setWindows((DockingWindow[]) mergedWindows.toArray(new DockingWindow[mergedWindows.size()]), w);
+    }
+  }
+
+  /**
+   * Adds a window, or the child windows of a split window with the given orientation, to a list of windows to merge.
+   *
+   * @return true if the window was a split window that was merged
+   */
+  static boolean addMergedWindows(DockingWindow window, float weight, boolean horizontal, ArrayList windows,
+                                  ArrayList weights) {
+    if (window instanceof SplitWindow && ((SplitWindow) window).isHorizontal() == horizontal &&
+        window.getChildWindowCount() == 2) {
+      SplitWindow splitWindow = (SplitWindow) window;
+      float location = splitWindow.getDividerLocation();
+      addMergedWindows(splitWindow.getLeftWindow(), weight * location, horizontal, windows, weights);
+      addMergedWindows(splitWindow.getRightWindow(), weight * (1 - location), horizontal, windows, weights);
+      return true;
+    }
+    else if (window instanceof MultiSplitWindow && ((MultiSplitWindow) window).isHorizontal() == horizontal) {
+      float[] childWeights = ((MultiSplitWindow) window).getWeights();
+
+      for (int i = 0; i < window.getChildWindowCount(); i++)
+        addMergedWindows(window.getChildWindow(i), weight * childWeights[i], horizontal, windows, weights);
+
+      return true;
+    }
+    else {
+      windows.add(window);
+      weights.add(Float.valueOf(weight));
+      return false;
+    }
+  }
+
+  public DockingWindow getChildWindow(int index) {
+    return (DockingWindow) windows.get(index);
+  }
+
+  public int getChildWindowCount() {
+    return windows.size();
+  }
+
+  public Icon getIcon() {
+    return windows.size() == 0 ? null : getChildWindow(0).getIcon();
+  }
+
+  protected void rootChanged(RootWindow oldRoot, RootWindow newRoot) {
+    super.rootChanged(oldRoot, newRoot);
+    if (newRoot != null)
+      splitPane.setHeavyWeightDragIndicator(newRoot.isHeavyweightSupported());
+  }
+
+  protected void doReplace(DockingWindow oldWindow, DockingWindow newWindow) {
+    int index = windows.indexOf(oldWindow);
+    windows.set(index, newWindow);
+    splitPane.setSplitComponent(index, newWindow);
+    updateItemWeights();
+    ComponentUtil.validate(splitPane);
+  }
+
+  protected void doRemoveWindow(DockingWindow window) {
+    // Store the weight of the removed window so that it's used when the window is restored
+    updateItemWeights();
+    int index = windows.indexOf(window);
+    windows.remove(index);
+    splitPane.removeSplitComponent(index);
+  }
+
+  protected void updateWindowItem(RootWindow rootWindow) {
+    super.updateWindowItem(rootWindow);
+    ((MultiSplitWindowItem) getWindowItem()).setParentSplitWindowProperties(rootWindow == null ?
+                                                                            SplitWindowItem.emptyProperties :
+                                                                            rootWindow.getRootWindowProperties()
+                                                                                .getSplitWindowProperties());
+  }
+
+  protected PropertyMap getPropertyObject() {
+    return getSplitWindowProperties().getMap();
+  }
+
+  protected PropertyMap createPropertyObject() {
+    return new SplitWindowProperties().getMap();
+  }
+
+  void removeWindowComponent(DockingWindow window) {
+    splitPane.setSplitComponent(windows.indexOf(window), null);
+  }
+
+  void restoreWindowComponent(DockingWindow window) {
+    splitPane.setSplitComponent(windows.indexOf(window), window);
+  }
+
+  protected int getChildEdgeDepth(DockingWindow window, Direction dir) {
+    int index = windows.indexOf(window);
+    Direction after = isHorizontal() ? Direction.RIGHT : Direction.DOWN;
+    Direction before = after.getOpposite();
+    return (dir == after && index < windows.size() - 1) || (dir == before && index > 0) ? 0 :
+           super.getChildEdgeDepth(window, dir);
+  }
+
+  protected DropAction doAcceptDrop(Point p, DockingWindow window) {
+    DropAction da = acceptChildDrop(p, window);
+
+    if (da != null)
+      return da;
+
+    float f = isHorizontal() ? (float) p.y / getHeight() : (float) p.x / getWidth();
+    getRootWindow().limitSplitDropRegion(this, isHorizontal(), f);
+
+    if (f <= 0.33f) {
+      Direction splitDir = isHorizontal() ? Direction.UP : Direction.LEFT;
+      return getSplitDropFilter().acceptDrop(new SplitDropInfo(window, this, p, splitDir)) ?
+             split(window, splitDir) : null;
+    }
+    else if (f >= 0.66f) {
+      Direction splitDir = isHorizontal() ? Direction.DOWN : Direction.RIGHT;
+      return getSplitDropFilter().acceptDrop(new SplitDropInfo(window, this, p, splitDir)) ?
+             split(window, splitDir) : null;
+    }
+    else {
+      return getInteriorDropFilter().acceptDrop(new InteriorDropInfo(window, this, p)) ?
+             createTabWindow(window) : null;
+    }
+  }
+
+  protected void write(ObjectOutputStream out, WriteContext context, ViewWriter viewWriter) throws IOException {
+    if (!context.isCompactFormat())
+      throw new IOException("Multi split windows can't be written in the legacy format!");
+
+    updateItemWeights();
+    out.writeInt(WindowIds.MULTI_SPLIT);
+    viewWriter.writeWindowItem(getWindowItem(), out, context);
+    float[] weights = getWeights();
+    out.writeInt(windows.size());
+
+    for (int i = 0; i < windows.size(); i++) {
+      out.writeFloat(weights[i]);
+      getChildWindow(i).write(out, context, viewWriter);
+    }
+  }
+
+  DockingWindow setDecodedWindows(DockingWindow[] decodedWindows, float[] decodedWeights) {
+    ArrayList readWindows = new ArrayList();
+    float[] weights = new float[decodedWindows.length];
+
+    for (int i = 0; i < decodedWindows.length; i++) {
+      if (decodedWindows[i] != null) {
+        weights[readWindows.size()] = decodedWeights[i];
+        readWindows.add(decodedWindows[i]);
+      }
+    }
+
+    if (readWindows.size() < 2)
+      return readWindows.size() == 0 ? null : (DockingWindow) readWindows.get(0);
+
+    float[] readWeights = new float[readWindows.size()];
+    System.arraycopy(weights, 0, readWeights, 0, readWeights.length);
+    setWindows((DockingWindow[]) readWindows.toArray(new DockingWindow[readWindows.size()]), readWeights);
+    return this;
+  }
+
+}
@@ -0,0 +1,373 @@
+/*
+ * Copyright (C) 2004 NNL Technology AB
+ * Visit www.infonode.net for information about InfoNode(R) 
+ * products and how to contact NNL Technology AB.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, 
+ * MA 02111-1307, USA.
+ */
+
+// $Id$
+package net.infonode.docking;
+
+import net.infonode.docking.internal.ReadContext;
+import net.infonode.docking.model.*;
+import net.infonode.docking.properties.WindowBarProperties;
+import net.infonode.util.CompactObjectInputStream;
+import net.infonode.util.Direction;
+
+import java.awt.*;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * A window state that has been read and decoded but not yet applied to a root window. Preparing a layout reads the
+ * state into memory, validates the header, decompresses a compressed state and decodes the state into window items
+ * and property values that are not connected to any root window. This doesn't access any windows, components or
+ * property maps in use, so it can be done on any thread, for example on the background thread that loads the state
+ * from a file. The layout is then applied to a root window on the event dispatch thread using
+ * {@link RootWindow#read(PreparedLayout, boolean)}, which only creates the views and windows and sets the decoded
+ * property values.
+ * <p>
+ * Some parts of the state are read when the layout is applied because they depend on the created windows. The view
+ * data is read by the {@link ViewSerializer} of the root window, and in the {@link LayoutFormat#LEGACY} format the
+ * view settings are stored in the view data. The last focused windows and the maximized window are stored last in the
+ * state and refer to the created windows. A state written in one of the oldest serialized formats, before window
+ * items were written, is decoded completely when the layout is applied.
+ * <p>
+ * {@link #PreparedLayout(InputStream)} reads the whole stream, so it's used for a stream that only contains the state,
+ * for example a file written with {@link RootWindow#write(java.io.ObjectOutputStream, boolean)}.
+ * {@link #PreparedLayout(ObjectInputStream)} reads the state from a stream that may contain other data as well. The
+ * extent of a state in the legacy format isn't known until it has been applied, so in that case the end of the state
+ * is read from the stream when the layout is applied.
+ * <p>
+ * A prepared layout can only be applied once.
+ *
+ * @author $Author$
+ * @version $Revision$
+ * @since IDW 1.7.0
+ */
+public final class PreparedLayout {
+  private int version;
+  private boolean compactFormat;
+  private boolean propertyValuesAvailable;
+  private ObjectInputStream in;
+
+  private byte[][] viewData;
+  private ViewItem[] viewSettings;
+  private RootWindowItem rootItem;
+  private ArrayList viewItems = new ArrayList();
+  private ArrayList viewItemIndexes = new ArrayList();
+  private HashSet windowItems = new HashSet();
+  private DecodedWindowBar[] windowBars;
+  private DecodedFloatingWindow[] floatingWindows;
+  private View[] views;
+
+  private static class DecodedWindowBar {
+    private int contentPanelSize;
+    private boolean enabled;
+    private WindowBarItem item = new WindowBarItem();
+    private DecodedWindow[] windows;
+  }
+
+  private static class DecodedFloatingWindow {
+    private Dimension size;
+    private Point location;
+    private boolean visible;
+    private FloatingWindowItem item = new FloatingWindowItem();
+    private DecodedWindow window;
+  }
+
+  private MultiSplitViewReader viewReader = new MultiSplitViewReader() {
+    public ViewItem readViewItem(ObjectInputStream in, ReadContext context) throws IOException {
+      // The item is replaced with the item of the view when the view has been created
+      ViewItem item = new ViewItem();
+      viewItems.add(item);
+      viewItemIndexes.add(Integer.valueOf(in.readInt()));
+      return item;
+    }
+
+    public WindowItem readWindowItem(ObjectInputStream in, ReadContext context) throws IOException {
+      if (in.readBoolean()) {
+        int index;
+        WindowItem item = rootItem;
+
+        while ((index = in.readInt()) != -1) {
+          item = item.getWindow(index);
+        }
+
+        return item;
+      }
+      else
+        return null;
+    }
+
+    public TabWindow createTabWindow(DockingWindow[] childWindows, TabWindowItem windowItem) {
+      TabWindow tabWindow = new TabWindow(childWindows, windowItem);
+      tabWindow.updateSelectedTab();
+      return tabWindow;
+    }
+
+    public SplitWindow createSplitWindow(DockingWindow leftWindow,
+                                         DockingWindow rightWindow,
+                                         SplitWindowItem windowItem) {
+      return new SplitWindow(windowItem.isHorizontal(),
+          windowItem.getDividerLocation(),
+          leftWindow,
+          rightWindow,
+          windowItem);
+    }
+
+    public MultiSplitWindow createMultiSplitWindow(DockingWindow[] childWindows,
+                                                   MultiSplitWindowItem windowItem) {
+      return new MultiSplitWindow(windowItem.isHorizontal(), null, childWindows, windowItem);
+    }
+
+    public View readView(ObjectInputStream in, ReadContext context) throws IOException {
+      int id = in.readInt();
+      return id == -1 ? null : views[id];
+    }
+  };
+
+  /**
+   * Reads and decodes a window state previously written with
+   * {@link RootWindow#write(java.io.ObjectOutputStream, boolean)} or
+   * {@link RootWindow#write(java.io.ObjectOutputStream, boolean, LayoutFormat)}. The end of a state in the legacy
+   * format is read from the stream when the layout is applied.
+   *
+   * @param in the stream from which to read the state
+   * @throws IOException if there is a stream error or the state was written by a later version of InfoNode Docking
+   *                     Windows
+   */
+  public PreparedLayout(ObjectInputStream in) throws IOException {
+    decode(readHeader(in));
+  }
+
+  /**
+   * Reads and decodes all data in a stream that contains a window state, and nothing else, written to an
+   * {@link java.io.ObjectOutputStream} with {@link RootWindow#write(java.io.ObjectOutputStream, boolean)} or
+   * {@link RootWindow#write(java.io.ObjectOutputStream, boolean, LayoutFormat)}. The whole state is read into memory,
+   * so no I/O is done when the layout is applied. The stream is not closed.
+   * <p>
+   * If the stream is an {@link ObjectInputStream} it's read like {@link #PreparedLayout(ObjectInputStream)} reads
+   * it, so the end of a state in the legacy format is then read from the stream when the layout is applied.
+   *
+   * @param in the stream from which to read the state
+   * @throws IOException if there is a stream error, the stream doesn't contain a window state or the state was written
+   *                     by a later version of InfoNode Docking Windows
+   */
+  public PreparedLayout(InputStream in) throws IOException {
+    if (in instanceof ObjectInputStream)
+      decode(readHeader((ObjectInputStream) in));
+    else
+      decode(readHeader(new ObjectInputStream(new ByteArrayInputStream(readFully(in)))));
+  }
+
+  private ObjectInputStream readHeader(ObjectInputStream in) throws IOException {
+    version = in.readInt();
+
+    if (version > RootWindow.SERIALIZE_VERSION)
+      throw new IOException(
+          "Can't read serialized data because it was written by a later version of InfoNode Docking Windows!");
+
+    compactFormat = version > RootWindow.LEGACY_SERIALIZE_VERSION;
+
+    if (!compactFormat)
+      return in;
+
+    boolean compressed = in.readBoolean();
+    byte[] block = new byte[in.readInt()];
+    in.readFully(block);
+    return new CompactObjectInputStream(new ByteArrayInputStream(compressed ? inflate(block) : block));
+  }
+
+  private void decode(ObjectInputStream in) throws IOException {
+    propertyValuesAvailable = in.readBoolean();
+    this.in = in;
+
+    if (version < 3)
+      return;
+
+    ReadContext context = new ReadContext(version, propertyValuesAvailable, compactFormat);
+    viewData = new byte[in.readInt()][];
+    viewSettings = new ViewItem[viewData.length];
+
+    for (int i = 0; i < viewData.length; i++) {
+      viewData[i] = View.readViewData(in);
+
+      // In the legacy format the settings are part of the view data
+      if (compactFormat) {
+        viewSettings[i] = new ViewItem();
+        viewSettings[i].readSettings(in, context);
+      }
+    }
+
+    rootItem = new RootWindowItem();
+    rootItem.decode(in, context, viewReader, windowItems);
+    windowBars = new DecodedWindowBar[Direction.values().length];
+
+    for (int i = 0; i < windowBars.length; i++) {
+      DecodedWindowBar bar = new DecodedWindowBar();
+      bar.contentPanelSize = in.readInt();
+      bar.enabled = in.readBoolean();
+      bar.item.setWindowBarProperties(new WindowBarProperties());
+      bar.item.readSettings(in, context);
+      bar.windows = WindowDecoder.decodeWindows(in, context, viewReader);
+      windowBars[i] = bar;
+    }
+
+    floatingWindows = new DecodedFloatingWindow[version >= 4 ? in.readInt() : 0];
+
+    for (int i = 0; i < floatingWindows.length; i++) {
+      DecodedFloatingWindow floatingWindow = new DecodedFloatingWindow();
+      floatingWindow.size = new Dimension(in.readInt(), in.readInt());
+      floatingWindow.location = new Point(in.readInt(), in.readInt());
+      floatingWindow.visible = in.readBoolean();
+      floatingWindow.item.readSettings(in, context);
+
+      if (in.readBoolean())
+        floatingWindow.window = WindowDecoder.decodeWindow(in, context, viewReader);
+
+      floatingWindows[i] = floatingWindow;
+    }
+  }
+
+  private static byte[] inflate(byte[] data) throws IOException {
+    return readFully(new InflaterInputStream(new ByteArrayInputStream(data)), data.length * 4);
+  }
+
+  private static byte[] readFully(InputStream in) throws IOException {
+    return readFully(in, Math.max(in.available(), 4096));
+  }
+
+  private static byte[] readFully(InputStream in, int size) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+    byte[] buffer = new byte[4096];
+    int count;
+
+    while ((count = in.read(buffer)) != -1)
+      out.write(buffer, 0, count);
+
+    return out.toByteArray();
+  }
+
+  /**
+   * Returns true if this layout has been applied to a root window.
+   *
+   * @return true if this layout has been applied to a root window
+   */
+  public boolean isApplied() {
+    return in == null;
+  }
+
+  int getVersion() {
+    return version;
+  }
+
+  boolean isCompactFormat() {
+    return compactFormat;
+  }
+
+  boolean isPropertyValuesAvailable() {
+    return propertyValuesAvailable;
+  }
+
+  /**
+   * Returns the stream containing the part of the state that is read when the layout is applied. For a state in one of
+   * the oldest formats this is the whole state.
+   */
+  ObjectInputStream takeStream() throws IOException {
+    if (in == null)
+      throw new IOException("The layout has already been applied!");
+
+    ObjectInputStream stream = in;
+    in = null;
+    return stream;
+  }
+
+  /**
+   * Creates the views and windows of a decoded state in a root window and sets the decoded settings and property
+   * values. Must be called on the event dispatch thread.
+   */
+  void createWindows(RootWindow rootWindow, ReadContext context) throws IOException {
+    views = new View[viewData.length];
+
+    for (int i = 0; i < views.length; i++) {
+      views[i] = View.readView(viewData[i], context);
+
+      if (views[i] != null) {
+        if (compactFormat)
+          views[i].getWindowItem().applyDecodedSettings(viewSettings[i], context);
+
+        views[i].setRootWindow(rootWindow);
+      }
+    }
+
+    WindowItem windowItem = rootWindow.getWindowItem();
+    windowItem.removeAll();
+
+    while (rootItem.getWindowCount() > 0)
+      windowItem.addWindow(rootItem.getWindow(0));
+
+    for (int i = 0; i < viewItems.size(); i++) {
+      int index = ((Integer) viewItemIndexes.get(i)).intValue();
+      View view = index == -1 ? null : views[index];
+
+      if (view != null) {
+        ViewItem item = (ViewItem) viewItems.get(i);
+        item.replaceWith(view.getWindowItem());
+
+        if (windowItems.remove(item))
+          windowItems.add(view.getWindowItem());
+      }
+    }
+
+    windowItem.applyDecodedSettings(rootItem, context);
+    applyDecodedSettings(windowItem, context);
+    rootWindow.setWindow(windowItem.createWindows(viewReader, windowItems));
+
+    for (int i = 0; i < windowBars.length; i++) {
+      WindowBar bar = rootWindow.getWindowBar(Direction.values()[i]);
+      bar.setContentPanelSize(windowBars[i].contentPanelSize);
+      bar.setEnabled(windowBars[i].enabled);
+      bar.getWindowItem().applyDecodedSettings(windowBars[i].item, context);
+      bar.setDecodedWindows(DecodedWindow.create(windowBars[i].windows, views, context));
+    }
+
+    for (int i = 0; i < floatingWindows.length; i++) {
+      FloatingWindow w = rootWindow.createFloatingWindow();
+      w.setDecodedBounds(floatingWindows[i].size, floatingWindows[i].location, floatingWindows[i].visible);
+      w.getWindowItem().applyDecodedSettings(floatingWindows[i].item, context);
+
+      if (floatingWindows[i].window != null)
+        w.setWindow(floatingWindows[i].window.create(views, context));
+    }
+  }
+
+  private static void applyDecodedSettings(WindowItem windowItem, ReadContext context) {
+    for (int i = 0; i < windowItem.getWindowCount(); i++) {
+      WindowItem item = windowItem.getWindow(i);
+      item.applyDecodedSettings(item, context);
+      applyDecodedSettings(item, context);
+    }
+  }
+
+}
@@ -27,11 +27,11 @@ import java.awt.*;
 import java.awt.event.MouseEvent;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
-import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.*;
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.zip.DeflaterOutputStream;
 
 import javax.swing.*;
 
@@ -60,6 +60,7 @@ import net.infonode.properties.gui.InternalPropertiesUtil;
 import net.infonode.properties.propertymap.PropertyMap;
 import net.infonode.properties.propertymap.PropertyMapManager;
 import net.infonode.util.ArrayUtil;
+import net.infonode.util.CompactObjectOutputStream;
 import net.infonode.util.Direction;
 import net.infonode.util.Readable;
 import net.infonode.util.Writable;
@@ -72,7 +73,12 @@ import net.infonode.util.Writable;
  * @version $Revision: 1.129 $
  */
 public class RootWindow extends DockingWindow implements Readable, Writable {
-  private static final int SERIALIZE_VERSION = 4;
+  static final int SERIALIZE_VERSION = 6;
+
+  /**
+   * The last version written with the legacy format
+   */
+  static final int LEGACY_SERIALIZE_VERSION = 4;
 
   private static final int FLOATING_WINDOW_MIN_WIDTH = 400;
   private static final int FLOATING_WINDOW_MIN_HEIGHT = 300;
@@ -183,6 +189,11 @@ public class RootWindow extends DockingWindow implements Readable, Writable {
 
   private final Component dragRectangle;
   private JRootPane currentDragRootPane;
+  private final ArrayList dropTargetIndexes = new ArrayList();
+  private JRootPane dropRegionRootPane;
+  private Point dropRegionPoint;
+  private Rectangle dropRegion;
+  private WindowStructureJournal structureJournal;
 
   /**
    * Creates an empty root window.
@@ -448,6 +459,93 @@ public class RootWindow extends DockingWindow implements Readable, Writable {
     return window;
   }
 
+  /**
+   * <p>
+   * Runs an operation that performs many window changes, for example adding hundreds of views or rebuilding a layout,
+   * as one batch.
+   * </p>
+   * <p>
+   * Inside the batch, layout optimization, button visibility updates, focus restoration and listener notifications are
+   * deferred until the batch ends and are then applied once. Listener notifications are delivered in the order they
+   * occurred. Vetoable notifications, for example {@link DockingWindowListener#windowClosing}, are still delivered
+   * immediately so that listeners can abort the operation. The root window is revalidated and repainted once when the
+   * batch ends. {@link WindowStructureListener}s are notified of the net changes in the batch when it ends.
+   * </p>
+   * <p>
+   * Calls can be nested, the deferred work is then applied when the outermost batch ends. This method must be called
+   * on the event dispatch thread.
+   * </p>
+   *
+   * @param runnable the operation to run
+   * @since IDW 1.7.0
+   */
+  public void runBulk(final Runnable runnable) {
+    FocusManager.getInstance().pinFocus(new Runnable() {
+      public void run() {
+        WindowEventQueue.beginDefer();
+
+        try {
+          beginOptimize(null);
+
+          try {
+            runnable.run();
+          }
+          finally {
+            endOptimize();
+          }
+        }
+        finally {
+          WindowEventQueue.endDefer();
+        }
+      }
+    });
+
+    if (structureJournal != null && !WindowEventQueue.isDeferring())
+      structureJournal.flush();
+
+    revalidate();
+    repaint();
+  }
+
+  /**
+   * <p>
+   * Adds a listener that receives the structural changes in this root window as batches, see
+   * {@link WindowStructureListener}.
+   * </p>
+   * <p>
+   * Changes are only recorded while there is at least one such listener.
+   * </p>
+   *
+   * @param listener the listener
+   * @since IDW 1.7.0
+   */
+  public void addStructureListener(WindowStructureListener listener) {
+    if (structureJournal == null)
+      structureJournal = new WindowStructureJournal(this);
+
+    structureJournal.addListener(listener);
+  }
+
+  /**
+   * Removes a previously added structure listener.
+   *
+   * @param listener the listener
+   * @since IDW 1.7.0
+   */
+  public void removeStructureListener(WindowStructureListener listener) {
+    if (structureJournal != null) {
+      structureJournal.removeListener(listener);
+
+      if (!structureJournal.hasListeners())
+        structureJournal = null;
+    }
+  }
+
+  void recordStructureChange(int type, DockingWindow window) {
+    if (structureJournal != null)
+      structureJournal.record(type, window);
+  }
+
   /**
    * <p>
    * Creates and shows a floating window with the given window as top-level window in the floating window or without
@@ -542,25 +640,65 @@ public class RootWindow extends DockingWindow implements Readable, Writable {
   }
 
   /**
-   * Writes the state of this root window and all child windows.
+   * Writes the state of this root window and all child windows using the {@link LayoutFormat#COMPACT} format.
    *
    * @param out             the stream on which to write the state
    * @param writeProperties true if the property values for all docking windows should be written to the stream
    * @throws IOException if there is a stream error
    */
   public void write(ObjectOutputStream out, boolean writeProperties) throws IOException {
+    write(out, writeProperties, LayoutFormat.COMPACT);
+  }
+
+  /**
+   * Writes the state of this root window and all child windows using a specific format. The state can be read with
+   * {@link #read(ObjectInputStream, boolean)} regardless of the format.
+   *
+   * @param out             the stream on which to write the state
+   * @param writeProperties true if the property values for all docking windows should be written to the stream
+   * @param format          the format to write the state in
+   * @throws IOException if there is a stream error
+   * @since IDW 1.7.0
+   */
+  public void write(ObjectOutputStream out, boolean writeProperties, LayoutFormat format) throws IOException {
     cleanUpModel();
-    out.writeInt(SERIALIZE_VERSION);
+
+    if (format == LayoutFormat.LEGACY) {
+      out.writeInt(LEGACY_SERIALIZE_VERSION);
+      writeState(out, writeProperties);
+    }
+    else {
+      // The state is written as a separate block so that a compressed state can't be read past its end
+      boolean compress = format == LayoutFormat.COMPACT_COMPRESSED;
+      ByteArrayOutputStream block = new ByteArrayOutputStream();
+      CompactObjectOutputStream blockOut = new CompactObjectOutputStream(
+          compress ? (OutputStream) new DeflaterOutputStream(block) : block);
+      writeState(blockOut, writeProperties);
+      blockOut.close();
+
+      out.writeInt(SERIALIZE_VERSION);
+      out.writeBoolean(compress);
+      out.writeInt(block.size());
+      block.writeTo(out);
+    }
+  }
+
+  private void writeState(ObjectOutputStream out, boolean writeProperties) throws IOException {
     out.writeBoolean(writeProperties);
-    WriteContext context = new WriteContext(writeProperties, getViewSerializer());
+    WriteContext context = new WriteContext(writeProperties,
+                                            getViewSerializer(),
+                                            out instanceof CompactObjectOutputStream);
 
     final ArrayList v = new ArrayList();
+    final IdentityHashMap viewIndexes = new IdentityHashMap();
 
     for (int i = 0; i < views.size(); i++) {
       View view = (View) ((WeakReference) views.get(i)).get();
 
-      if (view != null)
+      if (view != null) {
+        viewIndexes.put(view, Integer.valueOf(v.size()));
         v.add(view);
+      }
     }
 
     writeViews(v, out, context);
@@ -579,14 +717,8 @@ public class RootWindow extends DockingWindow implements Readable, Writable {
       }
 
       public void writeView(View view, ObjectOutputStream out, WriteContext context) throws IOException {
-        for (int i = 0; i < v.size(); i++) {
-          if (v.get(i) == view) {
-            out.writeInt(i);
-            return;
-          }
-        }
-
-        out.writeInt(-1);
+        Integer index = (Integer) viewIndexes.get(view);
+        out.writeInt(index == null ? -1 : index.intValue());
       }
     };
     getWindowItem().write(out, context, viewWriter);
@@ -664,77 +796,11 @@ public class RootWindow extends DockingWindow implements Readable, Writable {
     }
   }
 
-  private void newInternalRead(ObjectInputStream in, ReadContext context) throws IOException {
+  private void newInternalRead(PreparedLayout layout, ObjectInputStream in, ReadContext context) throws IOException {
     beginUpdateModel();
 
     try {
-      int viewCount = in.readInt();
-      final View[] views = new View[viewCount];
-
-      for (int i = 0; i < viewCount; i++) {
-        views[i] = View.read(in, context);
-
-        if (views[i] != null)
-          views[i].setRootWindow(this);
-      }
-
-      ViewReader viewReader = new ViewReader() {
-        public ViewItem readViewItem(ObjectInputStream in, ReadContext context) throws IOException {
-          View view = readView(in, context);
-          return view == null ? new ViewItem() : (ViewItem) view.getWindowItem();
-        }
-
-        public WindowItem readWindowItem(ObjectInputStream in, ReadContext context) throws IOException {
-          if (in.readBoolean()) {
-            int index;
-            WindowItem item = getWindowItem();
-
-            while ((index = in.readInt()) != -1) {
-              item = item.getWindow(index);
-            }
-
-            return item;
-          }
-          else
-            return null;
-        }
-
-        public TabWindow createTabWindow(DockingWindow[] childWindows, TabWindowItem windowItem) {
-          TabWindow tabWindow = new TabWindow(childWindows, windowItem);
-          tabWindow.updateSelectedTab();
-          return tabWindow;
-        }
-
-        public SplitWindow createSplitWindow(DockingWindow leftWindow,
-                                             DockingWindow rightWindow,
-                                             SplitWindowItem windowItem) {
-          return new SplitWindow(windowItem.isHorizontal(),
-              windowItem.getDividerLocation(),
-              leftWindow,
-              rightWindow,
-              windowItem);
-        }
-
-        public View readView(ObjectInputStream in, ReadContext context) throws IOException {
-          int id = in.readInt();
-          return id == -1 ? null : (View) views[id];
-        }
-      };
-      setWindow(getWindowItem().read(in, context, viewReader));
-
-      for (int i = 0; i < 4; i++)
-        windowBars[i].newRead(in, context, viewReader);
-
-      if (context.getVersion() >= 4) {
-        int count = in.readInt();
-
-        for (int i = 0; i < count; i++) {
-          FloatingWindow w = createFloatingWindow();
-          w.read(in, context, viewReader);
-        }
-
-      }
-
+      layout.createWindows(this, context);
       readLocations(in, this, context.getVersion());
     }
     finally {
@@ -752,7 +818,37 @@ public class RootWindow extends DockingWindow implements Readable, Writable {
    * @throws IOException if there is a stream error
    */
   public void read(ObjectInputStream in, boolean readProperties) throws IOException {
+    apply(new PreparedLayout(in), readProperties);
+  }
+
+  /**
+   * Applies a window state that has been prepared, possibly on another thread, using one of the
+   * {@link PreparedLayout} constructors. This creates the views and child windows of the decoded state and sets their
+   * property values. The windows are created in one {@link PropertyMapManager} batch, property change notifications and
+   * window layout optimizations are deferred until the whole state has been applied.
+   * <p>
+   * This method must be called on the event dispatch thread.
+   *
+   * @param layout         the prepared window state
+   * @param readProperties true if the property values for all child windows should be read. This parameter can be set
+   *                       to true or false regardless of if the property values was included when the state was
+   *                       written, though obviously no property values are read if there aren't any in the stream.
+   * @throws IOException           if there is a stream error or if the layout has already been applied
+   * @throws IllegalStateException if this method is not called on the event dispatch thread
+   * @since IDW 1.7.0
+   */
+  public void read(PreparedLayout layout, boolean readProperties) throws IOException {
+    if (!SwingUtilities.isEventDispatchThread())
+      throw new IllegalStateException("A prepared layout must be applied on the event dispatch thread!");
+
+    apply(layout, readProperties);
+  }
+
+  private void apply(PreparedLayout layout, boolean readProperties) throws IOException {
+    ObjectInputStream in = layout.takeStream();
+    int serializeVersion = layout.getVersion();
     FocusManager.getInstance().startIgnoreFocusChanges();
+    beginOptimize(null);
     PropertyMapManager.getInstance().beginBatch();
 
     try {
@@ -762,18 +858,16 @@ public class RootWindow extends DockingWindow implements Readable, Writable {
         ((FloatingWindow) floatingWindows.get(0)).close();
       }
 
-      int serializeVersion = in.readInt();
-
-      if (serializeVersion > SERIALIZE_VERSION)
-        throw new IOException(
-        "Can't read serialized data because it was written by a later version of InfoNode Docking Windows!");
-
-      ReadContext context = new ReadContext(this, serializeVersion, in.readBoolean(), readProperties);
+      ReadContext context = new ReadContext(this,
+                                            serializeVersion,
+                                            layout.isPropertyValuesAvailable(),
+                                            readProperties,
+                                            layout.isCompactFormat());
 
       if (context.getVersion() < 3)
         oldInternalRead(in, context);
       else
-        newInternalRead(in, context);
+        newInternalRead(layout, in, context);
 
       if (serializeVersion > 1)
         readMaximized(in);
@@ -782,6 +876,7 @@ public class RootWindow extends DockingWindow implements Readable, Writable {
     }
     finally {
       PropertyMapManager.getInstance().endBatch();
+      endOptimize();
       SwingUtilities.invokeLater(new Runnable() {
         public void run() {
           FocusManager.getInstance().stopIgnoreFocusChanges();
@@ -1012,6 +1107,162 @@ public class RootWindow extends DockingWindow implements Readable, Writable {
 
     if (dummyFrame != null && fwStartedDrag != null)
       ((Window) (fwStartedDrag.getTopLevelAncestor())).toFront();
+
+    dropTargetIndexes.clear();
+    dropTargetIndexes.add(new DropTargetIndex(this, getRootPane()));
+
+    for (int i = 0; i < floatingWindows.size(); i++) {
+      JRootPane rootPane = ((FloatingWindow) floatingWindows.get(i)).getRootPane();
+
+      if (rootPane != null)
+        getDropTargetIndex(rootPane);
+    }
+  }
+
+  /**
+   * Starts collecting the drop region for a drop evaluation. While collecting, the drop code limits the region to
+   * the area around the point where the evaluation gives the same result.
+   *
+   * @param rootPane the root pane
+   * @param point    the drop point in root pane coordinates
+   */
+  void beginDropRegion(JRootPane rootPane, Point point) {
+    dropRegionRootPane = rootPane;
+    dropRegionPoint = point;
+    dropRegion = new Rectangle(0, 0, rootPane.getWidth(), rootPane.getHeight());
+  }
+
+  /**
+   * Stops collecting the drop region.
+   *
+   * @return the drop region in root pane coordinates, null if the region doesn't contain the drop point
+   */
+  Rectangle endDropRegion() {
+    Rectangle region = dropRegion;
+    Point point = dropRegionPoint;
+    dropRegion = null;
+    dropRegionPoint = null;
+    dropRegionRootPane = null;
+    return region != null && region.contains(point) ? region : null;
+  }
+
+  /**
+   * Limits the drop region to a rectangle.
+   *
+   * @param component the component the rectangle is relative to
+   * @param rect      the rectangle
+   */
+  void limitDropRegion(Component component, Rectangle rect) {
+    if (dropRegion != null)
+      dropRegion = dropRegion.intersection(SwingUtilities.convertRectangle(component, rect, dropRegionRootPane));
+  }
+
+  /**
+   * Limits the drop region to the part of a split window that a drop at a relative position along the split axis
+   * evaluates to. The parts are split at 0.33 and 0.66 of the window length, the same limits as the drop evaluation.
+   *
+   * @param component  the split window
+   * @param horizontal true if the split window is horizontal, the split axis is then vertical
+   * @param position   the relative position of the drop point along the split axis
+   */
+  void limitSplitDropRegion(Component component, boolean horizontal, float position) {
+    int length = horizontal ? component.getHeight() : component.getWidth();
+    int start = getFirstPosition(length, 0.33f, false);
+    int end = getFirstPosition(length, 0.66f, true);
+
+    if (position <= 0.33f) {
+      end = start;
+      start = 0;
+    }
+    else if (position >= 0.66f) {
+      start = end;
+      end = length;
+    }
+
+    limitDropRegion(component, horizontal ? new Rectangle(0, start, component.getWidth(), end - start) :
+                               new Rectangle(start, 0, end - start, component.getHeight()));
+  }
+
+  /**
+   * Returns the first position where the relative position is larger than (or equal to) a value.
+   *
+   * @param length    the length the position is relative to
+   * @param value     the relative position
+   * @param inclusive if true, positions equal to the value are included
+   * @return the position
+   */
+  private static int getFirstPosition(int length, float value, boolean inclusive) {
+    int pos = Math.max(0, Math.min(length, (int) (value * length)));
+
+    while (pos > 0 && (inclusive ? (float) (pos - 1) / length >= value : (float) (pos - 1) / length > value))
+      pos--;
+
+    while (pos < length && (inclusive ? (float) pos / length < value : (float) pos / length <= value))
+      pos++;
+
+    return pos;
+  }
+
+  /**
+   * Limits the drop region so that it doesn't intersect a rectangle. If the drop point is inside the rectangle, the
+   * region is limited to the drop point.
+   *
+   * @param component the component the rectangle is relative to
+   * @param rect      the rectangle
+   */
+  void excludeDropRegion(Component component, Rectangle rect) {
+    if (dropRegion == null)
+      return;
+
+    Rectangle r = SwingUtilities.convertRectangle(component, rect, dropRegionRootPane);
+    Rectangle region = dropRegion;
+    Point p = dropRegionPoint;
+    int x1 = region.x;
+    int y1 = region.y;
+    int x2 = region.x + region.width;
+    int y2 = region.y + region.height;
+
+    if (r.x >= x2 || r.y >= y2 || r.x + r.width <= x1 || r.y + r.height <= y1)
+      return;
+
+    // Cut away the side of the region that leaves the largest area
+    int left = p.x < r.x ? (r.x - x1) * region.height : 0;
+    int right = p.x >= r.x + r.width ? (x2 - r.x - r.width) * region.height : 0;
+    int top = p.y < r.y ? (r.y - y1) * region.width : 0;
+    int bottom = p.y >= r.y + r.height ? (y2 - r.y - r.height) * region.width : 0;
+    int max = Math.max(Math.max(left, right), Math.max(top, bottom));
+
+    if (max == 0)
+      region.setBounds(p.x, p.y, 1, 1);
+    else if (max == left)
+      region.width = r.x - x1;
+    else if (max == right)
+      region.setBounds(r.x + r.width, y1, x2 - r.x - r.width, region.height);
+    else if (max == top)
+      region.height = r.y - y1;
+    else
+      region.setBounds(x1, r.y + r.height, region.width, y2 - r.y - r.height);
+  }
+
+  /**
+   * Limits the drop region to the drop point. Used when the drop evaluation depends on the exact point.
+   */
+  void limitDropRegionToPoint() {
+    if (dropRegion != null)
+      dropRegion = dropRegion.intersection(new Rectangle(dropRegionPoint.x, dropRegionPoint.y, 1, 1));
+  }
+
+  DropTargetIndex getDropTargetIndex(JRootPane rootPane) {
+    for (int i = 0; i < dropTargetIndexes.size(); i++) {
+      DropTargetIndex index = (DropTargetIndex) dropTargetIndexes.get(i);
+
+      if (index.getRootPane() == rootPane)
+        return index;
+    }
+
+    DropTargetIndex index = new DropTargetIndex(this, rootPane);
+    dropTargetIndexes.add(index);
+    return index;
   }
 
   void stopDrag() {
@@ -1042,6 +1293,7 @@ public class RootWindow extends DockingWindow implements Readable, Writable {
 
     CursorManager.resetGlobalCursor(getCurrentDragRootPane());
     currentDragRootPane = null;
+    dropTargetIndexes.clear();
 
     for (int i = 0; i < floatingWindows.size(); i++) {
       ((FloatingWindow) floatingWindows.get(i)).stopDrag();
@@ -1225,8 +1477,10 @@ public class RootWindow extends DockingWindow implements Readable, Writable {
     if (maximizedWindow != null) {
       Point p2 = SwingUtilities.convertPoint(this, p, maximizedWindow);
 
-      if (maximizedWindow.contains(p2) &&
-          getChildDropFilter().acceptDrop(new ChildDropInfo(window, this, p, maximizedWindow))) {
+      if (!maximizedWindow.contains(p2))
+        excludeDropRegion(maximizedWindow,
+                          new Rectangle(0, 0, maximizedWindow.getWidth(), maximizedWindow.getHeight()));
+      else if (getChildDropFilter().acceptDrop(new ChildDropInfo(window, this, p, maximizedWindow))) {
         DropAction da = maximizedWindow.acceptDrop(p2, window);
 
         if (da != null)
@@ -30,7 +30,6 @@ import net.infonode.docking.internal.WindowAncestors;
 import net.infonode.docking.internal.WriteContext;
 import net.infonode.docking.internalutil.DropAction;
 import net.infonode.docking.model.SplitWindowItem;
-import net.infonode.docking.model.ViewReader;
 import net.infonode.docking.model.ViewWriter;
 import net.infonode.docking.properties.SplitWindowProperties;
 import net.infonode.gui.ComponentUtil;
@@ -47,6 +46,7 @@ import java.awt.event.MouseEvent;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.ArrayList;
 
 /**
  * A window with a split pane that contains two child windows.
@@ -234,6 +234,7 @@ public class SplitWindow extends DockingWindow {
   protected void update() {
     splitPane.setDividerSize(getSplitWindowProperties().getDividerSize());
     splitPane.setContinuousLayout(getSplitWindowProperties().getContinuousLayoutEnabled());
+    splitPane.setContinuousLayoutFrameBudget(getSplitWindowProperties().getContinuousLayoutFrameBudget());
     splitPane.setDividerDraggable(getSplitWindowProperties().getDividerLocationDragEnabled());
     splitPane.setDragIndicatorColor(getSplitWindowProperties().getDragIndicatorColor());
   }
@@ -249,6 +250,31 @@ public class SplitWindow extends DockingWindow {
         parent.internalReplaceChildWindow(this, w.getBestFittedWindow(parent));
       }
     }
+    else if (parent != null && getSplitWindowProperties().getNestedSplitMergeEnabled())
+      mergeNestedSplits(parent);
+  }
+
+  private void mergeNestedSplits(final DockingWindow parent) {
+    final ArrayList windows = new ArrayList();
+    ArrayList weights = new ArrayList();
+    float location = getDividerLocation();
+
+    if (MultiSplitWindow.addMergedWindows(getLeftWindow(), location, isHorizontal(), windows, weights) |
+        MultiSplitWindow.addMergedWindows(getRightWindow(), 1 - location, isHorizontal(), windows, weights)) {
+      final float[] w = new float[weights.size()];
+
+      for (int i = 0; i < w.length; i++)
+        w[i] = ((Float) weights.get(i)).floatValue();
+
+      // The new window must not be optimized before it contains the child windows
+      optimizeAfter(null, new Runnable() {
+        public void run() {
+          MultiSplitWindow newWindow = new MultiSplitWindow(isHorizontal());
+          parent.replaceChildWindow(SplitWindow.this, newWindow);
+          newWindow.setWindows((DockingWindow[]) windows.toArray(new DockingWindow[windows.size()]), w);
+        }
+      });
+    }
   }
 
   public DockingWindow getChildWindow(int index) {
@@ -361,6 +387,7 @@ public class SplitWindow extends DockingWindow {
       return da;
 
     float f = isHorizontal() ? (float) p.y / getHeight() : (float) p.x / getWidth();
+    getRootWindow().limitSplitDropRegion(this, isHorizontal(), f);
 
     if (f <= 0.33f) {
       Direction splitDir = isHorizontal() ? Direction.UP : Direction.LEFT;
@@ -385,10 +412,7 @@ public class SplitWindow extends DockingWindow {
     getRightWindow().write(out, context, viewWriter);
   }
 
-  protected DockingWindow newRead(ObjectInputStream in, ReadContext context, ViewReader viewReader) throws IOException {
-    DockingWindow leftWindow = WindowDecoder.decodeWindow(in, context, viewReader);
-    DockingWindow rightWindow = WindowDecoder.decodeWindow(in, context, viewReader);
-
+  DockingWindow setDecodedWindows(DockingWindow leftWindow, DockingWindow rightWindow) {
     if (leftWindow != null && rightWindow != null) {
       setWindows(leftWindow, rightWindow);
       return this;
@@ -133,11 +133,11 @@ public class TabWindow extends AbstractTabWindow {
 
     getTabbedPanel().addTabListener(new TabAdapter() {
       public void tabAdded(TabEvent event) {
-        doUpdateButtonVisibility(null);
+        updateButtonVisibilityAfterOptimize();
       }
 
       public void tabRemoved(TabRemovedEvent event) {
-        doUpdateButtonVisibility(null);
+        updateButtonVisibilityAfterOptimize();
       }
     });
 
@@ -43,6 +43,8 @@ import net.infonode.properties.propertymap.PropertyMapWeakListenerManager;
 import net.infonode.properties.util.PropertyChangeListener;
 import net.infonode.tabbedpanel.TabbedPanel;
 import net.infonode.util.ChangeNotifyList;
+import net.infonode.util.CompactObjectInputStream;
+import net.infonode.util.CompactObjectOutputStream;
 import net.infonode.util.Direction;
 import net.infonode.util.StreamUtil;
 
@@ -315,11 +317,14 @@ public class View extends DockingWindow {
 
   protected void write(ObjectOutputStream out, WriteContext context) throws IOException {
     ByteArrayOutputStream baos = new ByteArrayOutputStream();
-    ObjectOutputStream oos = new ObjectOutputStream(baos);
+    ObjectOutputStream oos = context.isCompactFormat() ?
+                             new CompactObjectOutputStream(baos) : new ObjectOutputStream(baos);
 
     try {
       context.getViewSerializer().writeView(this, oos);
-      getWindowItem().writeSettings(oos, context);
+
+      if (!context.isCompactFormat())
+        getWindowItem().writeSettings(oos, context);
     }
     finally {
       oos.close();
@@ -327,25 +332,52 @@ public class View extends DockingWindow {
 
     out.writeInt(baos.size());
     baos.writeTo(out);
+
+    // In the compact format only the view id is isolated, the settings share the string table of the stream
+    if (context.isCompactFormat())
+      getWindowItem().writeSettings(out, context);
   }
 
   static View read(ObjectInputStream in, ReadContext context) throws IOException {
+    View view = readView(readViewData(in), context);
+
+    if (context.isCompactFormat())
+      (view == null ? new ViewItem() : view.getWindowItem()).readSettings(in, context);
+
+    return view;
+  }
+
+  static byte[] readViewData(ObjectInputStream in) throws IOException {
     int size = in.readInt();
     byte[] viewData = new byte[size];
     StreamUtil.readAll(in, viewData);
-    ObjectInputStream viewIn = new ObjectInputStream(new ByteArrayInputStream(viewData));
+    return viewData;
+  }
+
+  /**
+   * Reads a view from data read with {@link #readViewData}. In the legacy format the data also contains the view
+   * settings, which are read as well.
+   */
+  static View readView(byte[] viewData, ReadContext context) throws IOException {
+    ByteArrayInputStream viewBytes = new ByteArrayInputStream(viewData);
+    ObjectInputStream viewIn = context.isCompactFormat() ?
+                               new CompactObjectInputStream(viewBytes) : new ObjectInputStream(viewBytes);
     View view = context.getViewSerializer().readView(viewIn);
 
-    if (view != null)
+    if (!context.isCompactFormat() && view != null)
       view.getWindowItem().readSettings(viewIn, context);
 
     return view;
   }
 
   protected DropAction doAcceptDrop(Point p, DockingWindow window) {
-    if (getWindowParent() instanceof TabWindow && titleBar != null &&
-        titleBar.contains(SwingUtilities.convertPoint(this, p, titleBar))) {
-      return acceptInteriorDrop(p, window);
+    if (getWindowParent() instanceof TabWindow && titleBar != null) {
+      if (titleBar.contains(SwingUtilities.convertPoint(this, p, titleBar))) {
+        getRootWindow().limitDropRegionToPoint();
+        return acceptInteriorDrop(p, window);
+      }
+
+      getRootWindow().excludeDropRegion(titleBar, new Rectangle(0, 0, titleBar.getWidth(), titleBar.getHeight()));
     }
 
     return getWindowParent() instanceof TabWindow && getWindowParent().getChildWindowCount() == 1 ?
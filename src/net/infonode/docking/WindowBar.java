@@ -27,7 +27,6 @@ import net.infonode.docking.internal.HeavyWeightContainer;
 import net.infonode.docking.internal.ReadContext;
 import net.infonode.docking.internal.WriteContext;
 import net.infonode.docking.internalutil.DropAction;
-import net.infonode.docking.model.ViewReader;
 import net.infonode.docking.model.ViewWriter;
 import net.infonode.docking.model.WindowBarItem;
 import net.infonode.docking.properties.TabWindowProperties;
@@ -282,14 +281,6 @@ public class WindowBar extends AbstractTabWindow {
     super.write(out, context, viewWriter);
   }
 
-  protected DockingWindow newRead(ObjectInputStream in, ReadContext context, ViewReader viewReader) throws IOException {
-    setContentPanelSize(in.readInt());
-    setEnabled(in.readBoolean());
-    getWindowItem().readSettings(in, context);
-    super.newRead(in, context, viewReader);
-    return this;
-  }
-
   protected DockingWindow oldRead(ObjectInputStream in, ReadContext context) throws IOException {
     super.oldRead(in, context);
     setContentPanelSize(in.readInt());
@@ -24,6 +24,7 @@
 package net.infonode.docking;
 
 import net.infonode.docking.internal.ReadContext;
+import net.infonode.docking.model.MultiSplitWindowItem;
 import net.infonode.docking.model.SplitWindowItem;
 import net.infonode.docking.model.TabWindowItem;
 import net.infonode.docking.model.ViewReader;
@@ -62,15 +63,17 @@ class WindowDecoder {
     }
   }
 
-  static DockingWindow decodeWindow(ObjectInputStream in, ReadContext context, ViewReader viewReader) throws
+  static DecodedWindow decodeWindow(ObjectInputStream in, ReadContext context, ViewReader viewReader) throws
                                                                                                       IOException {
     int id = in.readInt();
 
     if (id == WindowIds.VIEW) {
-      return viewReader.readView(in, context);
+      // The view index written by the view writer of the root window
+      return new DecodedWindow(in.readInt());
     }
     else {
       WindowItem windowItem = viewReader.readWindowItem(in, context);
+      boolean settingsDecoded = windowItem == null;
 
       switch (id) {
         case WindowIds.SPLIT: {
@@ -81,12 +84,8 @@ class WindowDecoder {
             item.readSettings(in, context);
           }
 
-          SplitWindow w = new SplitWindow(item.isHorizontal(),
-                                          item.getDividerLocation(),
-                                          null,
-                                          null,
-                                          item);
-          return w.newRead(in, context, viewReader);
+          DecodedWindow[] windows = {decodeWindow(in, context, viewReader), decodeWindow(in, context, viewReader)};
+          return new DecodedWindow(id, item, settingsDecoded, windows, null);
         }
 
         case WindowIds.TAB: {
@@ -97,8 +96,27 @@ class WindowDecoder {
             item.readSettings(in, context);
           }
 
-          TabWindow w = new TabWindow(null, item);
-          return w.newRead(in, context, viewReader);
+          return new DecodedWindow(id, item, settingsDecoded, decodeWindows(in, context, viewReader), null);
+        }
+
+        case WindowIds.MULTI_SPLIT: {
+          MultiSplitWindowItem item = (MultiSplitWindowItem) windowItem;
+
+          if (item == null) {
+            item = new MultiSplitWindowItem();
+            item.readSettings(in, context);
+          }
+
+          int count = in.readInt();
+          DecodedWindow[] windows = new DecodedWindow[count];
+          float[] weights = new float[count];
+
+          for (int i = 0; i < count; i++) {
+            weights[i] = in.readFloat();
+            windows[i] = decodeWindow(in, context, viewReader);
+          }
+
+          return new DecodedWindow(id, item, settingsDecoded, windows, weights);
         }
 
         default:
@@ -106,4 +124,14 @@ class WindowDecoder {
       }
     }
   }
+
+  static DecodedWindow[] decodeWindows(ObjectInputStream in, ReadContext context, ViewReader viewReader) throws
+                                                                                                         IOException {
+    DecodedWindow[] windows = new DecodedWindow[in.readInt()];
+
+    for (int i = 0; i < windows.length; i++)
+      windows[i] = decodeWindow(in, context, viewReader);
+
+    return windows;
+  }
 }
@@ -25,10 +25,13 @@ package net.infonode.docking;
 
 import net.infonode.docking.drag.DockingWindowDragger;
 import net.infonode.docking.internalutil.DropAction;
+import net.infonode.gui.ComponentUtil;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.dnd.DragSource;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.awt.event.MouseEvent;
 
 /**
@@ -36,9 +39,16 @@ import java.awt.event.MouseEvent;
  * @version $Revision: 1.31 $
  */
 class WindowDragger implements DockingWindowDragger {
+  private static final int FRAME_INTERVAL = ComponentUtil.getFrameInterval();
+
   private DockingWindow dragWindow;
   private DropAction dropAction;
   private RootWindow rootWindow;
+  private JRootPane dropRegionRootPane;
+  private DockingWindow dropRegionWindow;
+  private Rectangle dropRegion;
+  private Point dragTextPoint;
+  private Timer dragTextTimer;
 
   WindowDragger(DockingWindow dragWindow) {
     this(dragWindow, dragWindow.getRootWindow());
@@ -67,6 +77,11 @@ class WindowDragger implements DockingWindowDragger {
   }
 
   private void stopDrag() {
+    if (dragTextTimer != null)
+      dragTextTimer.stop();
+
+    dragTextPoint = null;
+    dropRegion = null;
     rootWindow.stopDrag();
   }
 
@@ -107,20 +122,48 @@ class WindowDragger implements DockingWindowDragger {
                                           root);
     }
 
-    DockingWindow dropWindow = getDeepestWindowAt(root, point.x, point.y);
+    DropTargetIndex index = rootWindow.getDropTargetIndex(root);
+    DockingWindow dropWindow = index.getDeepestWindowAt(point.x, point.y);
 
     while (dropWindow != null && dropWindow.getWindowParent() != null &&
            !(dropWindow/*.getWindowParent()*/ instanceof FloatingWindow)) {
-      Point p2 = SwingUtilities.convertPoint(root, point, dropWindow.getWindowParent());
-
-      if (!dropWindow.getWindowParent().contains(p2))
+      if (!index.windowContains(dropWindow.getWindowParent(), point))
         break;
 
       dropWindow = dropWindow.getWindowParent();
     }
 
-    DropAction da = dropWindow != null ?
-                    dropWindow.acceptDrop(SwingUtilities.convertPoint(root, point, dropWindow), dragWindow) : null;
+    if (dropRegion != null && root == dropRegionRootPane && dropWindow == dropRegionWindow &&
+        dropRegion.contains(point)) {
+      // Same drop region as the last evaluation, only move the drag label
+      if (dropAction == null || dropAction.showTitle())
+        setDragTextLater(point);
+
+      return;
+    }
+
+    boolean regionEvaluation = dropWindow != null &&
+                               rootWindow.getRootWindowProperties().getDropRegionEvaluationEnabled();
+    DropAction da;
+
+    if (regionEvaluation) {
+      rootWindow.beginDropRegion(root, point);
+
+      try {
+        da = dropWindow.acceptDrop(index.convertPoint(point, dropWindow), dragWindow);
+      }
+      finally {
+        dropRegion = rootWindow.endDropRegion();
+      }
+    }
+    else {
+      da = dropWindow != null ? dropWindow.acceptDrop(index.convertPoint(point, dropWindow), dragWindow) : null;
+      dropRegion = null;
+    }
+
+    dropRegionRootPane = root;
+    dropRegionWindow = dropWindow;
+    dragTextPoint = null;
 
     undoDrag(da);
 
@@ -139,26 +182,23 @@ class WindowDragger implements DockingWindowDragger {
       rootWindow.setDragRectangle(null);
   }
 
-  private DockingWindow getDeepestWindowAt(Component component, int x, int y) {
-    if (component == null || !component.isVisible() || !component.contains(x, y))
-      return null;
-
-    if (component instanceof Container) {
-      Component[] components = ((Container) component).getComponents();
-
-      for (int i = 0; i < components.length; i++) {
-        DockingWindow w = getDeepestWindowAt(components[i], x - components[i].getX(), y - components[i].getY());
-
-        if (w != null)
-          return w;
-      }
+  private void setDragTextLater(Point point) {
+    dragTextPoint = point;
+
+    if (dragTextTimer == null) {
+      dragTextTimer = new Timer(FRAME_INTERVAL, new ActionListener() {
+        public void actionPerformed(ActionEvent e) {
+          if (dragTextPoint != null) {
+            rootWindow.setDragText(dragTextPoint, dragWindow.getTitle());
+            dragTextPoint = null;
+          }
+        }
+      });
+      dragTextTimer.setRepeats(false);
     }
 
-    if (component instanceof DockingWindow) {
-      DockingWindow w = (DockingWindow) component;
-      return w.getRootWindow() == rootWindow ? w : null;
-    }
-    else
-      return null;
+    if (!dragTextTimer.isRunning())
+      dragTextTimer.start();
   }
+
 }
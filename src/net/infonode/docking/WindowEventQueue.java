@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) 2004 NNL Technology AB
+ * Visit www.infonode.net for information about InfoNode(R) 
+ * products and how to contact NNL Technology AB.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, 
+ * MA 02111-1307, USA.
+ */
+
+
+// $Id$
+package net.infonode.docking;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+/**
+ * Delivers the window events that listeners can't veto. While a bulk operation is in progress the events are queued
+ * and delivered in order when the outermost bulk operation ends. Each event is queued once with the listeners of all
+ * windows it propagates to, and an event that cancels out a queued event, for example a window that is removed after
+ * it was added, removes the queued event instead of being queued. Events that can abort an operation, for example
+ * {@link DockingWindowListener#windowClosing(DockingWindow)}, are not passed through the queue.
+ *
+ * @author $Author$
+ * @version $Revision$
+ */
+class WindowEventQueue {
+  static final int ADDED = 0;
+  static final int REMOVED = 1;
+  static final int SHOWN = 2;
+  static final int HIDDEN = 3;
+  static final int VIEW_FOCUS_CHANGED = 4;
+  static final int CLOSED = 5;
+  static final int UNDOCKED = 6;
+  static final int DOCKED = 7;
+  static final int MINIMIZED = 8;
+  static final int MAXIMIZED = 9;
+  static final int RESTORED = 10;
+
+  private static int depth;
+  private static ArrayList events = new ArrayList();
+  private static int delivered;
+
+  // The index of the last queued event for a window, used to find the events that cancel out
+  private static IdentityHashMap parentEvents = new IdentityHashMap();
+  private static IdentityHashMap visibilityEvents = new IdentityHashMap();
+
+  private static class Event {
+    private DockingWindowListener[] listeners;
+    private int type;
+    private DockingWindow window;
+    private DockingWindow otherWindow;
+
+    Event(DockingWindowListener[] listeners, int type, DockingWindow window, DockingWindow otherWindow) {
+      this.listeners = listeners;
+      this.type = type;
+      this.window = window;
+      this.otherWindow = otherWindow;
+    }
+
+    boolean cancels(Event event) {
+      // The types of the events that cancel out only differ in the lowest bit
+      return event.type == (type ^ 1) && event.window == window && event.otherWindow == otherWindow &&
+             Arrays.equals(event.listeners, listeners);
+    }
+  }
+
+  private WindowEventQueue() {
+  }
+
+  static boolean isDeferring() {
+    return depth > 0;
+  }
+
+  static void beginDefer() {
+    depth++;
+  }
+
+  /**
+   * Ends a bulk operation. If it's the outermost one the queued events are delivered. If a listener throws an
+   * exception the events that haven't been delivered stay in the queue, and are delivered before the next event or
+   * when the next bulk operation ends.
+   */
+  static void endDefer() {
+    if (--depth == 0)
+      deliverQueued();
+  }
+
+  private static void deliverQueued() {
+    try {
+      while (delivered < events.size()) {
+        Event event = (Event) events.get(delivered++);
+
+        if (event != null)
+          deliver(event.listeners, event.type, event.window, event.otherWindow);
+      }
+    }
+    finally {
+      if (delivered == events.size()) {
+        events.clear();
+        parentEvents.clear();
+        visibilityEvents.clear();
+        delivered = 0;
+      }
+    }
+  }
+
+  /**
+   * Delivers an event to listeners, or queues it if a bulk operation is in progress.
+   *
+   * @param listeners   the listeners, in the order they are notified
+   * @param type        the event type
+   * @param window      the window argument of the event
+   * @param otherWindow the second window argument of the event, null if the event only has one
+   */
+  static void fire(DockingWindowListener[] listeners, int type, DockingWindow window, DockingWindow otherWindow) {
+    if (listeners.length == 0)
+      return;
+
+    if (depth == 0) {
+      if (delivered < events.size())
+        deliverQueued();
+
+      deliver(listeners, type, window, otherWindow);
+    }
+    else
+      queue(new Event(listeners, type, window, otherWindow));
+  }
+
+  private static void queue(Event event) {
+    IdentityHashMap lastEvents = event.type == ADDED || event.type == REMOVED ? parentEvents :
+                                 event.type == SHOWN || event.type == HIDDEN ? visibilityEvents : null;
+
+    if (lastEvents != null) {
+      // Added and removed events are found by the child window, shown and hidden events by the window
+      DockingWindow key = lastEvents == parentEvents ? event.otherWindow : event.window;
+      Integer index = (Integer) lastEvents.get(key);
+
+      if (index != null && index.intValue() >= delivered) {
+        Event lastEvent = (Event) events.get(index.intValue());
+
+        if (lastEvent != null && event.cancels(lastEvent)) {
+          events.set(index.intValue(), null);
+          lastEvents.remove(key);
+          return;
+        }
+      }
+
+      lastEvents.put(key, Integer.valueOf(events.size()));
+    }
+
+    events.add(event);
+  }
+
+  private static void deliver(DockingWindowListener[] listeners, int type, DockingWindow window,
+                              DockingWindow otherWindow) {
+    for (int i = 0; i < listeners.length; i++) {
+      DockingWindowListener l = listeners[i];
+
+      switch (type) {
+        case ADDED:
+          l.windowAdded(window, otherWindow);
+          break;
+
+        case REMOVED:
+          l.windowRemoved(window, otherWindow);
+          break;
+
+        case SHOWN:
+          l.windowShown(window);
+          break;
+
+        case HIDDEN:
+          l.windowHidden(window);
+          break;
+
+        case VIEW_FOCUS_CHANGED:
+          l.viewFocusChanged((View) window, (View) otherWindow);
+          break;
+
+        case CLOSED:
+          l.windowClosed(window);
+          break;
+
+        case UNDOCKED:
+          l.windowUndocked(window);
+          break;
+
+        case DOCKED:
+          l.windowDocked(window);
+          break;
+
+        case MINIMIZED:
+          l.windowMinimized(window);
+          break;
+
+        case MAXIMIZED:
+          l.windowMaximized(window);
+          break;
+
+        case RESTORED:
+          l.windowRestored(window);
+          break;
+      }
+    }
+  }
+}
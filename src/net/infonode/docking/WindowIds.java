@@ -31,6 +31,7 @@ class WindowIds {
   static final int VIEW = 1;
   static final int SPLIT = 2;
   static final int TAB = 3;
+  static final int MULTI_SPLIT = 4;
 
   private WindowIds() {
   }
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2004 NNL Technology AB
+ * Visit www.infonode.net for information about InfoNode(R) 
+ * products and how to contact NNL Technology AB.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, 
+ * MA 02111-1307, USA.
+ */
+
+
+// $Id$
+package net.infonode.docking;
+
+import java.util.EventObject;
+
+/**
+ * The net structural changes in a {@link RootWindow} since the last time a {@link WindowStructureListener} was
+ * notified. A window that was added and then removed again before the notification is not included, and neither is a
+ * window that was hidden and then shown again. A window that was moved to a new parent is included in the added
+ * windows.
+ *
+ * @author $Author$
+ * @version $Revision$
+ * @see WindowStructureListener
+ * @since IDW 1.7.0
+ */
+public class WindowStructureEvent extends EventObject {
+  private static final long serialVersionUID = 1;
+
+  private DockingWindow[] addedWindows;
+  private DockingWindow[] removedWindows;
+  private DockingWindow[] shownWindows;
+  private DockingWindow[] hiddenWindows;
+
+  WindowStructureEvent(RootWindow rootWindow,
+                       DockingWindow[] addedWindows,
+                       DockingWindow[] removedWindows,
+                       DockingWindow[] shownWindows,
+                       DockingWindow[] hiddenWindows) {
+    super(rootWindow);
+    this.addedWindows = addedWindows;
+    this.removedWindows = removedWindows;
+    this.shownWindows = shownWindows;
+    this.hiddenWindows = hiddenWindows;
+  }
+
+  /**
+   * Returns the root window in which the changes occurred.
+   *
+   * @return the root window in which the changes occurred
+   */
+  public RootWindow getRootWindow() {
+    return (RootWindow) getSource();
+  }
+
+  /**
+   * Returns the windows that have been added to a new parent window, in the order they were added.
+   *
+   * @return the windows that have been added to a new parent window
+   */
+  public DockingWindow[] getAddedWindows() {
+    return addedWindows.clone();
+  }
+
+  /**
+   * Returns the windows that have been removed from the window tree, in the order they were removed. A removed window
+   * still contains the child windows it had when it was removed, these windows are not reported separately.
+   *
+   * @return the windows that have been removed from the window tree
+   */
+  public DockingWindow[] getRemovedWindows() {
+    return removedWindows.clone();
+  }
+
+  /**
+   * Returns the windows that have become visible in the root window.
+   *
+   * @return the windows that have become visible in the root window
+   */
+  public DockingWindow[] getShownWindows() {
+    return shownWindows.clone();
+  }
+
+  /**
+   * Returns the windows that are no longer visible in the root window.
+   *
+   * @return the windows that are no longer visible in the root window
+   */
+  public DockingWindow[] getHiddenWindows() {
+    return hiddenWindows.clone();
+  }
+}
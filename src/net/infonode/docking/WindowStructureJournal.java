@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2004 NNL Technology AB
+ * Visit www.infonode.net for information about InfoNode(R) 
+ * products and how to contact NNL Technology AB.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, 
+ * MA 02111-1307, USA.
+ */
+
+
+// $Id$
+package net.infonode.docking;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Records the structural changes in a root window and delivers them to the {@link WindowStructureListener}s as one
+ * {@link WindowStructureEvent}. For each window only the first and last change of each kind is kept, which is enough
+ * to compute the net change.
+ *
+ * @author $Author$
+ * @version $Revision$
+ */
+class WindowStructureJournal {
+  static final int ADDED = 0;
+  static final int REMOVED = 1;
+  static final int SHOWN = 2;
+  static final int HIDDEN = 3;
+
+  private static final DockingWindow[] EMPTY = new DockingWindow[0];
+
+  private RootWindow rootWindow;
+  private ArrayList listeners = new ArrayList(2);
+  private LinkedHashMap parentChanges = new LinkedHashMap();
+  private LinkedHashMap visibilityChanges = new LinkedHashMap();
+  private boolean flushPending;
+
+  private Runnable flushRunnable = new Runnable() {
+    public void run() {
+      flushPending = false;
+      flush();
+    }
+  };
+
+  private static class Change {
+    private boolean first;
+    private boolean last;
+
+    Change(boolean value) {
+      first = value;
+      last = value;
+    }
+  }
+
+  WindowStructureJournal(RootWindow rootWindow) {
+    this.rootWindow = rootWindow;
+  }
+
+  void addListener(WindowStructureListener listener) {
+    listeners.add(listener);
+  }
+
+  void removeListener(WindowStructureListener listener) {
+    listeners.remove(listener);
+  }
+
+  boolean hasListeners() {
+    return listeners.size() > 0;
+  }
+
+  void record(int type, DockingWindow window) {
+    if (type == ADDED || type == REMOVED)
+      record(parentChanges, window, type == ADDED);
+    else
+      record(visibilityChanges, window, type == SHOWN);
+
+    if (!flushPending) {
+      flushPending = true;
+      SwingUtilities.invokeLater(flushRunnable);
+    }
+  }
+
+  private static void record(Map changes, DockingWindow window, boolean value) {
+    Change change = (Change) changes.get(window);
+
+    if (change == null)
+      changes.put(window, new Change(value));
+    else
+      change.last = value;
+  }
+
+  /**
+   * Notifies the listeners of the changes recorded since the last call, if there are any.
+   */
+  void flush() {
+    if (parentChanges.isEmpty() && visibilityChanges.isEmpty())
+      return;
+
+    ArrayList added = new ArrayList();
+    ArrayList removed = new ArrayList();
+    ArrayList shown = new ArrayList();
+    ArrayList hidden = new ArrayList();
+    getNetChanges(parentChanges, added, removed, true);
+    getNetChanges(visibilityChanges, shown, hidden, false);
+    parentChanges = new LinkedHashMap();
+    visibilityChanges = new LinkedHashMap();
+
+    if (added.isEmpty() && removed.isEmpty() && shown.isEmpty() && hidden.isEmpty())
+      return;
+
+    WindowStructureEvent event = new WindowStructureEvent(rootWindow,
+                                                          (DockingWindow[]) added.toArray(EMPTY),
+                                                          (DockingWindow[]) removed.toArray(EMPTY),
+                                                          (DockingWindow[]) shown.toArray(EMPTY),
+                                                          (DockingWindow[]) hidden.toArray(EMPTY));
+    WindowStructureListener[] l = (WindowStructureListener[]) listeners.toArray(
+        new WindowStructureListener[listeners.size()]);
+
+    for (int i = 0; i < l.length; i++)
+      l[i].windowStructureChanged(event);
+  }
+
+  private static void getNetChanges(Map changes, ArrayList positive, ArrayList negative, boolean includeReturned) {
+    for (Iterator it = changes.entrySet().iterator(); it.hasNext();) {
+      Map.Entry entry = (Map.Entry) it.next();
+      Change change = (Change) entry.getValue();
+
+      // A negative first change means that the window was added/shown when the recording started
+      if (change.last) {
+        if (change.first || includeReturned)
+          positive.add(entry.getKey());
+      }
+      else if (!change.first)
+        negative.add(entry.getKey());
+    }
+  }
+}
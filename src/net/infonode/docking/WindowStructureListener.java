@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2004 NNL Technology AB
+ * Visit www.infonode.net for information about InfoNode(R) 
+ * products and how to contact NNL Technology AB.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, 
+ * MA 02111-1307, USA.
+ */
+
+
+// $Id$
+package net.infonode.docking;
+
+import java.util.EventListener;
+
+/**
+ * <p>
+ * A listener that receives the structural changes in a {@link RootWindow} as batches. Instead of being called for
+ * every window that is added, removed, shown or hidden, the listener is called once per event dispatch turn, or once
+ * when a {@link RootWindow#runBulk(Runnable)} operation ends, with the net changes since the last call.
+ * </p>
+ * <p>
+ * This is suitable for listeners that only need the final state, for example a window menu or a status bar. Use a
+ * {@link DockingWindowListener} to receive every event as it happens.
+ * </p>
+ *
+ * @author $Author$
+ * @version $Revision$
+ * @see RootWindow#addStructureListener(WindowStructureListener)
+ * @since IDW 1.7.0
+ */
+public interface WindowStructureListener extends EventListener {
+  /**
+   * Called when windows in the root window have been added, removed, shown or hidden.
+   *
+   * @param event the changes
+   */
+  void windowStructureChanged(WindowStructureEvent event);
+}
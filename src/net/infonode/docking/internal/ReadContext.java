@@ -35,15 +35,30 @@ public class ReadContext {
   private int version;
   private boolean propertyValuesAvailable;
   private boolean readPropertiesEnabled;
+  private boolean compactFormat;
 
   public ReadContext(RootWindow rootWindow,
                      int version,
                      boolean propertyValuesAvailable,
-                     boolean readPropertiesEnabled) {
+                     boolean readPropertiesEnabled,
+                     boolean compactFormat) {
     this.rootWindow = rootWindow;
     this.version = version;
     this.propertyValuesAvailable = propertyValuesAvailable;
     this.readPropertiesEnabled = readPropertiesEnabled;
+    this.compactFormat = compactFormat;
+  }
+
+  /**
+   * Creates a context for decoding a state into window items that are not connected to a root window. Property values
+   * are read into separate maps, see {@link #isDetached()}.
+   *
+   * @param version                 the serialized version
+   * @param propertyValuesAvailable true if the state contains property values
+   * @param compactFormat           true if the state was written in the compact format
+   */
+  public ReadContext(int version, boolean propertyValuesAvailable, boolean compactFormat) {
+    this(null, version, propertyValuesAvailable, true, compactFormat);
   }
 
   public RootWindow getRootWindow() {
@@ -68,4 +83,20 @@ public class ReadContext {
   public int getVersion() {
     return version;
   }
+
+  /**
+   * @return true if the state was written in the compact format
+   */
+  public boolean isCompactFormat() {
+    return compactFormat;
+  }
+
+  /**
+   * @return true if the state is decoded without a root window, possibly on another thread than the event dispatch
+   *         thread. Window items then read their property values into maps that are not connected to any other maps,
+   *         the values are applied later on the event dispatch thread.
+   */
+  public boolean isDetached() {
+    return rootWindow == null;
+  }
 }
@@ -34,15 +34,19 @@ import net.infonode.docking.ViewSerializer;
 public class WriteContext {
   private boolean writePropertiesEnabled;
   private ViewSerializer viewSerializer;
+  private boolean compactFormat;
 
   /**
    * Constructor.
    *
    * @param writePropertiesEnabled true if property values should be written
+   * @param viewSerializer         the view serializer
+   * @param compactFormat          true if the state is written in the compact format
    */
-  public WriteContext(boolean writePropertiesEnabled, ViewSerializer viewSerializer) {
+  public WriteContext(boolean writePropertiesEnabled, ViewSerializer viewSerializer, boolean compactFormat) {
     this.writePropertiesEnabled = writePropertiesEnabled;
     this.viewSerializer = viewSerializer;
+    this.compactFormat = compactFormat;
   }
 
   /**
@@ -61,4 +65,13 @@ public class WriteContext {
   public void setViewSerializer(ViewSerializer viewSerializer) {
     this.viewSerializer = viewSerializer;
   }
+
+  /**
+   * Returns true if the state is written in the compact format.
+   *
+   * @return true if the state is written in the compact format
+   */
+  public boolean isCompactFormat() {
+    return compactFormat;
+  }
 }
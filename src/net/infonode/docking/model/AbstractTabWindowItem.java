@@ -36,6 +36,7 @@ import java.io.ObjectOutputStream;
  */
 abstract public class AbstractTabWindowItem extends WindowItem {
   private WindowItem selectedItem;
+  private int decodedSelectedIndex = -1;
 
   protected AbstractTabWindowItem() {
   }
@@ -62,6 +63,20 @@ abstract public class AbstractTabWindowItem extends WindowItem {
 
     if (context.getVersion() >= 3) {
       int selectedIndex = in.readInt();
+
+      // The child items of a detached item can be replaced before the settings are applied
+      if (context.isDetached())
+        decodedSelectedIndex = selectedIndex;
+      else
+        selectedItem = selectedIndex == -1 ? null : getWindow(selectedIndex);
+    }
+  }
+
+  public void applyDecodedSettings(WindowItem item, ReadContext context) {
+    super.applyDecodedSettings(item, context);
+
+    if (context.getVersion() >= 3) {
+      int selectedIndex = ((AbstractTabWindowItem) item).decodedSelectedIndex;
       selectedItem = selectedIndex == -1 ? null : getWindow(selectedIndex);
     }
   }
@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2004 NNL Technology AB
+ * Visit www.infonode.net for information about InfoNode(R) 
+ * products and how to contact NNL Technology AB.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, 
+ * MA 02111-1307, USA.
+ */
+
+// $Id$
+package net.infonode.docking.model;
+
+import net.infonode.docking.DockingWindow;
+import net.infonode.docking.internal.ReadContext;
+import net.infonode.docking.internal.WriteContext;
+import net.infonode.docking.properties.SplitWindowProperties;
+import net.infonode.properties.propertymap.PropertyMap;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Model item for a multi split window. The weight of each child is stored per child item so that a child which is
+ * removed from the window, for example when minimized, gets its old weight back when it's restored.
+ *
+ * @author $Author$
+ * @version $Revision$
+ * @since IDW 1.7.0
+ */
+public class MultiSplitWindowItem extends WindowItem {
+  private boolean isHorizontal = true;
+  private HashMap weights = new HashMap();
+  private SplitWindowProperties splitWindowProperties;
+  private SplitWindowProperties parentProperties = SplitWindowItem.emptyProperties;
+
+  public MultiSplitWindowItem() {
+    splitWindowProperties = new SplitWindowProperties(SplitWindowItem.emptyProperties);
+  }
+
+  public MultiSplitWindowItem(MultiSplitWindowItem windowItem) {
+    super(windowItem);
+    isHorizontal = windowItem.isHorizontal();
+    splitWindowProperties = new SplitWindowProperties(windowItem.getSplitWindowProperties().getMap().copy(true, true));
+    splitWindowProperties.getMap().replaceSuperMap(windowItem.getParentSplitWindowProperties().getMap(),
+                                                   SplitWindowItem.emptyProperties.getMap());
+  }
+
+  protected DockingWindow createWindow(ViewReader viewReader, ArrayList childWindows) {
+    if (childWindows.size() == 0)
+      return null;
+
+    if (childWindows.size() == 1)
+      return (DockingWindow) childWindows.get(0);
+
+    if (!(viewReader instanceof MultiSplitViewReader))
+      throw new UnsupportedOperationException("The view reader can't create multi split windows.");
+
+    return ((MultiSplitViewReader) viewReader).createMultiSplitWindow(
+        (DockingWindow[]) childWindows.toArray(new DockingWindow[childWindows.size()]), this);
+  }
+
+  public boolean isHorizontal() {
+    return isHorizontal;
+  }
+
+  public void setHorizontal(boolean horizontal) {
+    isHorizontal = horizontal;
+  }
+
+  /**
+   * Returns the weight of a child item.
+   *
+   * @param item the child item
+   * @return the weight, or -1 if no weight has been set for the item
+   */
+  public float getWeight(WindowItem item) {
+    Float weight = (Float) weights.get(item);
+    return weight == null ? -1 : weight.floatValue();
+  }
+
+  public void setWeight(WindowItem item, float weight) {
+    weights.put(item, Float.valueOf(weight));
+  }
+
+  public void removeWindow(WindowItem item) {
+    super.removeWindow(item);
+    weights.remove(item);
+  }
+
+  protected void windowReplaced(WindowItem oldItem, WindowItem newItem) {
+    Object weight = weights.remove(oldItem);
+
+    if (weight != null)
+      weights.put(newItem, weight);
+  }
+
+  public boolean cleanUp() {
+    boolean empty = super.cleanUp();
+    weights.keySet().retainAll(getChildItems());
+    return empty;
+  }
+
+  private ArrayList getChildItems() {
+    ArrayList items = new ArrayList(getWindowCount());
+
+    for (int i = 0; i < getWindowCount(); i++)
+      items.add(getWindow(i));
+
+    return items;
+  }
+
+  public SplitWindowProperties getSplitWindowProperties() {
+    return splitWindowProperties;
+  }
+
+  public SplitWindowProperties getParentSplitWindowProperties() {
+    return parentProperties;
+  }
+
+  public void setParentSplitWindowProperties(SplitWindowProperties parentProperties) {
+    splitWindowProperties.getMap().replaceSuperMap(this.parentProperties.getMap(), parentProperties.getMap());
+    this.parentProperties = parentProperties;
+  }
+
+  public WindowItem copy() {
+    return new MultiSplitWindowItem(this);
+  }
+
+  public void write(ObjectOutputStream out, WriteContext context, ViewWriter viewWriter) throws IOException {
+    out.writeInt(WindowItemDecoder.MULTI_SPLIT);
+    super.write(out, context, viewWriter);
+  }
+
+  public void writeSettings(ObjectOutputStream out, WriteContext context) throws IOException {
+    if (!context.isCompactFormat())
+      throw new IOException("Multi split windows can't be written in the legacy format!");
+
+    out.writeBoolean(isHorizontal);
+    out.writeInt(getWindowCount());
+
+    for (int i = 0; i < getWindowCount(); i++)
+      out.writeFloat(getWeight(getWindow(i)));
+
+    super.writeSettings(out, context);
+  }
+
+  public void readSettings(ObjectInputStream in, ReadContext context) throws IOException {
+    isHorizontal = in.readBoolean();
+    int count = in.readInt();
+    weights.clear();
+
+    for (int i = 0; i < count; i++) {
+      float weight = in.readFloat();
+
+      // The settings are read without child items when the item isn't part of the model tree
+      if (weight >= 0 && count == getWindowCount())
+        setWeight(getWindow(i), weight);
+    }
+
+    super.readSettings(in, context);
+  }
+
+  protected PropertyMap getPropertyObject() {
+    return getSplitWindowProperties().getMap();
+  }
+
+  public String toString() {
+    return "MultiSplitWindow: " + super.toString();
+  }
+
+}
@@ -34,6 +34,7 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.util.ArrayList;
+import java.util.Set;
 
 /**
  * @author $Author: jesper $
@@ -72,6 +73,16 @@ public class ViewItem extends WindowItem {
     return in.readBoolean() ? getConnectedWindow() : null;
   }
 
+  public void decode(ObjectInputStream in, ReadContext context, ViewReader viewReader, Set windowItems) throws
+  IOException {
+    if (in.readBoolean())
+      windowItems.add(this);
+  }
+
+  public DockingWindow createWindows(ViewReader viewReader, Set windowItems) {
+    return windowItems.contains(this) ? getConnectedWindow() : null;
+  }
+
   public WindowItem copy() {
     return new ViewItem(this);
   }
@@ -28,6 +28,7 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Set;
 
 import net.infonode.docking.DockingWindow;
 import net.infonode.docking.internal.ReadContext;
@@ -54,6 +55,8 @@ abstract public class WindowItem {
   private DockingWindowProperties dockingWindowProperties;
   private DockingWindowProperties parentProperties = emptyProperties;
   private Direction lastMinimizedDirection;
+  private PropertyMap decodedDockingWindowProperties;
+  private PropertyMap decodedPropertyObject;
 
   protected WindowItem() {
     dockingWindowProperties = new DockingWindowProperties(emptyProperties);
@@ -110,10 +113,21 @@ abstract public class WindowItem {
     if (item == this || parent == null)
       return;
 
-    item.setParent(parent);
-    int index = parent.windows.indexOf(this);
-    parent.windows.set(index, item);
+    WindowItem p = parent;
+    item.setParent(p);
+    int index = p.windows.indexOf(this);
+    p.windows.set(index, item);
     parent = null;
+    p.windowReplaced(this, item);
+  }
+
+  /**
+   * Called when a child item has been replaced with another item.
+   *
+   * @param oldItem the replaced item
+   * @param newItem the new item
+   */
+  protected void windowReplaced(WindowItem oldItem, WindowItem newItem) {
   }
 
   public int getWindowIndex(WindowItem item) {
@@ -275,7 +289,11 @@ abstract public class WindowItem {
     }
 
     if (context.isPropertyValuesAvailable()) {
-      if (context.getReadPropertiesEnabled()) {
+      if (context.isDetached()) {
+        decodedDockingWindowProperties = PropertyMapUtil.readDetachedMap(in, dockingWindowProperties.getMap());
+        decodedPropertyObject = PropertyMapUtil.readDetachedMap(in, getPropertyObject());
+      }
+      else if (context.getReadPropertiesEnabled()) {
         dockingWindowProperties.getMap().read(in);
         getPropertyObject().read(in);
       }
@@ -286,6 +304,27 @@ abstract public class WindowItem {
     }
   }
 
+  /**
+   * Applies settings that have been read in a detached context, see {@link ReadContext#isDetached()}, to this item.
+   * The settings may have been read into another item of the same type that takes the place of this item while the
+   * state is decoded.
+   *
+   * @param item    the item into which the settings were read, can be this item
+   * @param context the context in which the settings are applied
+   */
+  public void applyDecodedSettings(WindowItem item, ReadContext context) {
+    if (context.getVersion() > 1)
+      setLastMinimizedDirection(item.lastMinimizedDirection);
+
+    if (item.decodedDockingWindowProperties != null && context.getReadPropertiesEnabled()) {
+      PropertyMapUtil.setValues(dockingWindowProperties.getMap(), item.decodedDockingWindowProperties);
+      PropertyMapUtil.setValues(getPropertyObject(), item.decodedPropertyObject);
+    }
+
+    item.decodedDockingWindowProperties = null;
+    item.decodedPropertyObject = null;
+  }
+
   public void write(ObjectOutputStream out, WriteContext context, ViewWriter viewWriter) throws IOException {
     out.writeInt(getWindowCount());
 
@@ -324,6 +363,56 @@ abstract public class WindowItem {
     return childWindows;
   }
 
+  /**
+   * Reads the item tree written by {@link #write} into this item like {@link #read}, but doesn't create any windows.
+   * The items for which windows should be created are added to a set, the windows are then created by
+   * {@link #createWindows}.
+   *
+   * @param in          the stream from which to read the item tree
+   * @param context     the read context
+   * @param viewReader  the view reader
+   * @param windowItems the set to which the items that should have windows are added
+   * @throws IOException if there is a stream error
+   */
+  public void decode(ObjectInputStream in, ReadContext context, ViewReader viewReader, Set windowItems) throws
+  IOException {
+    int count = in.readInt();
+    removeAll();
+
+    for (int i = 0; i < count; i++) {
+      WindowItem childItem = WindowItemDecoder.decodeWindowItem(in, context, viewReader);
+      addWindow(childItem);
+      childItem.decode(in, context, viewReader, windowItems);
+    }
+
+    readSettings(in, context);
+
+    if (in.readBoolean())
+      windowItems.add(this);
+  }
+
+  /**
+   * Creates the windows for an item tree read by {@link #decode}.
+   *
+   * @param viewReader  the view reader
+   * @param windowItems the items that should have windows
+   * @return the window for this item, null if there is none
+   */
+  public DockingWindow createWindows(ViewReader viewReader, Set windowItems) {
+    ArrayList childWindows = new ArrayList();
+
+    for (int i = 0; i < getWindowCount(); i++) {
+      DockingWindow cw = getWindow(i).createWindows(viewReader, windowItems);
+
+      if (cw != null)
+        childWindows.add(cw);
+    }
+
+    return windowItems.contains(this) ?
+                                      createWindow(viewReader, childWindows) :
+                                        childWindows.size() > 0 ? (DockingWindow) childWindows.get(0) : null;
+  }
+
   protected PropertyMap getPropertyObject() {
     return null;
   }
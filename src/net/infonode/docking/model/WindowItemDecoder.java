@@ -36,6 +36,7 @@ public class WindowItemDecoder {
   static final int SPLIT = 0;
   static final int TAB = 1;
   static final int VIEW = 2;
+  static final int MULTI_SPLIT = 3;
 
   private WindowItemDecoder() {
   }
@@ -54,6 +55,9 @@ public class WindowItemDecoder {
       case VIEW:
         return viewReader.readViewItem(in, context);
 
+      case MULTI_SPLIT:
+        return new MultiSplitWindowItem();
+
       default:
         throw new IOException("Invalid window item id!");
     }
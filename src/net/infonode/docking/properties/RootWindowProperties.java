@@ -216,6 +216,35 @@ public class RootWindowProperties extends PropertyMapContainer {
                                      3,
                                      PropertyMapValueHandler.INSTANCE);
 
+  /**
+   * If true, the drop target of a dragged window is only evaluated again when the mouse moves into a different drop
+   * region, and the drag label is moved at most once per display frame. The drop filters are then only called when
+   * a drop region is entered.
+   *
+   * @since IDW 1.7.0
+   */
+  public static final BooleanProperty DROP_REGION_EVALUATION_ENABLED =
+      new BooleanProperty(PROPERTIES,
+                          "Drop Region Evaluation Enabled",
+                          "If true, the drop target of a dragged window is only evaluated again when the mouse moves " +
+                          "into a different drop region, and the drag label is moved at most once per display frame. " +
+                          "The drop filters are then only called when a drop region is entered.",
+                          PropertyMapValueHandler.INSTANCE);
+
+  /**
+   * If true, the focused view is updated immediately when the keyboard focus moves into a view, instead of after a
+   * short delay. Focus changes that are corrected later in the same event dispatch sequence only cause one view
+   * focus event.
+   *
+   * @since IDW 1.7.0
+   */
+  public static final BooleanProperty IMMEDIATE_FOCUS_TRACKING_ENABLED =
+      new BooleanProperty(PROPERTIES,
+                          "Immediate Focus Tracking Enabled",
+                          "If true, the focused view is updated immediately when the keyboard focus moves into a " +
+                          "view, instead of after a short delay.",
+                          PropertyMapValueHandler.INSTANCE);
+
   /**
    * Key code for the key that aborts a drag.
    */
@@ -592,9 +621,11 @@ public class RootWindowProperties extends PropertyMapContainer {
 
     DEFAULT_VALUES.getSplitWindowProperties()
         .setContinuousLayoutEnabled(true)
+        .setContinuousLayoutFrameBudget(0)
         .setDividerSize(4)
         .setDividerLocationDragEnabled(true)
-        .setDragIndicatorColor(Color.DARK_GRAY);
+        .setDragIndicatorColor(Color.DARK_GRAY)
+        .setNestedSplitMergeEnabled(false);
 
     DEFAULT_VALUES.getViewProperties().setAlwaysShowTitle(true);
 
@@ -899,6 +930,55 @@ public class RootWindowProperties extends PropertyMapContainer {
     return EDGE_SPLIT_DISTANCE.get(getMap());
   }
 
+  /**
+   * Returns true if the drop target of a dragged window is only evaluated when the mouse moves into a different drop
+   * region.
+   *
+   * @return true if the drop target of a dragged window is only evaluated when the mouse moves into a different drop
+   *         region
+   * @since IDW 1.7.0
+   */
+  public boolean getDropRegionEvaluationEnabled() {
+    return DROP_REGION_EVALUATION_ENABLED.get(getMap());
+  }
+
+  /**
+   * If set to true, the drop target of a dragged window is only evaluated when the mouse moves into a different drop
+   * region, and the drag label is moved at most once per display frame. This reduces the number of repaints during
+   * a drag, but the drop filters are only called when a drop region is entered.
+   *
+   * @param enabled if true, the drop target is only evaluated when the mouse moves into a different drop region
+   * @return this
+   * @since IDW 1.7.0
+   */
+  public RootWindowProperties setDropRegionEvaluationEnabled(boolean enabled) {
+    DROP_REGION_EVALUATION_ENABLED.set(getMap(), enabled);
+    return this;
+  }
+
+  /**
+   * Returns true if the focused view is updated immediately when the keyboard focus moves into a view.
+   *
+   * @return true if the focused view is updated immediately when the keyboard focus moves into a view
+   * @since IDW 1.7.0
+   */
+  public boolean getImmediateFocusTrackingEnabled() {
+    return IMMEDIATE_FOCUS_TRACKING_ENABLED.get(getMap());
+  }
+
+  /**
+   * If set to true, the focused view is updated immediately when the keyboard focus moves into a view, instead of
+   * after a short delay. This makes keyboard switching between views more responsive.
+   *
+   * @param enabled if true, the focused view is updated immediately
+   * @return this
+   * @since IDW 1.7.0
+   */
+  public RootWindowProperties setImmediateFocusTrackingEnabled(boolean enabled) {
+    IMMEDIATE_FOCUS_TRACKING_ENABLED.set(getMap(), enabled);
+    return this;
+  }
+
   /**
    * Returns the key code for the key that aborts a drag.
    *
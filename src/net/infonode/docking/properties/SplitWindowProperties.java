@@ -53,6 +53,21 @@ public class SplitWindowProperties extends PropertyMapContainer {
                           "When enabled causes the windows to change size continuously while dragging the split window divider.",
                           PropertyMapValueHandler.INSTANCE);
 
+  /**
+   * The maximum time in milliseconds a layout can take while the divider is dragged with continuous layout enabled.
+   * When it's larger than 0 the layout is paced to at most one layout per display frame, and if several layouts in a row
+   * take longer than this the rest of the drag is shown using the drag indicator. The default value 0 lays out the
+   * windows on every drag event.
+   *
+   * @since IDW 1.7.0
+   */
+  public static final IntegerProperty CONTINUOUS_LAYOUT_FRAME_BUDGET =
+      IntegerProperty.createPositive(PROPERTIES,
+                                     "Continuous Layout Frame Budget",
+                                     "The maximum time in milliseconds a layout can take while the divider is dragged before the drag indicator is used instead. 0 disables pacing of the continuous layout.",
+                                     3,
+                                     PropertyMapValueHandler.INSTANCE);
+
   /**
    * The split pane divider size.
    */
@@ -85,6 +100,18 @@ public class SplitWindowProperties extends PropertyMapContainer {
                         "The color for the divider's drag indicator that is shown when continuous layout is disabled.",
                         PropertyMapValueHandler.INSTANCE);
 
+  /**
+   * When enabled nested split windows with the same orientation are merged into a {@link
+   * net.infonode.docking.MultiSplitWindow} when the window layout is optimized.
+   *
+   * @since IDW 1.7.0
+   */
+  public static final BooleanProperty NESTED_SPLIT_MERGE_ENABLED =
+      new BooleanProperty(PROPERTIES,
+                          "Nested Split Merge Enabled",
+                          "When enabled nested split windows with the same orientation are merged into a multi split window.",
+                          PropertyMapValueHandler.INSTANCE);
+
   /**
    * Creates an empty property object.
    */
@@ -209,6 +236,30 @@ public class SplitWindowProperties extends PropertyMapContainer {
     return this;
   }
 
+  /**
+   * Returns the maximum time a layout can take while the divider is dragged with continuous layout enabled.
+   *
+   * @return the frame budget in milliseconds, 0 if the continuous layout is not paced
+   * @since IDW 1.7.0
+   */
+  public int getContinuousLayoutFrameBudget() {
+    return CONTINUOUS_LAYOUT_FRAME_BUDGET.get(getMap());
+  }
+
+  /**
+   * Sets the maximum time a layout can take while the divider is dragged with continuous layout enabled. When it's
+   * larger than 0 the layout is paced to at most one layout per display frame, and if several layouts in a row take
+   * longer than the budget the rest of the drag is shown using the drag indicator.
+   *
+   * @param frameBudget the frame budget in milliseconds, 0 lays out the windows on every drag event
+   * @return this
+   * @since IDW 1.7.0
+   */
+  public SplitWindowProperties setContinuousLayoutFrameBudget(int frameBudget) {
+    CONTINUOUS_LAYOUT_FRAME_BUDGET.set(getMap(), frameBudget);
+    return this;
+  }
+
   /**
    * Returns true if the user can drag the SplitWindow divider to a new location.
    *
@@ -231,4 +282,27 @@ public class SplitWindowProperties extends PropertyMapContainer {
     return this;
   }
 
+  /**
+   * Returns true if nested split windows with the same orientation are merged into a multi split window.
+   *
+   * @return true if nested split windows with the same orientation are merged into a multi split window
+   * @since IDW 1.7.0
+   */
+  public boolean getNestedSplitMergeEnabled() {
+    return NESTED_SPLIT_MERGE_ENABLED.get(getMap());
+  }
+
+  /**
+   * When enabled nested split windows with the same orientation are merged into a multi split window when the window
+   * layout is optimized.
+   *
+   * @param enabled if true nested split windows are merged
+   * @return this
+   * @since IDW 1.7.0
+   */
+  public SplitWindowProperties setNestedSplitMergeEnabled(boolean enabled) {
+    NESTED_SPLIT_MERGE_ENABLED.set(getMap(), enabled);
+    return this;
+  }
+
 }
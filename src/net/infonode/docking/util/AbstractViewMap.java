@@ -32,8 +32,7 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.Map;
+import java.util.IdentityHashMap;
 
 /**
  * Base class for view maps.
@@ -44,6 +43,7 @@ import java.util.Map;
  */
 abstract public class AbstractViewMap implements ViewFactoryManager, ViewSerializer {
   private HashMap viewMap = new HashMap();
+  private IdentityHashMap viewIds = new IdentityHashMap();
   private ArrayList views = new ArrayList(20);
 
   abstract protected void writeViewId(Object id, ObjectOutputStream out) throws IOException;
@@ -59,6 +59,26 @@ abstract public class AbstractViewMap implements ViewFactoryManager, ViewSeriali
     return viewMap.size();
   }
 
+  /**
+   * Returns the number of views in this map whose components have been created. A view that is not a
+   * {@link LazyView} is always counted.
+   *
+   * @return the number of views in this map whose components have been created
+   * @since IDW 1.7.0
+   */
+  public int getMaterializedViewCount() {
+    int count = 0;
+
+    for (int i = 0; i < views.size(); i++) {
+      Object view = views.get(i);
+
+      if (!(view instanceof LazyView) || ((LazyView) view).isMaterialized())
+        count++;
+    }
+
+    return count;
+  }
+
   /**
    * Returns the view at a specific index.
    * The view index is the same as the number of views in the map when the view was added to the map.
@@ -107,16 +127,10 @@ abstract public class AbstractViewMap implements ViewFactoryManager, ViewSeriali
   }
 
   public void writeView(View view, ObjectOutputStream out) throws IOException {
-    for (Iterator it = viewMap.entrySet().iterator(); it.hasNext();) {
-      Map.Entry entry = (Map.Entry) it.next();
+    if (!viewIds.containsKey(view))
+      throw new IOException("Serialization of unknown view!");
 
-      if (entry.getValue() == view) {
-        writeViewId(entry.getKey(), out);
-        return;
-      }
-    }
-
-    throw new IOException("Serialization of unknown view!");
+    writeViewId(viewIds.get(view), out);
   }
 
   public View readView(ObjectInputStream in) throws IOException {
@@ -126,17 +140,22 @@ abstract public class AbstractViewMap implements ViewFactoryManager, ViewSeriali
   protected void addView(Object id, View view) {
     Object oldView = viewMap.put(id, view);
 
-    if (oldView != null)
+    if (oldView != null) {
       views.remove(oldView);
+      viewIds.remove(oldView);
+    }
 
     views.add(view);
+    viewIds.put(view, id);
   }
 
   protected void removeView(Object id) {
     Object view = viewMap.remove(id);
 
-    if (view != null)
+    if (view != null) {
       views.remove(view);
+      viewIds.remove(view);
+    }
   }
 
   protected View getView(Object id) {
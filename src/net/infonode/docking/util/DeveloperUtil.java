@@ -135,6 +135,8 @@ public class DeveloperUtil {
       s += getTabWindowLayout((TabWindow) window, depth + 1);
     else if (window instanceof SplitWindow)
       s += getSplitWindowLayout((SplitWindow) window, depth + 1);
+    else if (window instanceof MultiSplitWindow)
+      s += getMultiSplitWindowLayout((MultiSplitWindow) window, depth + 1);
     else
       s += getViewLayout((View) window, depth + 1);
 
@@ -202,6 +204,29 @@ public class DeveloperUtil {
     return s;
   }
 
+  private static String getMultiSplitWindowLayout(MultiSplitWindow window, int depth) {
+    float[] weights = window.getWeights();
+    String s = "new MultiSplitWindow(" + window.isHorizontal() + ", new float[]{";
+
+    for (int i = 0; i < weights.length; i++) {
+      s += weights[i] + "f";
+      if (i < weights.length - 1)
+        s += ", ";
+    }
+
+    s += "}, new DockingWindow[]{";
+
+    for (int i = 0; i < window.getChildWindowCount(); i++) {
+      s += getDockingWindowLayout(window.getChildWindow(i), depth);
+      if (i < window.getChildWindowCount() - 1)
+        s += ", ";
+    }
+
+    s += "})";
+
+    return s;
+  }
+
   private static String getViewLayout(View view, int depth) {
     return "View: \"" + view.getTitle() + "\" - " + view.getClass();
   }
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2004 NNL Technology AB
+ * Visit www.infonode.net for information about InfoNode(R) 
+ * products and how to contact NNL Technology AB.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, 
+ * MA 02111-1307, USA.
+ */
+
+// $Id$
+package net.infonode.docking.util;
+
+import net.infonode.docking.DockingWindow;
+import net.infonode.docking.View;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
+
+/**
+ * <p>
+ * A view which component is created by a {@link ViewComponentFactory} the first time the view is shown, focused or
+ * its component is requested. Until then the view is empty. This makes it possible to add a large number of views to
+ * a view map and read a window layout without creating the components of the views that are never shown.
+ * </p>
+ *
+ * <p>
+ * The number of views in a view map whose components have been created is returned by
+ * {@link AbstractViewMap#getMaterializedViewCount()}.
+ * </p>
+ *
+ * @author $Author$
+ * @version $Revision$
+ * @see ViewComponentFactory
+ * @since IDW 1.7.0
+ */
+public class LazyView extends View {
+  private static final long serialVersionUID = 1;
+
+  private ViewComponentFactory componentFactory;
+  private HierarchyListener showingListener = new HierarchyListener() {
+    public void hierarchyChanged(HierarchyEvent e) {
+      if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 && isShowing())
+        materialize();
+    }
+  };
+
+  /**
+   * Constructor.
+   *
+   * @param title            the title of the view
+   * @param icon             the icon for the view
+   * @param componentFactory the factory that creates the component to place inside the view
+   */
+  public LazyView(String title, Icon icon, ViewComponentFactory componentFactory) {
+    super(title, icon, null);
+    this.componentFactory = componentFactory;
+    addHierarchyListener(showingListener);
+  }
+
+  /**
+   * Returns true if the component inside this view has been created.
+   *
+   * @return true if the component inside this view has been created
+   */
+  public boolean isMaterialized() {
+    return componentFactory == null;
+  }
+
+  /**
+   * Creates the component inside this view using the component factory, if it hasn't already been created.
+   */
+  public void materialize() {
+    if (componentFactory != null) {
+      ViewComponentFactory factory = componentFactory;
+      componentFactory = null;
+      removeHierarchyListener(showingListener);
+      super.setComponent(factory.createComponent());
+    }
+  }
+
+  /**
+   * Gets the component inside the view. The component is created if it hasn't already been created.
+   *
+   * @return the component inside the view
+   */
+  public Component getComponent() {
+    materialize();
+    return super.getComponent();
+  }
+
+  /**
+   * Sets the component inside the view. The component factory will not be used after this method is called.
+   *
+   * @param component the component to place inside the view
+   */
+  public void setComponent(Component component) {
+    if (componentFactory != null) {
+      componentFactory = null;
+      removeHierarchyListener(showingListener);
+    }
+
+    super.setComponent(component);
+  }
+
+  /**
+   * Creates the component inside this view, if it hasn't already been created, and restores focus to it.
+   */
+  public void restoreFocus() {
+    materialize();
+    super.restoreFocus();
+  }
+
+  protected void fireWindowShown(DockingWindow window) {
+    if (window == this && isShowingInRootWindow())
+      materialize();
+
+    super.fireWindowShown(window);
+  }
+}
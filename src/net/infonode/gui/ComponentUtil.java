@@ -33,6 +33,8 @@ import java.awt.*;
 import java.util.ArrayList;
 
 public class ComponentUtil {
+  private static int frameInterval;
+
   private ComponentUtil() {
   }
 
@@ -320,4 +322,31 @@ public class ComponentUtil {
     else
       c.validate();
   }
+
+  /**
+   * Returns the time between two frames on the default screen device, or the time for a frame at 60 Hz if the refresh
+   * rate is unknown.
+   *
+   * @return the frame interval in milliseconds
+   * @since IDW 1.7.0
+   */
+  public static int getFrameInterval() {
+    if (frameInterval == 0) {
+      int refreshRate = DisplayMode.REFRESH_RATE_UNKNOWN;
+
+      if (!GraphicsEnvironment.isHeadless()) {
+        try {
+          refreshRate = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDisplayMode()
+              .getRefreshRate();
+        }
+        catch (RuntimeException e) {
+          // Use the default frame rate
+        }
+      }
+
+      frameInterval = 1000 / (refreshRate > 0 ? refreshRate : 60);
+    }
+
+    return frameInterval;
+  }
 }
\ No newline at end of file
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2004 NNL Technology AB
+ * Visit www.infonode.net for information about InfoNode(R) 
+ * products and how to contact NNL Technology AB.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, 
+ * MA 02111-1307, USA.
+ */
+
+
+// $Id$
+package net.infonode.gui;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+
+/**
+ * Paces the continuous layout while a split pane divider is dragged. At most one layout is made per display frame, the
+ * latest drag location is used when several drag events arrive during a frame. If several layouts in a row take longer
+ * than the frame budget the rest of the drag is shown using the drag indicator instead.
+ *
+ * @author $Author$
+ * @version $Revision$
+ */
+class DividerDragPacer {
+  private static final int OVER_BUDGET_FRAME_LIMIT = 3;
+
+  private Container container;
+  private Runnable layoutAction;
+  private int frameBudget;
+  private Timer frameTimer;
+  private boolean layoutPending;
+  private int overBudgetFrames;
+
+  /**
+   * Creates a pacer.
+   *
+   * @param container    the split pane, it's validated after each paced layout action
+   * @param layoutAction moves the divider to the latest drag location
+   */
+  DividerDragPacer(Container container, Runnable layoutAction) {
+    this.container = container;
+    this.layoutAction = layoutAction;
+  }
+
+  /**
+   * Returns the frame budget.
+   *
+   * @return the frame budget in milliseconds, 0 means that pacing is disabled
+   */
+  int getFrameBudget() {
+    return frameBudget;
+  }
+
+  /**
+   * Sets the maximum time a layout can take before the drag indicator is used instead of continuous layout.
+   *
+   * @param frameBudget the frame budget in milliseconds, 0 disables pacing
+   */
+  void setFrameBudget(int frameBudget) {
+    this.frameBudget = frameBudget;
+  }
+
+  /**
+   * Returns true if the drag should be shown using the drag indicator because several consecutive layouts have exceeded
+   * the frame budget during this drag.
+   *
+   * @return true if the drag indicator should be used
+   */
+  boolean isOverBudget() {
+    return overBudgetFrames >= OVER_BUDGET_FRAME_LIMIT;
+  }
+
+  /**
+   * Called when the divider has been dragged to a new location.
+   */
+  void dragged() {
+    if (frameBudget <= 0) {
+      layoutAction.run();
+      return;
+    }
+
+    if (frameTimer == null) {
+      frameTimer = new Timer(ComponentUtil.getFrameInterval(), new ActionListener() {
+        public void actionPerformed(ActionEvent e) {
+          if (layoutPending)
+            layout();
+        }
+      });
+      frameTimer.setRepeats(false);
+    }
+
+    if (frameTimer.isRunning())
+      layoutPending = true;
+    else
+      layout();
+  }
+
+  /**
+   * Called when the drag has ended. Makes any pending layout and resets the pacer for the next drag.
+   */
+  void end() {
+    if (frameTimer != null)
+      frameTimer.stop();
+
+    if (layoutPending && !isOverBudget()) {
+      layoutAction.run();
+      container.validate();
+    }
+
+    layoutPending = false;
+    overBudgetFrames = 0;
+  }
+
+  private void layout() {
+    layoutPending = false;
+    long time = System.nanoTime();
+    layoutAction.run();
+    container.validate();
+    overBudgetFrames = (System.nanoTime() - time) / 1000000 > frameBudget ? overBudgetFrames + 1 : 0;
+    frameTimer.start();
+  }
+
+}
@@ -0,0 +1,535 @@
+/*
+ * Copyright (C) 2004 NNL Technology AB
+ * Visit www.infonode.net for information about InfoNode(R) 
+ * products and how to contact NNL Technology AB.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, 
+ * MA 02111-1307, USA.
+ */
+
+// $Id$
+package net.infonode.gui;
+
+import net.infonode.gui.panel.BaseContainer;
+import net.infonode.gui.panel.SimplePanel;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseListener;
+import java.awt.event.MouseMotionAdapter;
+import java.util.ArrayList;
+
+/**
+ * A split pane with any number of components separated by dividers. The size of each component along the split axis
+ * is proportional to its weight. All components are laid out in one pass, and dragging a divider only changes the
+ * weights of the two components next to it.
+ * <p>
+ * A component slot can be temporarily empty (null), in which case it's not shown and its weight is ignored.
+ *
+ * @author $Author$
+ * @version $Revision$
+ * @since IDW 1.7.0
+ */
+public class MultiSplitPane extends BaseContainer {
+  private static final long serialVersionUID = 1;
+
+  private LayoutManager splitLayout = new LayoutManager() {
+    public void addLayoutComponent(String name, Component comp) {
+    }
+
+    public void layoutContainer(Container parent) {
+      for (int i = 0; i < dividers.size(); i++)
+        ((Component) dividers.get(i)).setBounds(0, 0, 0, 0);
+
+      int[] visible = getVisibleIndexes();
+
+      if (visible.length == 0)
+        return;
+
+      int totalSize = getViewSize(visible.length);
+      int otherSize = getOtherSize();
+      int offsetX = getInsets().left;
+      int offsetY = getInsets().top;
+      float weightSum = getWeightSum(visible);
+      float weight = 0;
+      int pos = 0;
+
+      for (int i = 0; i < visible.length; i++) {
+        int index = visible[i];
+        weight += weightSum > 0 ? weights[index] : 1;
+        int end = i == visible.length - 1 ?
+                  totalSize :
+                  Math.round(totalSize * weight / (weightSum > 0 ? weightSum : visible.length));
+        int size = Math.max(0, end - pos);
+        int location = pos + i * dividerSize;
+
+        Point p = createPoint(location, 0);
+        Dimension d = createSize(size, otherSize);
+        getSplitComponent(index).setBounds(p.x + offsetX, p.y + offsetY, d.width, d.height);
+
+        if (i < visible.length - 1) {
+          p = createPoint(location + size, 0);
+          d = createSize(dividerSize, otherSize);
+          ((Component) dividers.get(index)).setBounds(p.x + offsetX, p.y + offsetY, d.width, d.height);
+        }
+
+        pos += size;
+      }
+    }
+
+    public Dimension minimumLayoutSize(Container parent) {
+      return getLayoutSize(false);
+    }
+
+    public Dimension preferredLayoutSize(Container parent) {
+      return getLayoutSize(true);
+    }
+
+    public void removeLayoutComponent(Component comp) {
+    }
+  };
+
+  private ArrayList components = new ArrayList();
+  private ArrayList dividers = new ArrayList();
+  private float[] weights = new float[0];
+  private Component dragIndicator;
+  private boolean dividerDraggable = true;
+  private boolean continuousLayout = true;
+  private int dragDivider = -1;
+  private int dragOffset;
+  private int dragLocation;
+  private int leftDragMinimumSize;
+  private int rightDragMinimumSize;
+  private float[] dragWeights;
+  private boolean horizontal;
+  private int dividerSize = 6;
+  private ArrayList listeners = new ArrayList(0);
+  private ArrayList dividerMouseListeners = new ArrayList(0);
+  private Color dragIndicatorColor = Color.DARK_GRAY;
+  private DividerDragPacer dragPacer = new DividerDragPacer(this, new Runnable() {
+    public void run() {
+      dragDivider(dragLocation);
+    }
+  });
+
+  private MouseListener dividerMouseListener = new MouseAdapter() {
+    public void mousePressed(MouseEvent e) {
+      if (e.getButton() == MouseEvent.BUTTON1) {
+        Component divider = e.getComponent();
+        CursorManager.setGlobalCursor(getRootPane(), divider.getCursor());
+        dragDivider = dividers.indexOf(divider);
+        dragOffset = getPos(e.getPoint());
+        dragWeights = null;
+
+        // The minimum sizes of the subtrees don't change during the drag
+        Component left = getSplitComponent(dragDivider);
+        int next = getNextVisibleIndex(dragDivider);
+        leftDragMinimumSize = left == null ? 0 : getDimensionSize(left.getMinimumSize());
+        rightDragMinimumSize = next == -1 ? 0 : getDimensionSize(getSplitComponent(next).getMinimumSize());
+      }
+    }
+
+    public void mouseReleased(MouseEvent e) {
+      if (e.getButton() == MouseEvent.BUTTON1) {
+        CursorManager.resetGlobalCursor(getRootPane());
+        dragPacer.end();
+
+        if (dividerDraggable && dragWeights != null) {
+          dragIndicator.setVisible(false);
+          setWeights(dragWeights);
+        }
+
+        dragDivider = -1;
+        dragWeights = null;
+      }
+    }
+  };
+
+  private MouseMotionAdapter dividerMouseMotionListener = new MouseMotionAdapter() {
+    public void mouseDragged(MouseEvent e) {
+      if (dividerDraggable && dragDivider != -1 && (e.getModifiersEx() & MouseEvent.BUTTON1_DOWN_MASK) != 0) {
+        dragLocation = getPos(e.getComponent().getLocation()) + getPos(e.getPoint()) - dragOffset;
+
+        if (continuousLayout && !dragPacer.isOverBudget())
+          dragPacer.dragged();
+        else
+          dragDivider(dragLocation);
+      }
+    }
+  };
+
+  public MultiSplitPane(boolean horizontal) {
+    this(horizontal, false);
+  }
+
+  public MultiSplitPane(boolean horizontal, boolean heavyWeightDragIndicator) {
+    setLayout(splitLayout);
+    setHorizontal(horizontal);
+    setHeavyWeightDragIndicator(heavyWeightDragIndicator);
+  }
+
+  public void addListener(MultiSplitPaneListener listener) {
+    ArrayList newListeners = new ArrayList(listeners.size() + 1);
+    newListeners.addAll(listeners);
+    listeners = newListeners;
+    listeners.add(listener);
+  }
+
+  /**
+   * Adds a mouse listener to all current and future dividers.
+   *
+   * @param listener the mouse listener
+   */
+  public void addDividerMouseListener(MouseListener listener) {
+    dividerMouseListeners.add(listener);
+
+    for (int i = 0; i < dividers.size(); i++)
+      ((Component) dividers.get(i)).addMouseListener(listener);
+  }
+
+  public int getSplitComponentCount() {
+    return components.size();
+  }
+
+  public Component getSplitComponent(int index) {
+    return (Component) components.get(index);
+  }
+
+  /**
+   * Returns the divider after a component. The divider after the last component is never shown.
+   *
+   * @param index the component index
+   * @return the divider after the component
+   */
+  public JComponent getDividerPanel(int index) {
+    return (JComponent) dividers.get(index);
+  }
+
+  /**
+   * Inserts a component. The weights of the other components are scaled so that the weight sum is unchanged.
+   *
+   * @param index     the index where to insert the component
+   * @param component the component, can be null
+   * @param weight    the weight of the component as a fraction of the total weight, 0 - 1
+   */
+  public void insertSplitComponent(int index, Component component, float weight) {
+    float[] newWeights = new float[weights.length + 1];
+    weight = weights.length == 0 ? 1 : Math.max(0, Math.min(1, weight));
+
+    for (int i = 0; i < newWeights.length; i++)
+      newWeights[i] = i == index ? weight : weights[i < index ? i : i - 1] * (1 - weight);
+
+    components.add(index, component);
+    dividers.add(index, createDivider());
+
+    if (component != null)
+      add(component);
+
+    setWeights(newWeights);
+  }
+
+  public void removeSplitComponent(int index) {
+    Component component = getSplitComponent(index);
+
+    if (component != null)
+      remove(component);
+
+    remove((Component) dividers.remove(index));
+    components.remove(index);
+
+    float[] newWeights = new float[weights.length - 1];
+
+    for (int i = 0; i < newWeights.length; i++)
+      newWeights[i] = weights[i < index ? i : i + 1];
+
+    setWeights(newWeights);
+  }
+
+  /**
+   * Replaces the component at an index. The weight of the slot is not changed.
+   *
+   * @param index     the component index
+   * @param component the new component, null to leave the slot empty
+   */
+  public void setSplitComponent(int index, Component component) {
+    Component oldComponent = getSplitComponent(index);
+
+    if (oldComponent == component)
+      return;
+
+    if (oldComponent != null)
+      remove(oldComponent);
+
+    components.set(index, component);
+
+    if (component != null)
+      add(component);
+
+    revalidate();
+  }
+
+  public float[] getWeights() {
+    return weights.clone();
+  }
+
+  /**
+   * Sets the component weights. The weights are normalized so that their sum is 1.
+   *
+   * @param weights the weights, one for each component
+   */
+  public void setWeights(float[] weights) {
+    float sum = 0;
+
+    for (int i = 0; i < weights.length; i++)
+      sum += Math.max(0, weights[i]);
+
+    this.weights = new float[weights.length];
+
+    for (int i = 0; i < weights.length; i++)
+      this.weights[i] = sum > 0 ? Math.max(0, weights[i]) / sum : 1f / weights.length;
+
+    revalidate();
+
+    for (int i = 0; i < listeners.size(); i++)
+      ((MultiSplitPaneListener) listeners.get(i)).weightsChanged(this);
+  }
+
+  public boolean isDividerDraggable() {
+    return dividerDraggable;
+  }
+
+  public void setDividerDraggable(boolean dividerDraggable) {
+    this.dividerDraggable = dividerDraggable;
+    updateDividerCursors();
+  }
+
+  public void setHeavyWeightDragIndicator(boolean heavyWeight) {
+    if (dragIndicator != null)
+      remove(dragIndicator);
+
+    dragIndicator = heavyWeight ? (Component) new Canvas() : new BaseContainer();
+    add(dragIndicator, 0);
+    dragIndicator.setBackground(dragIndicatorColor);
+    dragIndicator.setVisible(false);
+  }
+
+  public Color getDragIndicatorColor() {
+    return dragIndicatorColor;
+  }
+
+  public void setDragIndicatorColor(Color dragIndicatorColor) {
+    this.dragIndicatorColor = dragIndicatorColor;
+    dragIndicator.setBackground(dragIndicatorColor);
+  }
+
+  public void setContinuousLayout(boolean value) {
+    continuousLayout = value;
+  }
+
+  public boolean isContinuousLayout() {
+    return continuousLayout;
+  }
+
+  /**
+   * Returns the maximum time a layout can take during a continuous layout drag.
+   *
+   * @return the frame budget in milliseconds, 0 if continuous layout is not paced
+   */
+  public int getContinuousLayoutFrameBudget() {
+    return dragPacer.getFrameBudget();
+  }
+
+  /**
+   * Sets the maximum time a layout can take during a continuous layout drag. When it's larger than 0 the continuous
+   * layout is paced to at most one layout per display frame, and if several layouts in a row take longer than the
+   * budget the rest of the drag is shown using the drag indicator.
+   *
+   * @param frameBudget the frame budget in milliseconds, 0 lays out the split pane on every drag event
+   */
+  public void setContinuousLayoutFrameBudget(int frameBudget) {
+    dragPacer.setFrameBudget(frameBudget);
+  }
+
+  public int getDividerSize() {
+    return dividerSize;
+  }
+
+  public void setDividerSize(int dividerSize) {
+    this.dividerSize = dividerSize;
+    revalidate();
+  }
+
+  public boolean isHorizontal() {
+    return horizontal;
+  }
+
+  public void setHorizontal(boolean horizontal) {
+    this.horizontal = horizontal;
+    updateDividerCursors();
+    revalidate();
+  }
+
+  private SimplePanel createDivider() {
+    SimplePanel divider = new SimplePanel();
+    divider.addMouseListener(dividerMouseListener);
+    divider.addMouseMotionListener(dividerMouseMotionListener);
+
+    for (int i = 0; i < dividerMouseListeners.size(); i++)
+      divider.addMouseListener((MouseListener) dividerMouseListeners.get(i));
+
+    divider.setCursor(getDividerCursor());
+    add(divider);
+    return divider;
+  }
+
+  private void dragDivider(int location) {
+    Component left = getSplitComponent(dragDivider);
+    int next = getNextVisibleIndex(dragDivider);
+
+    if (left == null || !left.isVisible() || next == -1)
+      return;
+
+    Component right = getSplitComponent(next);
+    int start = getPos(left.getLocation());
+    int leftSize = getDimensionSize(left.getSize());
+    int pairSize = leftSize + getDimensionSize(right.getSize());
+
+    if (pairSize <= 0)
+      return;
+
+    int newLeftSize = Math.max(location - start, leftDragMinimumSize);
+    newLeftSize = Math.max(0, Math.min(newLeftSize, pairSize - rightDragMinimumSize));
+
+    float pairWeight = weights[dragDivider] + weights[next];
+    float[] newWeights = getWeights();
+    newWeights[dragDivider] = pairWeight * newLeftSize / pairSize;
+    newWeights[next] = pairWeight - newWeights[dragDivider];
+
+    if (continuousLayout && !dragPacer.isOverBudget())
+      setWeights(newWeights);
+    else {
+      dragWeights = newWeights;
+      Point p = createPoint(start + newLeftSize, horizontal ? getInsets().top : getInsets().left);
+      Dimension d = createSize(dividerSize, getOtherSize());
+      dragIndicator.setBounds(p.x, p.y, d.width, d.height);
+      dragIndicator.setVisible(true);
+    }
+  }
+
+  private int getNextVisibleIndex(int index) {
+    for (int i = index + 1; i < components.size(); i++) {
+      Component c = getSplitComponent(i);
+
+      if (c != null && c.isVisible())
+        return i;
+    }
+
+    return -1;
+  }
+
+  private int[] getVisibleIndexes() {
+    int count = 0;
+
+    for (int i = 0; i < components.size(); i++) {
+      Component c = getSplitComponent(i);
+
+      if (c != null && c.isVisible())
+        count++;
+    }
+
+    int[] indexes = new int[count];
+    count = 0;
+
+    for (int i = 0; i < components.size(); i++) {
+      Component c = getSplitComponent(i);
+
+      if (c != null && c.isVisible())
+        indexes[count++] = i;
+    }
+
+    return indexes;
+  }
+
+  private float getWeightSum(int[] indexes) {
+    float sum = 0;
+
+    for (int i = 0; i < indexes.length; i++)
+      sum += weights[indexes[i]];
+
+    return sum;
+  }
+
+  private Dimension getLayoutSize(boolean preferred) {
+    int[] visible = getVisibleIndexes();
+    int size = visible.length == 0 ? 0 : dividerSize * (visible.length - 1);
+    int otherSize = 0;
+
+    for (int i = 0; i < visible.length; i++) {
+      Component c = getSplitComponent(visible[i]);
+      Dimension d = preferred ? c.getPreferredSize() : c.getMinimumSize();
+      size += getDimensionSize(d);
+      otherSize = Math.max(otherSize, getOtherSize(d));
+    }
+
+    Dimension d = createSize(size, otherSize);
+    Insets i = getInsets();
+    return new Dimension(d.width + i.left + i.right, d.height + i.top + i.bottom);
+  }
+
+  private void updateDividerCursors() {
+    Cursor cursor = getDividerCursor();
+
+    for (int i = 0; i < dividers.size(); i++)
+      ((Component) dividers.get(i)).setCursor(cursor);
+  }
+
+  private Cursor getDividerCursor() {
+    return dividerDraggable ?
+           new Cursor(horizontal ? Cursor.W_RESIZE_CURSOR : Cursor.N_RESIZE_CURSOR) : Cursor.getDefaultCursor();
+  }
+
+  private int getOtherSize() {
+    return horizontal ?
+           getHeight() - getInsets().top - getInsets().bottom : getWidth() - getInsets().left - getInsets().right;
+  }
+
+  private int getViewSize(int componentCount) {
+    return getDimensionSize(getSize()) - dividerSize * (componentCount - 1) - (horizontal ?
+                                                                               getInsets().left + getInsets().right :
+                                                                               getInsets().top + getInsets().bottom);
+  }
+
+  private int getDimensionSize(Dimension d) {
+    return (int) (horizontal ? d.getWidth() : d.getHeight());
+  }
+
+  private int getOtherSize(Dimension d) {
+    return (int) (horizontal ? d.getHeight() : d.getWidth());
+  }
+
+  private int getPos(Point p) {
+    return (int) (horizontal ? p.getX() : p.getY());
+  }
+
+  private Dimension createSize(int size, int otherSize) {
+    return horizontal ? new Dimension(size, otherSize) : new Dimension(otherSize, size);
+  }
+
+  private Point createPoint(int pos, int otherPos) {
+    return horizontal ? new Point(pos, otherPos) : new Point(otherPos, pos);
+  }
+}
@@ -43,7 +43,8 @@ public class ScrollableBox extends SimplePanel {
       if (parent.getComponentCount() > 0) {
         Component panel = parent.getComponent(0);
 
-        panel.setBounds(0, 0, panel.getPreferredSize().width, panel.getPreferredSize().height);
+        // Keep the scroll position until it's updated, the panel might depend on its location
+        panel.setBounds(panel.getX(), panel.getY(), panel.getPreferredSize().width, panel.getPreferredSize().height);
         panel.validate();
         update();
       }
@@ -179,11 +180,11 @@ public class ScrollableBox extends SimplePanel {
     return vertical ? p.y : p.x;
   }
 
-  private int getScrollOffset(int index) {
+  private int getScrollOffset(Component[] components, int index) {
     if (index == 0)
       return 0;
 
-    Component c = getScrollingComponents()[index - 1];
+    Component c = components[index - 1];
     return Math.min(scrollOffset,
                     Math.max(getDimensionSize(c.getMinimumSize()), getDimensionSize(c.getPreferredSize()) / 2));
   }
@@ -208,7 +209,11 @@ public class ScrollableBox extends SimplePanel {
   private int getScrollingComponentCount() {
     JComponent c = getScrollingComponent();
 
-    return (c == null) ? 0 : c.getComponentCount();
+    if (c == null)
+      return 0;
+
+    // The scrolling container doesn't necessarily contain all components in the layout order list
+    return layoutOrderList != null ? layoutOrderList.size() : c.getComponentCount();
   }
 
   private int findFitIndex(int lastIndex) {
@@ -222,7 +227,7 @@ public class ScrollableBox extends SimplePanel {
     int endPos = getPos(c[lastIndex].getLocation()) + getDimensionSize(c[lastIndex].getSize());
 
     for (int i = lastIndex; i >= 0; i--) {
-      if ((endPos - getPos(c[i].getLocation()) + getScrollOffset(i)) > fitSize) {
+      if ((endPos - getPos(c[i].getLocation()) + getScrollOffset(c, i)) > fitSize) {
         return Math.min(c.length - 1, i + 1);
       }
     }
@@ -247,10 +252,11 @@ public class ScrollableBox extends SimplePanel {
       leftEnd = leftIndex == 0;
       rightEnd = !(leftIndex < fitIndex);
 
+      Component[] components = getScrollingComponents();
       scrollingComponent.setLocation(createPos(((count == 0) ?
                                                 0 :
-                                                (-getPos(getScrollingComponents()[leftIndex].getLocation()))) + getScrollOffset(
-                                                    leftIndex)));
+                                                (-getPos(components[leftIndex].getLocation()))) + getScrollOffset(
+                                                    components, leftIndex)));
       Object[] l = listeners.toArray();
       for (int i = 0; i < l.length; i++)
         if (oldLeftIndex < index)
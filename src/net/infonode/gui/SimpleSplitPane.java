@@ -82,14 +82,12 @@ public class SimpleSplitPane extends BaseContainer {
     }
 
     public Dimension minimumLayoutSize(Container parent) {
-      Dimension d = createSize((leftComponent == null ? 0 : getDimensionSize(leftComponent.getMinimumSize())) + dividerSize
-                               + (rightComponent == null ? 0 : getDimensionSize(rightComponent.getMinimumSize())), Math.max(
-                                   leftComponent == null ? 0 : getOtherSize(leftComponent.getMinimumSize()), rightComponent == null
-                                                                                                             ?
-                                                                                                             0
-                                                                                                             :
-                                                                                                             getOtherSize(
-                                                                                                                 rightComponent.getMinimumSize())));
+      // The minimum size of each child is only fetched once since it's not cached while the child is invalid, which
+      // would make the cost exponential in the depth of nested split panes
+      Dimension leftSize = leftComponent == null ? new Dimension() : leftComponent.getMinimumSize();
+      Dimension rightSize = rightComponent == null ? new Dimension() : rightComponent.getMinimumSize();
+      Dimension d = createSize(getDimensionSize(leftSize) + dividerSize + getDimensionSize(rightSize),
+                               Math.max(getOtherSize(leftSize), getOtherSize(rightSize)));
       return new Dimension(d.width + getInsets().left + getInsets().right,
                            d.height + getInsets().top + getInsets().bottom);
     }
@@ -97,13 +95,10 @@ public class SimpleSplitPane extends BaseContainer {
     public Dimension preferredLayoutSize(Container parent) {
       boolean lv = leftComponent != null && leftComponent.isVisible();
       boolean rv = rightComponent != null && rightComponent.isVisible();
-      Dimension d = createSize(
-          (lv ? getDimensionSize(leftComponent.getPreferredSize()) : 0) + (lv && rv ? dividerSize : 0) + (rv ?
-                                                                                                          getDimensionSize(
-                                                                                                              rightComponent.getPreferredSize()) :
-                                                                                                          0),
-          Math.max(lv ? getOtherSize(leftComponent.getPreferredSize()) : 0,
-                   rv ? getOtherSize(rightComponent.getPreferredSize()) : 0));
+      Dimension leftSize = lv ? leftComponent.getPreferredSize() : new Dimension();
+      Dimension rightSize = rv ? rightComponent.getPreferredSize() : new Dimension();
+      Dimension d = createSize(getDimensionSize(leftSize) + (lv && rv ? dividerSize : 0) + getDimensionSize(rightSize),
+                               Math.max(getOtherSize(leftSize), getOtherSize(rightSize)));
       return new Dimension(d.width + getInsets().left + getInsets().right,
                            d.height + getInsets().top + getInsets().bottom);
     }
@@ -124,6 +119,13 @@ public class SimpleSplitPane extends BaseContainer {
   private int dividerSize = 6;
   private ArrayList listeners = new ArrayList(0);
   private Color dragIndicatorColor = Color.DARK_GRAY;
+  private Dimension leftDragMinimumSize;
+  private Dimension rightDragMinimumSize;
+  private DividerDragPacer dragPacer = new DividerDragPacer(this, new Runnable() {
+    public void run() {
+      setDividerLocation(dragLocation);
+    }
+  });
 
   public SimpleSplitPane(boolean horizontal) {
     this(horizontal, false);
@@ -142,6 +144,13 @@ public class SimpleSplitPane extends BaseContainer {
           // MouseEventCoalesceManager.getInstance().isPressedAllowed(e))
           // {
           CursorManager.setGlobalCursor(getRootPane(), dividerPanel.getCursor());
+
+          if (dividerDraggable) {
+            // The minimum sizes of the subtrees don't change during the drag
+            leftDragMinimumSize = leftComponent == null ? null : leftComponent.getMinimumSize();
+            rightDragMinimumSize = rightComponent == null ? null : rightComponent.getMinimumSize();
+          }
+
           if (dividerDraggable && !continuousLayout) {
             float location = (float) (getPos(dividerPanel.getLocation()) - getOffset() + getPos(e.getPoint())) / getViewSize();
             setDragIndicator(location);
@@ -155,10 +164,14 @@ public class SimpleSplitPane extends BaseContainer {
           // {
           CursorManager.resetGlobalCursor(getRootPane());
 
-          if (dividerDraggable && !continuousLayout) {
+          if (dividerDraggable && (!continuousLayout || dragPacer.isOverBudget())) {
             dragIndicator.setVisible(false);
             setDividerLocation(dragLocation);
           }
+
+          dragPacer.end();
+          leftDragMinimumSize = null;
+          rightDragMinimumSize = null;
         }
       }
     });
@@ -168,8 +181,10 @@ public class SimpleSplitPane extends BaseContainer {
         if (dividerDraggable && /* MouseEventCoalesceManager.getInstance().isDraggedAllowed(e) && */(e.getModifiersEx() & MouseEvent.BUTTON1_DOWN_MASK) != 0) {
           float location = (float) (getPos(dividerPanel.getLocation()) - getOffset() + getPos(e.getPoint())) / getViewSize();
 
-          if (continuousLayout)
-            setDividerLocation(location);
+          if (continuousLayout && !dragPacer.isOverBudget()) {
+            dragLocation = location;
+            dragPacer.dragged();
+          }
           else
             setDragIndicator(location);
         }
@@ -252,13 +267,17 @@ public class SimpleSplitPane extends BaseContainer {
 
     int leftSize = Math.max((int) (totalSize * location),
                             leftComponent == null || !leftComponent.isVisible() ?
-                            0 : getDimensionSize(leftComponent.getMinimumSize()));
+                            0 : getDimensionSize(getMinimumSize(leftComponent, leftDragMinimumSize)));
     leftSize = Math.min(leftSize,
                         totalSize - (rightComponent == null || !rightComponent.isVisible() ?
-                                     0 : getDimensionSize(rightComponent.getMinimumSize())));
+                                     0 : getDimensionSize(getMinimumSize(rightComponent, rightDragMinimumSize))));
     return (float) leftSize / totalSize;
   }
 
+  private static Dimension getMinimumSize(Component component, Dimension dragMinimumSize) {
+    return dragMinimumSize == null ? component.getMinimumSize() : dragMinimumSize;
+  }
+
   public void setContinuousLayout(boolean value) {
     continuousLayout = value;
   }
@@ -267,6 +286,28 @@ public class SimpleSplitPane extends BaseContainer {
     return continuousLayout;
   }
 
+  /**
+   * Returns the maximum time a layout can take during a continuous layout drag.
+   *
+   * @return the frame budget in milliseconds, 0 if continuous layout is not paced
+   * @since IDW 1.7.0
+   */
+  public int getContinuousLayoutFrameBudget() {
+    return dragPacer.getFrameBudget();
+  }
+
+  /**
+   * Sets the maximum time a layout can take during a continuous layout drag. When it's larger than 0 the continuous
+   * layout is paced to at most one layout per display frame, and if several layouts in a row take longer than the
+   * budget the rest of the drag is shown using the drag indicator.
+   *
+   * @param frameBudget the frame budget in milliseconds, 0 lays out the split pane on every drag event
+   * @since IDW 1.7.0
+   */
+  public void setContinuousLayoutFrameBudget(int frameBudget) {
+    dragPacer.setFrameBudget(frameBudget);
+  }
+
   public int getDividerSize() {
     return dividerSize;
   }
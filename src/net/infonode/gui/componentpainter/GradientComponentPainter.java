@@ -24,17 +24,15 @@
 package net.infonode.gui.componentpainter;
 
 import java.awt.*;
-import java.awt.image.MemoryImageSource;
-import java.lang.ref.SoftReference;
 
 import net.infonode.gui.colorprovider.ColorProvider;
 import net.infonode.gui.colorprovider.FixedColorProvider;
 import net.infonode.util.ColorUtil;
 import net.infonode.util.Direction;
-import net.infonode.util.ImageUtils;
 
 /**
- * A painter that paints an gradient area specified by four corner colors.
+ * A painter that paints an gradient area specified by four corner colors. The gradient images are shared with all
+ * other gradient painters through the {@link GradientImageCache}.
  *
  * @author $Author: jesper $
  * @version $Revision: 1.12 $
@@ -45,7 +43,6 @@ public class GradientComponentPainter extends AbstractComponentPainter {
   private final ColorProvider[] colorProviders = new ColorProvider[4];
   private transient Color[] colors;
   private final int size = 128;
-  private transient SoftReference[] images;
   private transient boolean hasAlpha;
 
   /**
@@ -96,15 +93,11 @@ public class GradientComponentPainter extends AbstractComponentPainter {
         g.fillRect(x, y, width, height);
       }
       else {
-        int imageIndex = direction.ordinal() + (horizontalFlip ? 4 : 0) + (verticalFlip ? 8 : 0);
-        SoftReference ref = images[imageIndex];
-        Image image = ref == null ? null : (Image) ref.get();
-
-        if (image == null) {
-          image = createGradientImage(fixColors(direction, horizontalFlip, verticalFlip));
-          images[imageIndex] = new SoftReference(image);
-        }
-
+        GraphicsConfiguration configuration = g instanceof Graphics2D ?
+                                              ((Graphics2D) g).getDeviceConfiguration() : null;
+        Image image = GradientImageCache.getInstance().getImage(configuration,
+                                                                fixColors(direction, horizontalFlip, verticalFlip),
+                                                                size);
         g.drawImage(image, x, y, width, height, null);
       }
     }
@@ -206,33 +199,12 @@ public class GradientComponentPainter extends AbstractComponentPainter {
     return c;
   }
 
-  private Image createGradientImage(Color[] colors) {
-    return Toolkit.getDefaultToolkit().createImage(new MemoryImageSource(size,
-        size,
-        ImageUtils.createGradientPixels(colors,
-            size,
-            size),
-            0,
-            size));
-  }
-
   private void updateColors(Component component) {
-    if (images == null) {
-      images = new SoftReference[16];
-    }
-
     if (colors == null)
       colors = new Color[4];
 
     for (int i = 0; i < colors.length; i++) {
       Color c = colorProviders[i].getColor(component);
-
-      if (c != null && !c.equals(colors[i])) {
-        for (int j = 0; j < images.length; j++) {
-          images[j] = null;
-        }
-      }
-
       colors[i] = c;
       hasAlpha |= c != null && c.getAlpha() != 255;
     }
@@ -0,0 +1,231 @@
+/*
+ * Copyright (C) 2004 NNL Technology AB
+ * Visit www.infonode.net for information about InfoNode(R) 
+ * products and how to contact NNL Technology AB.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, 
+ * MA 02111-1307, USA.
+ */
+
+
+// $Id$
+package net.infonode.gui.componentpainter;
+
+import net.infonode.util.ImageUtils;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * A process wide cache for the gradient images painted by {@link GradientComponentPainter}'s. The images are keyed
+ * by their corner colors, size and {@link GraphicsConfiguration}, so painters and components with the same colors
+ * share the images. The images are created compatible with the graphics configuration so the toolkit can keep
+ * accelerated copies of them. When the total size of the images exceeds the maximum size the least recently used
+ * images are removed.
+ *
+ * @author $Author$
+ * @version $Revision$
+ * @since IDW 1.7.0
+ */
+public class GradientImageCache {
+  private static final GradientImageCache INSTANCE = new GradientImageCache();
+
+  private static final int DEFAULT_MAXIMUM_BYTE_SIZE = 4 * 1024 * 1024;
+
+  private final LinkedHashMap images = new LinkedHashMap(16, 0.75f, true);
+  private final Key lookupKey = new Key();
+  private int maximumByteSize = DEFAULT_MAXIMUM_BYTE_SIZE;
+  private int byteSize;
+  private long hitCount;
+  private long missCount;
+
+  private static class Key {
+    private GraphicsConfiguration configuration;
+    private final int[] colors = new int[4];
+    private int size;
+
+    private void set(GraphicsConfiguration configuration, Color[] colors, int size) {
+      this.configuration = configuration;
+      this.size = size;
+
+      for (int i = 0; i < this.colors.length; i++)
+        this.colors[i] = colors[i].getRGB();
+    }
+
+    public int hashCode() {
+      int hash = size;
+
+      for (int i = 0; i < colors.length; i++)
+        hash = hash * 31 + colors[i];
+
+      return configuration == null ? hash : hash * 31 + configuration.hashCode();
+    }
+
+    public boolean equals(Object obj) {
+      if (!(obj instanceof Key))
+        return false;
+
+      Key key = (Key) obj;
+
+      if (key.size != size || key.configuration != configuration)
+        return false;
+
+      for (int i = 0; i < colors.length; i++)
+        if (key.colors[i] != colors[i])
+          return false;
+
+      return true;
+    }
+  }
+
+  private GradientImageCache() {
+  }
+
+  /**
+   * Returns the cache instance.
+   *
+   * @return the cache instance
+   */
+  public static GradientImageCache getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Returns a gradient image, creating it if it's not in the cache.
+   *
+   * @param configuration the graphics configuration the image is painted on, null creates a plain image
+   * @param colors        the top left, top right, bottom left and bottom right colors
+   * @param size          the width and height of the image
+   * @return the gradient image, must not be modified
+   */
+  public synchronized Image getImage(GraphicsConfiguration configuration, Color[] colors, int size) {
+    lookupKey.set(configuration, colors, size);
+    Image image = (Image) images.get(lookupKey);
+
+    if (image != null) {
+      hitCount++;
+      return image;
+    }
+
+    missCount++;
+    BufferedImage newImage = createImage(configuration, colors, size);
+
+    Key key = new Key();
+    key.set(configuration, colors, size);
+    images.put(key, newImage);
+    byteSize += getByteSize(newImage);
+    trim(maximumByteSize);
+    return newImage;
+  }
+
+  /**
+   * Returns the number of lookups that found the image in the cache.
+   *
+   * @return the number of cache hits
+   */
+  public synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * Returns the number of lookups that had to create the image.
+   *
+   * @return the number of cache misses
+   */
+  public synchronized long getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * Returns the number of images in the cache.
+   *
+   * @return the number of images
+   */
+  public synchronized int getImageCount() {
+    return images.size();
+  }
+
+  /**
+   * Returns the approximate number of bytes used by the images in the cache.
+   *
+   * @return the number of bytes
+   */
+  public synchronized int getByteSize() {
+    return byteSize;
+  }
+
+  /**
+   * Returns the maximum number of bytes used by the images in the cache.
+   *
+   * @return the maximum number of bytes
+   */
+  public synchronized int getMaximumByteSize() {
+    return maximumByteSize;
+  }
+
+  /**
+   * Sets the maximum number of bytes used by the images in the cache. The least recently used images are removed
+   * until the cache fits. The most recently used image is always kept.
+   *
+   * @param maximumByteSize the maximum number of bytes
+   */
+  public synchronized void setMaximumByteSize(int maximumByteSize) {
+    this.maximumByteSize = maximumByteSize;
+    trim(maximumByteSize);
+  }
+
+  /**
+   * Removes all images from the cache.
+   */
+  public synchronized void clear() {
+    images.clear();
+    byteSize = 0;
+  }
+
+  private void trim(int maximumByteSize) {
+    Iterator it = images.values().iterator();
+
+    while (byteSize > maximumByteSize && images.size() > 1) {
+      BufferedImage image = (BufferedImage) it.next();
+      it.remove();
+      byteSize -= getByteSize(image);
+    }
+  }
+
+  private static BufferedImage createImage(GraphicsConfiguration configuration, Color[] colors, int size) {
+    boolean opaque = true;
+
+    for (int i = 0; i < colors.length; i++)
+      opaque &= colors[i].getAlpha() == 255;
+
+    BufferedImage image = configuration == null ?
+                          new BufferedImage(size,
+                                            size,
+                                            opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB) :
+                          configuration.createCompatibleImage(size,
+                                                              size,
+                                                              opaque ? Transparency.OPAQUE : Transparency.TRANSLUCENT);
+    image.setRGB(0, 0, size, size, ImageUtils.createGradientPixels(colors, size, size), 0, size);
+    return image;
+  }
+
+  private static int getByteSize(BufferedImage image) {
+    DataBuffer buffer = image.getRaster().getDataBuffer();
+    return buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+  }
+}
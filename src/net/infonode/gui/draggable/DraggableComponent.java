@@ -326,13 +326,13 @@ public class DraggableComponent {
     dragStarted = true;
     JComponent parent = (JComponent) component.getParent();
 
-    if (parent.getComponentCount() == 1)
+    if (getComponentCount(parent) == 1)
       return;
 
     Point p2 = SwingUtilities.convertPoint(component, p, parent);
     int toIndex = getMoveComponentIndex(p2);
     if (toIndex != -1) {
-      toIndex = Math.min(toIndex, parent.getComponentCount() - 1);
+      toIndex = Math.min(toIndex, getComponentCount(parent) - 1);
       Component fromComponent = getComponent(parent, dragIndex);
       int fromDimension;
       int toPos;
@@ -369,7 +369,7 @@ public class DraggableComponent {
 
   private boolean isVerticalDrag() {
     JComponent parent = (JComponent) component.getParent();
-    if (parent.getComponentCount() > 1)
+    if (getComponentCount(parent) > 1)
       return getComponent(parent, 0).getY() < getComponent(parent, 1).getY();
 
     return false;
@@ -399,7 +399,8 @@ public class DraggableComponent {
     JComponent parent = (JComponent) component.getParent();
     if (checkParentContains(p)) {
       boolean vertical = isVerticalDrag();
-      for (int i = 0; i < parent.getComponentCount() - 1; i++) {
+      int count = getComponentCount(parent);
+      for (int i = 0; i < count - 1; i++) {
         Point p2 = getComponent(parent, i + 1).getLocation();
 
         if (vertical) {
@@ -413,11 +414,11 @@ public class DraggableComponent {
       }
 
       if (dragIndex == -1)
-        return parent.getComponentCount();
+        return count;
       else if (vertical)
-        return p.getY() < 0 ? 0 : parent.getComponentCount() - 1;
+        return p.getY() < 0 ? 0 : count - 1;
       else
-        return p.getX() < 0 ? 0 : parent.getComponentCount() - 1;
+        return p.getX() < 0 ? 0 : count - 1;
     }
 
     return -1;
@@ -430,6 +431,14 @@ public class DraggableComponent {
     return (JComponent) parent.getComponent(index);
   }
 
+  private int getComponentCount(Container parent) {
+    // The parent only contains the realized components when the box is virtualized
+    if (layoutOrderList != null)
+      return layoutOrderList.size();
+
+    return parent.getComponentCount();
+  }
+
   private int getComponentIndex(Component c) {
     if (layoutOrderList != null)
       return layoutOrderList.indexOf(c);
@@ -440,7 +449,7 @@ public class DraggableComponent {
   private void addComponent(Container parent, Component c, int index) {
     if (layoutOrderList != null) {
       layoutOrderList.add(index, c);
-      parent.add(c, index);
+      parent.add(c, Math.min(index, parent.getComponentCount()));
     }
     else
       parent.add(c, index);
@@ -28,6 +28,7 @@ import java.awt.*;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
 import java.util.ArrayList;
+import java.util.HashMap;
 
 import javax.swing.JComponent;
 import javax.swing.SwingUtilities;
@@ -46,6 +47,8 @@ public class DraggableComponentBox extends SimplePanel {
   private JComponent outerParentArea = this;
   private Direction componentDirection = Direction.UP;
   private boolean scrollEnabled = false;
+  private boolean virtualized;
+  private boolean updatingRealizedComponents;
   private boolean ensureSelectedVisible;
   private boolean autoSelect = true;
   private boolean descendingSortOrder = true;
@@ -60,6 +63,12 @@ public class DraggableComponentBox extends SimplePanel {
   private ArrayList listeners;
   private final ArrayList draggableComponentList = new ArrayList(10);
   private final ArrayList layoutOrderList = new ArrayList(10);
+  private final HashMap draggableComponentMap = new HashMap();
+
+  /**
+   * Cached sizes of the components that are not realized in the component box, maps component to ComponentSizes
+   */
+  private final HashMap componentSizes = new HashMap();
 
   private ScrollButtonBox scrollButtonBox;
 
@@ -119,6 +128,7 @@ public class DraggableComponentBox extends SimplePanel {
           //long millis = System.currentTimeMillis();
           doSort();
           super.layoutContainer(parent);
+          updateRealizedComponents();
           //System.out.println("Layout: " + (System.currentTimeMillis() - millis));
         }
       }
@@ -127,6 +137,18 @@ public class DraggableComponentBox extends SimplePanel {
         doSort();
         return super.preferredLayoutSize(parent);
       }
+
+      protected Dimension getComponentMinimumSize(Component component) {
+        return isRealized(component) ? component.getMinimumSize() : getComponentSizes(component).minimum;
+      }
+
+      protected Dimension getComponentPreferredSize(Component component) {
+        return isRealized(component) ? component.getPreferredSize() : getComponentSizes(component).preferred;
+      }
+
+      protected Dimension getComponentMaximumSize(Component component) {
+        return isRealized(component) ? component.getMaximumSize() : getComponentSizes(component).maximum;
+      }
     };
 
     layout.setLayoutOrderList(layoutOrderList);
@@ -135,6 +157,14 @@ public class DraggableComponentBox extends SimplePanel {
       public boolean isOptimizedDrawingEnabled() {
         return DraggableComponentBox.this != null && getComponentSpacing() >= 0;
       }
+
+      public void setBounds(int x, int y, int width, int height) {
+        super.setBounds(x, y, width, height);
+
+        // The box is moved when it's scrolled
+        if (DraggableComponentBox.this != null && isVirtualizing())
+          updateRealizedComponents();
+      }
     };
 
     componentBox.addComponentListener(new ComponentAdapter() {
@@ -176,16 +206,22 @@ public class DraggableComponentBox extends SimplePanel {
     component.addListener(draggableComponentListener);
     if (index < 0) {
       layoutOrderList.add(component.getComponent());
-      componentBox.add(component.getComponent());
+
+      // A virtualized component is realized when it's laid out inside the visible part of the box
+      if (!isVirtualizing())
+        componentBox.add(component.getComponent());
     }
     else {
       layoutOrderList.add(index, component.getComponent());
-      componentBox.add(component.getComponent(), index);
+
+      if (!isVirtualizing())
+        componentBox.add(component.getComponent(), index);
     }
 
     sortComponentList(!descendingSortOrder);
 
     draggableComponentList.add(component);
+    draggableComponentMap.put(component.getComponent(), component);
     component.setOuterParentArea(outerParentArea);
     componentBox.revalidate();
 
@@ -254,6 +290,8 @@ public class DraggableComponentBox extends SimplePanel {
         }
       }
       draggableComponentList.remove(component);
+      draggableComponentMap.remove(component.getComponent());
+      componentSizes.remove(component.getComponent());
       layoutOrderList.remove(component.getComponent());
       componentBox.remove(component.getComponent());
       componentBox.revalidate();
@@ -292,6 +330,12 @@ public class DraggableComponentBox extends SimplePanel {
     return draggableComponentList.toArray();
   }
 
+  /**
+   * Returns the components that are realized in the box. If the box is virtualized, these are the components in the
+   * visible part of the box, otherwise all components.
+   *
+   * @return the realized components
+   */
   public Component[] getBoxComponents() {
     return componentBox.getComponents();
   }
@@ -316,6 +360,35 @@ public class DraggableComponentBox extends SimplePanel {
     if (scrollEnabled != this.scrollEnabled) {
       this.scrollEnabled = scrollEnabled;
       initialize();
+      updateRealizedComponents();
+    }
+  }
+
+  /**
+   * Returns true if the box is virtualized.
+   *
+   * @return true if the box is virtualized
+   * @see #setVirtualized
+   * @since IDW 1.7.0
+   */
+  public boolean isVirtualized() {
+    return virtualized;
+  }
+
+  /**
+   * Sets if the box is virtualized. When scrolling is enabled in a virtualized box, only the components inside the
+   * visible part of the box, the selected component and the top component are added to the box. The other components
+   * are laid out using the sizes they had when they were last measured, their sizes are updated when they are added
+   * to the box again.
+   *
+   * @param virtualized true if the box should be virtualized
+   * @since IDW 1.7.0
+   */
+  public void setVirtualized(boolean virtualized) {
+    if (virtualized != this.virtualized) {
+      this.virtualized = virtualized;
+      updateRealizedComponents();
+      componentBox.revalidate();
     }
   }
 
@@ -371,6 +444,7 @@ public class DraggableComponentBox extends SimplePanel {
   public void setComponentDirection(Direction componentDirection) {
     if (componentDirection != this.componentDirection) {
       this.componentDirection = componentDirection;
+      componentSizes.clear();
       getDirectionLayout().setDirection(componentDirection == Direction.UP ? Direction.RIGHT : componentDirection == Direction.LEFT ? Direction.DOWN : componentDirection == Direction.DOWN
                                                                                                                                     ?
                                                                                                                                      Direction.RIGHT
@@ -388,6 +462,7 @@ public class DraggableComponentBox extends SimplePanel {
       this.topComponent = topComponent;
 
       sortComponentList(!descendingSortOrder);
+      updateRealizedComponents();
     }
   }
 
@@ -440,73 +515,91 @@ public class DraggableComponentBox extends SimplePanel {
     });
   }
 
-  // Prevents focus problems when adding/removing focused component while sorting when spacing < 0
-  private void setIgnoreAddRemoveNotify(boolean ignore) {
-    for (int i = 0; i < draggableComponentList.size(); i++)
-      ((DraggableComponent) draggableComponentList.get(i)).setIgnoreAddNotify(ignore);
-  }
+  // Returns the realized components in paint order, the top component first
+  private Component[] getPaintOrder() {
+    Component[] order = new Component[componentBox.getComponentCount()];
+    Component tc = topComponent != null ? topComponent.getComponent() : null;
+    int index = 0;
 
-  private void doSort() {
-    if (mustSort && getComponentSpacing() < 0 && componentBox.getComponentCount() > 0) {
-      setIgnoreAddRemoveNotify(true);
+    if (tc != null && isRealized(tc))
+      order[index++] = tc;
 
-      mustSort = false;
-      Component c;
-      Component tc = topComponent != null ? topComponent.getComponent() : null;
+    int size = layoutOrderList.size();
+    for (int i = 0; i < size && index < order.length; i++) {
+      Component c = (Component) layoutOrderList.get(doReverseSort ? size - i - 1 : i);
+      if (c != tc && isRealized(c))
+        order[index++] = c;
+    }
 
-      //componentBoxEnabled = false;
+    if (index < order.length) {
+      Component[] realized = new Component[index];
+      System.arraycopy(order, 0, realized, 0, index);
+      return realized;
+    }
 
-      //long millis = System.currentTimeMillis();
+    return order;
+  }
 
-      int index = 0;
-      if (tc != null) {
-        if (componentBox.getComponent(0) != tc) {
-          componentBox.remove(tc);
-          componentBox.add(tc, index);
-        }
-        index++;
-      }
+  // Returns the components in the order that already have the correct relative z-order, i.e. the longest increasing
+  // subsequence of their component box indices
+  private boolean[] getSortedComponents(Component[] order) {
+    HashMap indexMap = new HashMap(componentBox.getComponentCount() * 2);
+    for (int i = 0; i < componentBox.getComponentCount(); i++)
+      indexMap.put(componentBox.getComponent(i), Integer.valueOf(i));
 
-      int switc = 0;
-      int size = layoutOrderList.size();
-      for (int i = 0; i < size; i++) {
-        c = (Component) layoutOrderList.get(doReverseSort ? size - i - 1 : i);
-        if (c != tc) {
-          if (componentBox.getComponent(index) != c) {
-            switc++;
-            componentBox.remove(c);
-            componentBox.add(c, index);
-          }
-          index++;
-        }
+    int[] tails = new int[order.length];
+    int[] previous = new int[order.length];
+    int length = 0;
+
+    for (int i = 0; i < order.length; i++) {
+      int index = ((Integer) indexMap.get(order[i])).intValue();
+      int low = 0;
+      int high = length;
+
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (((Integer) indexMap.get(order[tails[mid]])).intValue() < index)
+          low = mid + 1;
+        else
+          high = mid;
       }
 
-      setIgnoreAddRemoveNotify(false);
+      previous[i] = low > 0 ? tails[low - 1] : -1;
+      tails[low] = i;
+
+      if (low == length)
+        length++;
+    }
+
+    boolean[] sorted = new boolean[order.length];
+    for (int i = length > 0 ? tails[length - 1] : -1; i >= 0; i = previous[i])
+      sorted[i] = true;
 
-      /*System.out.print("  Box:   ");
-      for (int i = 0; i < componentBox.getComponentCount(); i++)
-        System.out.print(componentBox.getComponent(i) + "  ");
-      System.out.println();
-      System.out.print("  Order: ");
-      for (int i = 0; i < layoutOrderList.size(); i++)
-        System.out.print(layoutOrderList.get(i) + "  ");*/
-      //System.out.println();
-      /*			long millis = System.currentTimeMillis();
-			componentBox.removeAll();
+    return sorted;
+  }
+
+  // Moves the components that are out of place in the paint order. Only the components not in the longest correctly
+  // ordered sequence are moved and they are never removed from the component box, so focus and hover state is left
+  // untouched.
+  private void doSort() {
+    if (mustSort && getComponentSpacing() < 0 && componentBox.getComponentCount() > 0) {
+      mustSort = false;
 
-			if (tc != null)
-				componentBox.add(tc);
+      Component[] order = getPaintOrder();
+      boolean[] sorted = getSortedComponents(order);
 
-			int size = layoutOrderList.size();
-			for (int i = 0; i < size; i++) {
-				c = (Component) layoutOrderList.get(doReverseSort ? size - i - 1 : i);
-				if (c != tc)
-					componentBox.add(c);
-			}*/
+      for (int i = 0; i < order.length; i++) {
+        if (!sorted[i]) {
+          int index = 0;
 
-      //componentBoxEnabled = true;
+          if (i > 0) {
+            int previousIndex = componentBox.getComponentZOrder(order[i - 1]);
+            index = componentBox.getComponentZOrder(order[i]) < previousIndex ? previousIndex : previousIndex + 1;
+          }
 
-      //System.out.println("Sorting " + scount++ + "  time: " + (System.currentTimeMillis() - millis) + "  Sorted: " + switc);
+          componentBox.setComponentZOrder(order[i], index);
+        }
+      }
     }
   }
 
@@ -531,11 +624,13 @@ public class DraggableComponentBox extends SimplePanel {
     if (selectedComponent != null) {
       DraggableComponent oldSelected = selectedComponent;
       selectedComponent = component;
+      updateRealizedComponents();
       ensureSelectedVisible();
       fireSelectedEvent(selectedComponent, oldSelected);
     }
     else {
       selectedComponent = component;
+      updateRealizedComponents();
       ensureSelectedVisible();
       fireSelectedEvent(selectedComponent, null);
     }
@@ -559,11 +654,82 @@ public class DraggableComponentBox extends SimplePanel {
   }
 
   private DraggableComponent findDraggableComponent(Component c) {
-    for (int i = 0; i < draggableComponentList.size(); i++)
-      if (((DraggableComponent) draggableComponentList.get(i)).getComponent() == c)
-        return (DraggableComponent) draggableComponentList.get(i);
+    return (DraggableComponent) draggableComponentMap.get(c);
+  }
 
-    return null;
+  private boolean isVirtualizing() {
+    return virtualized && scrollEnabled;
+  }
+
+  private boolean isRealized(Component c) {
+    return c.getParent() == componentBox;
+  }
+
+  private ComponentSizes getComponentSizes(Component c) {
+    ComponentSizes sizes = (ComponentSizes) componentSizes.get(c);
+
+    if (sizes == null) {
+      sizes = new ComponentSizes(c);
+      componentSizes.put(c, sizes);
+    }
+
+    return sizes;
+  }
+
+  /**
+   * Adds the components that intersect the visible part of the box, or a margin of half the visible size around it,
+   * to the component box and removes the rest. The selected component, the top component and a component containing
+   * the focus owner are always realized. If the box isn't virtualized all components are realized.
+   */
+  private void updateRealizedComponents() {
+    if (updatingRealizedComponents)
+      return;
+
+    updatingRealizedComponents = true;
+
+    try {
+      boolean changed = false;
+      boolean vertical = componentDirection.isHorizontal();
+      int viewSize = vertical ? componentContainer.getHeight() : componentContainer.getWidth();
+      int start = -(vertical ? componentBox.getY() : componentBox.getX()) - viewSize / 2;
+      int end = start + viewSize * 2;
+      Component focusOwner = KeyboardFocusManager.getCurrentKeyboardFocusManager().getFocusOwner();
+
+      for (int i = 0; i < layoutOrderList.size(); i++) {
+        Component c = (Component) layoutOrderList.get(i);
+        int pos = vertical ? c.getY() : c.getX();
+        int size = vertical ? c.getHeight() : c.getWidth();
+        boolean realize = !isVirtualizing() ||
+                          (size > 0 && pos < end && pos + size > start) ||
+                          (selectedComponent != null && c == selectedComponent.getComponent()) ||
+                          (topComponent != null && c == topComponent.getComponent());
+
+        if (realize) {
+          if (!isRealized(c)) {
+            componentBox.add(c);
+            changed = true;
+          }
+        }
+        else if (isRealized(c) && (focusOwner == null || !SwingUtilities.isDescendingFrom(focusOwner, c))) {
+          componentSizes.put(c, new ComponentSizes(c));
+          componentBox.remove(c);
+          changed = true;
+        }
+      }
+
+      if (changed) {
+        if (!isVirtualizing())
+          componentSizes.clear();
+
+        sortComponentList(!descendingSortOrder);
+        doSort();
+        componentBox.revalidate();
+        componentBox.repaint();
+      }
+    }
+    finally {
+      updatingRealizedComponents = false;
+    }
   }
 
   private DirectionLayout getDirectionLayout() {
@@ -646,6 +812,18 @@ public class DraggableComponentBox extends SimplePanel {
     });
   }
 
+  private static class ComponentSizes {
+    private final Dimension minimum;
+    private final Dimension preferred;
+    private final Dimension maximum;
+
+    ComponentSizes(Component c) {
+      minimum = c.getMinimumSize();
+      preferred = c.getPreferredSize();
+      maximum = c.getMaximumSize();
+    }
+  }
+
   private void fireDraggedEvent(DraggableComponentEvent e) {
     if (listeners != null) {
       DraggableComponentBoxEvent event = new DraggableComponentBoxEvent(this,
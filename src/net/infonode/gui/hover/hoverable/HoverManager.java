@@ -46,6 +46,8 @@ public class HoverManager {
 
   private final HierarchyListener hierarchyListener = new HierarchyListener() {
     public void hierarchyChanged(final HierarchyEvent e) {
+      invalidateHoverChain();
+
       SwingUtilities.invokeLater(new Runnable() {
         public void run() {
           if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0) {
@@ -67,6 +69,35 @@ public class HoverManager {
 
   private final ArrayList enteredComponents = new ArrayList();
 
+  /**
+   * The hoverables from the source of the last enter event and up, reused between events
+   */
+  private final ArrayList hoverChain = new ArrayList();
+
+  private final ArrayList exitables = new ArrayList();
+
+  private final ArrayList enterables = new ArrayList();
+
+  /**
+   * Incremented when the hoverables, the hierarchy or the entered state changes outside of the enter handling
+   */
+  private int hoverStateVersion;
+
+  private int hoverChainVersion;
+
+  private boolean hoverChainValid;
+
+  private boolean exitCheckPending;
+
+  private final Runnable exitCheck = new Runnable() {
+    public void run() {
+      exitCheckPending = false;
+
+      if (!gotEnterAfterExit)
+        exitAll();
+    }
+  };
+
   private boolean enabled = true;
 
   private boolean hasPermission = true;
@@ -103,9 +134,11 @@ public class HoverManager {
 
   private void handleButtonEvent(MouseEvent event) {
     if (event.getID() == MouseEvent.MOUSE_PRESSED && event.getButton() == MouseEvent.BUTTON1) {
+      invalidateHoverChain();
       enabled = false;
       isDrag = false;
     } else if (!enabled && event.getID() == MouseEvent.MOUSE_RELEASED) {
+      invalidateHoverChain();
       enabled = true;
 
       if (isDrag) {
@@ -140,49 +173,86 @@ public class HoverManager {
   private void handleEnterEvent(MouseEvent event) {
     gotEnterAfterExit = true;
 
-    ArrayList exitables = new ArrayList(enteredComponents);
-    ArrayList enterables = new ArrayList();
+    Component source = event.getSource() instanceof Component ? (Component) event.getSource() : null;
 
-    if (event.getSource() instanceof Component) {
-      Component c = (Component) event.getSource();
-      while (c != null) {
-        if (hoverableComponents.contains(c)) {
-          exitables.remove(c);
-          enterables.add(c);
-        }
-  
-        c = c.getParent();
+    // Moving within the same hoverables doesn't change the hover state
+    if (hoverChainValid && hoverChainVersion == hoverStateVersion && isHoverChain(source))
+      return;
+
+    int version = hoverStateVersion;
+
+    hoverChain.clear();
+    exitables.clear();
+    enterables.clear();
+
+    for (int i = 0; i < enteredComponents.size(); i++)
+      exitables.add(enteredComponents.get(i));
+
+    Component c = source;
+    while (c != null) {
+      if (hoverableComponents.contains(c)) {
+        exitables.remove(c);
+        hoverChain.add(c);
+        enterables.add(c);
       }
+
+      c = c.getParent();
     }
 
-    if (enterables.size() > 0) {
-      Object obj[] = enterables.toArray();
-      for (int i = obj.length - 1; i >= 0; i--) {
-        if (!((Hoverable) obj[i]).acceptHover(enterables)) {
-          enterables.remove(obj[i]);
-          exitables.add(obj[i]);
-        }
+    for (int i = hoverChain.size() - 1; i >= 0; i--) {
+      Object hoverable = hoverChain.get(i);
+
+      if (!((Hoverable) hoverable).acceptHover(enterables)) {
+        enterables.remove(hoverable);
+        exitables.add(hoverable);
       }
     }
 
-    for (int i = exitables.size() - 1; i >= 0; i--) {
-      dispatchExit((Hoverable) exitables.get(i));
+    hoverChainValid = enabled;
+    hoverChainVersion = version;
+
+    try {
+      for (int i = exitables.size() - 1; i >= 0; i--) {
+        dispatchExit((Hoverable) exitables.get(i));
+      }
+
+      for (int i = enterables.size() - 1; i >= 0; i--) {
+        dispatchEnter((Hoverable) enterables.get(i));
+      }
+    } finally {
+      exitables.clear();
+      enterables.clear();
     }
+  }
+
+  private boolean isHoverChain(Component c) {
+    int index = 0;
 
-    for (int i = enterables.size() - 1; i >= 0; i--) {
-      dispatchEnter((Hoverable) enterables.get(i));
+    while (c != null) {
+      if (hoverableComponents.contains(c)) {
+        if (index == hoverChain.size() || hoverChain.get(index) != c)
+          return false;
+
+        index++;
+      }
+
+      c = c.getParent();
     }
+
+    return index == hoverChain.size();
+  }
+
+  private void invalidateHoverChain() {
+    hoverStateVersion++;
   }
 
   private void handleExitEvent(MouseEvent event) {
     gotEnterAfterExit = false;
 
-    SwingUtilities.invokeLater(new Runnable() {
-      public void run() {
-        if (!gotEnterAfterExit)
-          exitAll();
-      }
-    });
+    if (!exitCheckPending) {
+      exitCheckPending = true;
+      SwingUtilities.invokeLater(exitCheck);
+    }
   }
 
   public static HoverManager getInstance() {
@@ -200,6 +270,7 @@ public class HoverManager {
   }
 
   private void exitAll() {
+    invalidateHoverChain();
     gotEnterAfterExit = false;
     Object[] obj = enteredComponents.toArray();
     for (int i = obj.length - 1; i >= 0; i--) {
@@ -208,6 +279,7 @@ public class HoverManager {
   }
 
   public void init() {
+    invalidateHoverChain();
     gotEnterAfterExit = false;
     isDrag = false;
     enabled = true;
@@ -223,6 +295,7 @@ public class HoverManager {
 
   private void addHoverListeners(Hoverable hoverable) {
     if (hoverableComponents.add(hoverable)) {
+      invalidateHoverChain();
       Component c = (Component) hoverable;
       c.addMouseListener(mouseAdapter);
       c.addMouseMotionListener(mouseAdapter);
@@ -240,6 +313,7 @@ public class HoverManager {
 
   private void removeHoverListeners(Hoverable hoverable) {
     if (hoverableComponents.remove(hoverable)) {
+      invalidateHoverChain();
       ((Component) hoverable).removeMouseListener(mouseAdapter);
       ((Component) hoverable).removeMouseMotionListener(mouseAdapter);
       dispatchExit(hoverable);
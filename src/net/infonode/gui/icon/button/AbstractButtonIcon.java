@@ -28,11 +28,90 @@ import net.infonode.util.ColorUtil;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
 import java.io.Serializable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 
 public abstract class AbstractButtonIcon implements Icon, Serializable {
   private static final long serialVersionUID = 1;
 
+  private static final int MAX_RASTER_COUNT = 256;
+
+  /**
+   * The margin around the icon in the painted images, some icons paint slightly outside their size
+   */
+  private static final int RASTER_MARGIN = 2;
+
+  private static final AffineTransform IDENTITY_TRANSFORM = new AffineTransform();
+
+  /**
+   * The painted icons, shared by all icons of the same class, size and colors
+   */
+  private static final LinkedHashMap rasters = new LinkedHashMap(16, 0.75f, true);
+
+  private static final RasterKey lookupKey = new RasterKey();
+
+  private static class RasterKey {
+    private Class iconClass;
+    private Object iconKey;
+    private int size;
+    private int color;
+    private int shadowColor;
+    private boolean shadowEnabled;
+    private double scaleX;
+    private double scaleY;
+    private double phaseX;
+    private double phaseY;
+    private boolean antialiased;
+    private GraphicsConfiguration configuration;
+
+    private void set(RasterKey key) {
+      iconClass = key.iconClass;
+      iconKey = key.iconKey;
+      size = key.size;
+      color = key.color;
+      shadowColor = key.shadowColor;
+      shadowEnabled = key.shadowEnabled;
+      scaleX = key.scaleX;
+      scaleY = key.scaleY;
+      phaseX = key.phaseX;
+      phaseY = key.phaseY;
+      antialiased = key.antialiased;
+      configuration = key.configuration;
+    }
+
+    public int hashCode() {
+      int hash = (iconClass.hashCode() * 31 + size) * 31 + color;
+      hash = shadowEnabled ? hash * 31 + shadowColor : hash;
+      hash = iconKey == null ? hash : hash * 31 + iconKey.hashCode();
+      long transform = ((Double.doubleToLongBits(scaleX) * 31 + Double.doubleToLongBits(scaleY)) * 31 +
+                        Double.doubleToLongBits(phaseX)) * 31 + Double.doubleToLongBits(phaseY);
+      hash = hash * 31 + (int) (transform ^ (transform >>> 32));
+      return configuration == null ? hash : hash * 31 + configuration.hashCode();
+    }
+
+    public boolean equals(Object obj) {
+      if (!(obj instanceof RasterKey))
+        return false;
+
+      RasterKey key = (RasterKey) obj;
+      return key.iconClass == iconClass &&
+             (key.iconKey == null ? iconKey == null : key.iconKey.equals(iconKey)) &&
+             key.size == size &&
+             key.color == color &&
+             key.shadowEnabled == shadowEnabled &&
+             key.shadowColor == shadowColor &&
+             key.scaleX == scaleX &&
+             key.scaleY == scaleY &&
+             key.phaseX == phaseX &&
+             key.phaseY == phaseY &&
+             key.antialiased == antialiased &&
+             key.configuration == configuration;
+    }
+  }
+
   private int size = 10;
   private Color defaultColor = null;
   private boolean shadowEnabled = true;
@@ -86,16 +165,28 @@ public abstract class AbstractButtonIcon implements Icon, Serializable {
   }
 
   public void paintIcon(Component c, Graphics g, int x, int y) {
-    Color oldColor = g.getColor();
     Color color = defaultColor == null ?
                   (enabled ? c.getForeground() : UIManager.getColor("Button.disabledForeground")) :
                   defaultColor;
+    Color background = color == null || shadowEnabled ? ComponentUtil.getBackgroundColor(c) : null;
+
     if (color == null)
-      color = ColorUtil.blend(ComponentUtil.getBackgroundColor(c), c.getForeground(), 0.5f);
+      color = ColorUtil.blend(background, c.getForeground(), 0.5f);
+
+    Color shadowColor = shadowEnabled ?
+                        ColorUtil.blend(background == null ? Color.BLACK : background, Color.BLACK, shadowStrength) :
+                        null;
+    if (paintRaster(c, g, x, y, color, shadowColor))
+      return;
+
+    Color oldColor = g.getColor();
+    paintIcon(c, g, x, y, color, shadowColor);
+    g.setColor(oldColor);
+  }
 
+  private void paintIcon(Component c, Graphics g, int x, int y, Color color, Color shadowColor) {
     if (shadowEnabled) {
-      Color background = ComponentUtil.getBackgroundColor(c);
-      g.setColor(ColorUtil.blend(background == null ? Color.BLACK : background, Color.BLACK, shadowStrength));
+      g.setColor(shadowColor);
       paintIcon(c, g, x + 2, y + 2, x + size - 1, y + size - 1, true);
       g.setColor(color);
       paintIcon(c, g, x + 1, y + 1, x + size - 2, y + size - 2, false);
@@ -104,8 +195,122 @@ public abstract class AbstractButtonIcon implements Icon, Serializable {
       g.setColor(color);
       paintIcon(c, g, x, y, x + size - 1, y + size - 1, false);
     }
+  }
 
-    g.setColor(oldColor);
+  /**
+   * Returns true if this icon can be painted from an image shared by all icons of the same class, size, colors and
+   * {@link #getRasterKey() state}. This is only the case if the painting doesn't depend on any other instance state
+   * or on the component painted on. Returns false by default.
+   *
+   * @return true if this icon can be painted from a shared image
+   * @since IDW 1.7.0
+   */
+  protected boolean isRasterCacheable() {
+    return false;
+  }
+
+  /**
+   * Returns the state, besides size and colors, that the painting of this icon depends on. Icons of the same class
+   * and with the same size, colors and state share the same painted image if {@link #isRasterCacheable()} returns
+   * true. Returns null by default.
+   *
+   * @return the state, null if there is no other state
+   * @since IDW 1.7.0
+   */
+  protected Object getRasterKey() {
+    return null;
+  }
+
+  /**
+   * Paints the icon using an image painted with the same scale and sub pixel position. Returns false if the icon
+   * must be painted directly.
+   */
+  private boolean paintRaster(Component c, Graphics g, int x, int y, Color color, Color shadowColor) {
+    if (color == null || size <= 0 || !(g instanceof Graphics2D) || !isRasterCacheable())
+      return false;
+
+    Graphics2D g2 = (Graphics2D) g;
+    AffineTransform transform = g2.getTransform();
+
+    if ((transform.getType() & ~(AffineTransform.TYPE_TRANSLATION | AffineTransform.TYPE_MASK_SCALE)) != 0 ||
+        transform.getScaleX() <= 0 || transform.getScaleY() <= 0)
+      return false;
+
+    double deviceX = transform.getTranslateX() + (x - RASTER_MARGIN) * transform.getScaleX();
+    double deviceY = transform.getTranslateY() + (y - RASTER_MARGIN) * transform.getScaleY();
+    int imageX = (int) Math.floor(deviceX);
+    int imageY = (int) Math.floor(deviceY);
+    Image raster;
+
+    synchronized (rasters) {
+      lookupKey.iconClass = getClass();
+      lookupKey.iconKey = getRasterKey();
+      lookupKey.size = size;
+      lookupKey.color = color.getRGB();
+      lookupKey.shadowEnabled = shadowEnabled;
+      lookupKey.shadowColor = shadowColor == null ? 0 : shadowColor.getRGB();
+      lookupKey.scaleX = transform.getScaleX();
+      lookupKey.scaleY = transform.getScaleY();
+      lookupKey.phaseX = deviceX - imageX;
+      lookupKey.phaseY = deviceY - imageY;
+      lookupKey.antialiased = g2.getRenderingHint(RenderingHints.KEY_ANTIALIASING) ==
+                              RenderingHints.VALUE_ANTIALIAS_ON;
+      lookupKey.configuration = g2.getDeviceConfiguration();
+
+      raster = (Image) rasters.get(lookupKey);
+
+      if (raster == null) {
+        raster = createRaster(c, lookupKey, color, shadowColor);
+
+        RasterKey key = new RasterKey();
+        key.set(lookupKey);
+        rasters.put(key, raster);
+
+        if (rasters.size() > MAX_RASTER_COUNT) {
+          Iterator it = rasters.keySet().iterator();
+          it.next();
+          it.remove();
+        }
+      }
+
+      lookupKey.iconKey = null;
+      lookupKey.configuration = null;
+    }
+
+    if (transform.getType() == AffineTransform.TYPE_IDENTITY ||
+        (transform.getType() == AffineTransform.TYPE_TRANSLATION && deviceX == imageX && deviceY == imageY))
+      g.drawImage(raster, x - RASTER_MARGIN, y - RASTER_MARGIN, null);
+    else {
+      // The image has the resolution of the device, so it's drawn without scaling
+      g2.setTransform(IDENTITY_TRANSFORM);
+      g.drawImage(raster, imageX, imageY, null);
+      g2.setTransform(transform);
+    }
+
+    return true;
+  }
+
+  private Image createRaster(Component c, RasterKey key, Color color, Color shadowColor) {
+    int width = (int) Math.ceil((size + 2 * RASTER_MARGIN) * key.scaleX + key.phaseX);
+    int height = (int) Math.ceil((size + 2 * RASTER_MARGIN) * key.scaleY + key.phaseY);
+    BufferedImage image = key.configuration == null ?
+                          new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB) :
+                          key.configuration.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+    Graphics2D g = image.createGraphics();
+
+    try {
+      if (key.antialiased)
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+      g.translate(key.phaseX, key.phaseY);
+      g.scale(key.scaleX, key.scaleY);
+      paintIcon(c, g, RASTER_MARGIN, RASTER_MARGIN, color, shadowColor);
+    }
+    finally {
+      g.dispose();
+    }
+
+    return image;
   }
 
   protected void paintIcon(Component c, Graphics g, int x1, int y1, int x2, int y2, boolean isShadow) {
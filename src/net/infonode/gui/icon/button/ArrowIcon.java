@@ -57,6 +57,14 @@ public class ArrowIcon extends AbstractButtonIcon {
     return direction;
   }
 
+  protected Object getRasterKey() {
+    return direction;
+  }
+
+  protected boolean isRasterCacheable() {
+    return getClass() == ArrowIcon.class;
+  }
+
   protected void paintIcon(Component c, Graphics g, int x1, int y1, int x2, int y2) {
     int size = (x2 - x1 + 1) + ((x2 - x1 + 1) % 2) - 1;
     int offset = (direction.isHorizontal() ? x1 : y1) +
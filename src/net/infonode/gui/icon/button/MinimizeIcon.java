@@ -50,6 +50,10 @@ public class MinimizeIcon extends AbstractButtonIcon {
     super(size);
   }
 
+  protected boolean isRasterCacheable() {
+    return getClass() == MinimizeIcon.class;
+  }
+
   protected void paintIcon(Component c, Graphics g, int x1, int y1, int x2, int y2) {
     GraphicsUtil.drawOptimizedLine(g, x1, y2 - 1, x2, y2 - 1);
     GraphicsUtil.drawOptimizedLine(g, x1, y2, x2, y2);
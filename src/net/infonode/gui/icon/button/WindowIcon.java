@@ -45,6 +45,10 @@ public class WindowIcon extends AbstractButtonIcon {
     super(size);
   }
 
+  protected boolean isRasterCacheable() {
+    return getClass() == WindowIcon.class;
+  }
+
   protected void paintIcon(Component c, Graphics g, int x1, int y1, int x2, int y2, boolean isShadow) {
     g.fillRect(x1, y1, x2 - x1 + 1, y2 - y1 + 1);
 
@@ -118,7 +118,7 @@ public class DirectionLayout implements LayoutManager2 {
   }
 
   private void setSize(Component component, int size, int otherSize) {
-    int maxOtherSize = getOtherSize(component.getMaximumSize());
+    int maxOtherSize = getOtherSize(getComponentMaximumSize(component));
     component.setSize(createSize(size, Math.min(maxOtherSize, otherSize)));
   }
 
@@ -156,7 +156,7 @@ public class DirectionLayout implements LayoutManager2 {
 
       for (int i = 0; i < components.length; i++) {
         if (!discarded[i]) {
-          int prefSize = getSize(components[i].getPreferredSize());
+          int prefSize = getSize(getComponentPreferredSize(components[i]));
 
           if (prefSize <= maxComponentSize) {
             setSize(components[i], prefSize, otherSize);
@@ -180,7 +180,7 @@ public class DirectionLayout implements LayoutManager2 {
         // Now fit all that have a larger minimum componentsTotalSize
         for (int i = 0; i < components.length; i++) {
           if (!discarded[i]) {
-            int minSize = getSize(components[i].getMinimumSize());
+            int minSize = getSize(getComponentMinimumSize(components[i]));
 
             if (minSize >= maxComponentSize) {
               setSize(components[i], minSize, otherSize);
@@ -211,7 +211,7 @@ public class DirectionLayout implements LayoutManager2 {
       pos += getBeforeSpacing(getInsets(components[i]));
 
       if (!discarded[i]) {
-        int componentSize = Math.max(getSize(components[i].getMinimumSize()), componentsTotalSize / count);
+        int componentSize = Math.max(getSize(getComponentMinimumSize(components[i])), componentsTotalSize / count);
         setSize(components[i], componentSize, otherSize);
         count--;
         componentsTotalSize -= componentSize;
@@ -264,6 +264,39 @@ public class DirectionLayout implements LayoutManager2 {
     return LayoutUtil.getVisibleChildren(parent);
   }
 
+  /**
+   * Returns the minimum size of a laid out component. Subclasses can override this to provide sizes from a cache.
+   *
+   * @param component the component
+   * @return the minimum size of the component
+   * @since IDW 1.7.0
+   */
+  protected Dimension getComponentMinimumSize(Component component) {
+    return component.getMinimumSize();
+  }
+
+  /**
+   * Returns the preferred size of a laid out component. Subclasses can override this to provide sizes from a cache.
+   *
+   * @param component the component
+   * @return the preferred size of the component
+   * @since IDW 1.7.0
+   */
+  protected Dimension getComponentPreferredSize(Component component) {
+    return component.getPreferredSize();
+  }
+
+  /**
+   * Returns the maximum size of a laid out component. Subclasses can override this to provide sizes from a cache.
+   *
+   * @param component the component
+   * @return the maximum size of the component
+   * @since IDW 1.7.0
+   */
+  protected Dimension getComponentMaximumSize(Component component) {
+    return component.getMaximumSize();
+  }
+
   private int getSpacing(Component component, boolean isLast) {
     Insets insets = getInsets(component);
     return insets.left + insets.right + (isLast ? 0 : componentSpacing);
@@ -280,8 +313,9 @@ public class DirectionLayout implements LayoutManager2 {
     int maxHeight = 0;
 
     for (int i = 0; i < c.length; i++) {
-      size += getSize(c[i].getMinimumSize()) + getSpacing(c[i], i == c.length - 1);
-      maxHeight = Math.max(getOtherSize(c[i].getMinimumSize()), maxHeight);
+      Dimension minimumSize = getComponentMinimumSize(c[i]);
+      size += getSize(minimumSize) + getSpacing(c[i], i == c.length - 1);
+      maxHeight = Math.max(getOtherSize(minimumSize), maxHeight);
     }
 
     Dimension d = getSize(isVertical() ? new Dimension(maxHeight, size) : new Dimension(size, maxHeight), parent);
@@ -295,10 +329,12 @@ public class DirectionLayout implements LayoutManager2 {
     int maxHeight = 0;
 
     for (int i = 0; i < c.length; i++) {
+      Dimension preferredSize = getComponentPreferredSize(c[i]);
+
       if (!compressing)
-        size += getSize(c[i].getPreferredSize()) + getSpacing(c[i], i == c.length - 1);
+        size += getSize(preferredSize) + getSpacing(c[i], i == c.length - 1);
 
-      maxHeight = Math.max(getOtherSize(c[i].getPreferredSize()), maxHeight);
+      maxHeight = Math.max(getOtherSize(preferredSize), maxHeight);
     }
 
     Dimension d = getSize(isVertical() ? new Dimension(maxHeight, size) : new Dimension(size, maxHeight), parent);
@@ -336,7 +372,7 @@ public class DirectionLayout implements LayoutManager2 {
     int maxHeight = Integer.MAX_VALUE;
 
     for (int i = 0; i < c.length; i++) {
-      size += getSize(c[i].getMaximumSize()) + getSpacing(c[i], i == c.length - 1);
+      size += getSize(getComponentMaximumSize(c[i])) + getSpacing(c[i], i == c.length - 1);
 //      maxHeight = Math.min(getOtherSize(c[i].getMaximumSize()), maxHeight);
     }
 
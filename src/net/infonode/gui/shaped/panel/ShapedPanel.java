@@ -64,6 +64,9 @@ public class ShapedPanel extends BaseContainer implements BackgroundPainter {
   private ComponentPainter painter;
   private ShapedBorder shapedBorder;
   private Insets shapedInsets;
+  private Shape shape;
+  private Rectangle shapeBounds;
+  private boolean shapeValid;
 
   public ShapedPanel() {
     super();
@@ -88,13 +91,31 @@ public class ShapedPanel extends BaseContainer implements BackgroundPainter {
     add(component, BorderLayout.CENTER);
   }
 
+  /**
+   * Gets the shape of the {@link ShapedBorder} of this panel. The shape is cached until the panel is resized,
+   * invalidated or repainted, or the border, direction or flip is changed, and must not be modified.
+   *
+   * @return the shape, null if the panel has no {@link ShapedBorder} or the border has no shape
+   */
   public Shape getShape() {
-    ShapedBorder b = getShapedBorder();
-    return b == null ? null : b.getShape(this,
-                                         shapedInsets.left,
-                                         shapedInsets.top,
-                                         getWidth() - shapedInsets.left - shapedInsets.right,
-                                         getHeight() - shapedInsets.top - shapedInsets.bottom);
+    if (!shapeValid) {
+      ShapedBorder b = getShapedBorder();
+      shape = b == null ? null : b.getShape(this,
+                                            shapedInsets.left,
+                                            shapedInsets.top,
+                                            getWidth() - shapedInsets.left - shapedInsets.right,
+                                            getHeight() - shapedInsets.top - shapedInsets.bottom);
+      shapeBounds = shape == null ? null : shape.getBounds();
+      shapeValid = true;
+    }
+
+    return shape;
+  }
+
+  private void invalidateShape() {
+    shapeValid = false;
+    shape = null;
+    shapeBounds = null;
   }
 
   public ComponentPainter getComponentPainter() {
@@ -120,6 +141,7 @@ public class ShapedPanel extends BaseContainer implements BackgroundPainter {
   public void setHorizontalFlip(boolean horizontalFlip) {
     if (this.horizontalFlip != horizontalFlip) {
       this.horizontalFlip = horizontalFlip;
+      invalidateShape();
       revalidate();
     }
   }
@@ -131,6 +153,7 @@ public class ShapedPanel extends BaseContainer implements BackgroundPainter {
   public void setVerticalFlip(boolean verticalFlip) {
     if (this.verticalFlip != verticalFlip) {
       this.verticalFlip = verticalFlip;
+      invalidateShape();
       revalidate();
     }
   }
@@ -138,6 +161,7 @@ public class ShapedPanel extends BaseContainer implements BackgroundPainter {
   public void setDirection(Direction direction) {
     if (this.direction != direction) {
       this.direction = direction;
+      invalidateShape();
       revalidate();
 
       repaint();
@@ -160,6 +184,19 @@ public class ShapedPanel extends BaseContainer implements BackgroundPainter {
     super.setBorder(border);
     shapedBorder = null;
     findShapedBorder(getBorder(), new Insets(0, 0, 0, 0));
+    invalidateShape();
+  }
+
+  public void setBounds(int x, int y, int width, int height) {
+    if (width != getWidth() || height != getHeight())
+      invalidateShape();
+
+    super.setBounds(x, y, width, height);
+  }
+
+  public void invalidate() {
+    invalidateShape();
+    super.invalidate();
   }
 
   protected void paintChildren(Graphics g) {
@@ -186,6 +223,9 @@ public class ShapedPanel extends BaseContainer implements BackgroundPainter {
   }
 
   protected void paintComponent(Graphics g) {
+    // The shape can depend on the context of the panel, for example the position of a tab, so it's recreated once
+    // for every paint
+    invalidateShape();
     super.paintComponent(g);
 
     if (painter != null) {
@@ -211,7 +251,7 @@ public class ShapedPanel extends BaseContainer implements BackgroundPainter {
       return false;
 
     Shape shape = getShape();
-    return shape == null ? super.contains(x, y) : shape.contains(x, y);
+    return shape == null ? super.contains(x, y) : shapeBounds.contains(x, y) && shape.contains(x, y);
   }
 
   public boolean inside(int x, int y) {
@@ -219,7 +259,7 @@ public class ShapedPanel extends BaseContainer implements BackgroundPainter {
       return false;
 
     Shape shape = getShape();
-    return shape == null ? super.inside(x, y) : shape.contains(x, y);
+    return shape == null ? super.inside(x, y) : shapeBounds.contains(x, y) && shape.contains(x, y);
   }
 
   private boolean findShapedBorder(Border border, Insets i) {
@@ -23,7 +23,11 @@
 // $Id: PropertyGroup.java,v 1.6 2004/09/22 14:32:50 jesper Exp $
 package net.infonode.properties.base;
 
+import net.infonode.properties.util.AbstractProperty;
+
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 
 /**
  * A group of properties. The group have a name and a description. It can also have a super group from which it inherit
@@ -34,10 +38,18 @@ import java.util.ArrayList;
  * @version $Revision: 1.6 $
  */
 public class PropertyGroup {
+  // Incremented when a property is added to any group, invalidates the cached super group property counts
+  private static int structureVersion;
+
   private PropertyGroup superGroup;
   private String name;
   private String description;
   private ArrayList properties = new ArrayList(10);
+  private HashMap propertyNames = new HashMap(16);
+  // Ordinals of properties that aren't an AbstractProperty, which stores its ordinal itself
+  private IdentityHashMap ordinals;
+  private int superPropertyCount;
+  private int superPropertyCountVersion = -1;
 
   /**
    * Creates a property group.
@@ -96,7 +108,18 @@ public class PropertyGroup {
    * @param property the property to add
    */
   public void addProperty(Property property) {
+    if (!(property instanceof AbstractProperty) || property.getGroup() != this) {
+      if (ordinals == null)
+        ordinals = new IdentityHashMap(16);
+
+      ordinals.put(property, Integer.valueOf(properties.size()));
+    }
+
     properties.add(property);
+    structureVersion++;
+
+    if (!propertyNames.containsKey(property.getName()))
+      propertyNames.put(property.getName(), property);
   }
 
   /**
@@ -152,12 +175,79 @@ public class PropertyGroup {
    * @return the property with the given name, null if no property was found
    */
   public Property getProperty(String name) {
-    for (int i = 0; i < getPropertyCount(); i++) {
-      if (getProperty(i).getName().equals(name))
-        return getProperty(i);
+    Property property = (Property) propertyNames.get(name);
+    return property != null || superGroup == null ? property : superGroup.getProperty(name);
+  }
+
+  /**
+   * Returns the number of properties in this group and all its super groups.
+   *
+   * @return the number of properties in this group and all its super groups
+   * @since IDW 1.7.0
+   */
+  public int getTotalPropertyCount() {
+    return getSuperPropertyCount() + properties.size();
+  }
+
+  /**
+   * Returns the index of a property among the properties in this group and all its super groups. The properties
+   * of a super group have lower indices than the properties of this group. The index of a property is stable as
+   * long as no properties are added to the super groups, which makes it suitable for array based storage of
+   * property values.
+   *
+   * @param property the property
+   * @return the index of the property, -1 if the property is not found in this group or one of its super groups
+   * @since IDW 1.7.0
+   */
+  public int getPropertyIndex(Property property) {
+    PropertyGroup group = property.getGroup();
+
+    if (group != this && !isSuperGroup(group))
+      return -1;
+
+    int ordinal = group.getOrdinal(property);
+    return ordinal < 0 ? -1 : group.getSuperPropertyCount() + ordinal;
+  }
+
+  private int getOrdinal(Property property) {
+    if (property instanceof AbstractProperty)
+      return ((AbstractProperty) property).getOrdinal();
+
+    Integer ordinal = ordinals == null ? null : (Integer) ordinals.get(property);
+    return ordinal == null ? -1 : ordinal.intValue();
+  }
+
+  private boolean isSuperGroup(PropertyGroup group) {
+    for (PropertyGroup g = superGroup; g != null; g = g.superGroup) {
+      if (g == group)
+        return true;
+    }
+
+    return false;
+  }
+
+  /**
+   * Returns the property with an index as returned by {@link #getPropertyIndex(Property)}.
+   *
+   * @param index the property index
+   * @return the property with the index
+   * @since IDW 1.7.0
+   */
+  public Property getPropertyByIndex(int index) {
+    int superCount = getSuperPropertyCount();
+    return index < superCount ? superGroup.getPropertyByIndex(index) : getProperty(index - superCount);
+  }
+
+  private int getSuperPropertyCount() {
+    if (superGroup == null)
+      return 0;
+
+    if (superPropertyCountVersion != structureVersion) {
+      superPropertyCount = superGroup.getTotalPropertyCount();
+      superPropertyCountVersion = structureVersion;
     }
 
-    return superGroup == null ? null : superGroup.getProperty(name);
+    return superPropertyCount;
   }
 
   /**
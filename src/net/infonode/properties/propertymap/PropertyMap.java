@@ -258,4 +258,24 @@ public interface PropertyMap extends Readable, Writable {
    * @since IDW 1.3.0
    */
   PropertyMap copy(boolean copySuperMapRefs, boolean recursive);
+
+  /**
+   * Enables or disables the value cache of this map. When the cache is enabled a resolved property value, including
+   * inherited values, default values and references, is stored in the map the first time it's read and returned
+   * from the cache until the value is modified in this map, a super map, a referenced map or a default map.
+   * Enabling the cache makes this map listen for value changes in its super maps.
+   *
+   * @param enabled   true if the value cache should be enabled
+   * @param recursive true if the cache should be enabled or disabled in all child maps as well
+   * @since IDW 1.7.0
+   */
+  void setValueCacheEnabled(boolean enabled, boolean recursive);
+
+  /**
+   * Returns true if the value cache of this map is enabled.
+   *
+   * @return true if the value cache of this map is enabled
+   * @since IDW 1.7.0
+   */
+  boolean isValueCacheEnabled();
 }
@@ -68,4 +68,8 @@ public class PropertyMapGroup extends PropertyGroup {
 
     return defaultMap;
   }
+
+  boolean isDefaultMap(PropertyMapImpl map) {
+    return defaultMap == map;
+  }
 }
@@ -50,6 +50,7 @@ import net.infonode.util.signal.SignalListener;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.lang.ref.WeakReference;
 import java.util.*;
 
 /**
@@ -59,6 +60,56 @@ import java.util.*;
 public class PropertyMapImpl implements PropertyMap {
   private static final int SERIALIZE_VERSION = 1;
 
+  /**
+   * Stored in the value cache for properties without a value.
+   */
+  private static final Object NULL_VALUE = new Object();
+
+  /**
+   * Incremented when a value in a default map is modified, invalidates all value caches.
+   */
+  private static int defaultValuesVersion;
+
+  /**
+   * Set when a value cache has been enabled in any map. Until then no cache needs to be invalidated.
+   */
+  private static boolean valueCacheUsed;
+
+  /**
+   * A cached value in a map that depends on a value in another map through a reference. The map is weakly
+   * referenced so that the dependency doesn't keep it alive.
+   */
+  private static class ValueCacheDependent extends WeakReference {
+    private final Property property;
+    private final int hash;
+
+    ValueCacheDependent(PropertyMapImpl map, Property property) {
+      super(map);
+      this.property = property;
+      hash = System.identityHashCode(map) * 31 + System.identityHashCode(property);
+    }
+
+    PropertyMapImpl getMap() {
+      return (PropertyMapImpl) get();
+    }
+
+    public boolean equals(Object obj) {
+      if (obj == this)
+        return true;
+
+      if (!(obj instanceof ValueCacheDependent))
+        return false;
+
+      Object map = get();
+      return map != null && ((ValueCacheDependent) obj).get() == map &&
+             ((ValueCacheDependent) obj).property == property;
+    }
+
+    public int hashCode() {
+      return hash;
+    }
+  }
+
   private class PropertyObjectMap extends AbstractConstChangeNotifyMap implements SignalListener {
     private boolean listenerActive;
 
@@ -207,6 +258,7 @@ public class PropertyMapImpl implements PropertyMap {
     }
 
     protected void fireEntriesChanged(ConstMap changes) {
+      invalidateCachedValues(changes);
       super.fireEntriesChanged(changes);
     }
   }
@@ -215,12 +267,16 @@ public class PropertyMapImpl implements PropertyMap {
   private PropertyMapImpl parent;
   private PropertyMapProperty property;
 
-  private ChangeNotifyMapWrapper values = new ChangeNotifyMapWrapper(new MapAdapter());
+  private PropertyValueStore valueStore;
+  private ChangeNotifyMapWrapper values;
   private ConstChangeNotifyVectorMap superMap = new ConstChangeNotifyVectorMap();
   private ConstVectorMap vectorMap = new ConstVectorMap();
   private PropertyObjectMap map = new PropertyObjectMap();
 
   private ArrayList superMaps = new ArrayList(1);
+  /**
+   * Child maps are created when they are first accessed.
+   */
   private MapAdapter childMaps = new MapAdapter();
 
   private HashMap propertyChangeListeners;
@@ -229,6 +285,13 @@ public class PropertyMapImpl implements PropertyMap {
 
   private SignalListener mapListener;
 
+  private Object[] valueCache;
+  private int valueCacheVersion;
+  private boolean childValueCacheEnabled;
+  private HashMap valueCacheDependents;
+  private int valueCacheDependentCount;
+  private int valueCacheDependentPurgeCount;
+
   public PropertyMapImpl(PropertyMapGroup propertyGroup) {
     this(propertyGroup, null);
   }
@@ -240,8 +303,11 @@ public class PropertyMapImpl implements PropertyMap {
   public PropertyMapImpl(PropertyMapGroup propertyGroup, PropertyMapImpl superObject) {
     this(propertyGroup, null, null);
 
-    if (superObject != null)
-      addSuperMap(superObject);
+    // A new map has no listeners or child maps, so nothing is notified when the super map is added
+    if (superObject != null) {
+      superMap.addMap(superObject.map);
+      superMaps.add(superObject);
+    }
   }
 
   public PropertyMapImpl(PropertyMapImpl parent, PropertyMapProperty property) {
@@ -252,39 +318,42 @@ public class PropertyMapImpl implements PropertyMap {
     this.parent = parent;
     this.property = property;
     this.propertyGroup = propertyGroup;
-
-    Property[] properties = this.propertyGroup.getProperties();
-
-    for (int i = 0; i < properties.length; i++) {
-      if (properties[i] instanceof PropertyMapProperty) {
-        PropertyMapProperty p = (PropertyMapProperty) properties[i];
-        PropertyMapImpl propertyObject = new PropertyMapImpl(this, p);
-        childMaps.put(p, propertyObject);
-      }
-    }
+    valueStore = new PropertyValueStore(propertyGroup);
+    values = new ChangeNotifyMapWrapper(valueStore);
 
     vectorMap.addMap(values);
     vectorMap.addMap(superMap);
   }
 
-  private boolean hasTreeListener() {
-    return (treeListeners != null && treeListeners.size() > 0) || (parent != null && parent.hasTreeListener());
+  boolean hasTreeListener() {
+    return hasOwnTreeListeners() || (parent != null && parent.hasTreeListener());
   }
 
-  private boolean hasListener() {
-    return hasTreeListener() ||
-           (listeners != null && listeners.size() > 0) ||
+  boolean hasOwnTreeListeners() {
+    return treeListeners != null && treeListeners.size() > 0;
+  }
+
+  boolean hasValueListeners() {
+    return (listeners != null && listeners.size() > 0) ||
            (propertyChangeListeners != null && propertyChangeListeners.size() > 0);
   }
 
+  private boolean hasListener() {
+    return valueCache != null || valueCacheDependents != null || hasTreeListener() || hasValueListeners();
+  }
+
   private void updateListenerRecursive() {
     updateListener();
 
+    // Child maps that haven't been created have never been read, they start listening when they are created
     for (ConstMapIterator iterator = childMaps.constIterator(); iterator.atEntry(); iterator.next())
       ((PropertyMapImpl) iterator.getValue()).updateListenerRecursive();
   }
 
   private void updateListener() {
+    // A map that only listens to keep its value cache up to date must not be kept alive by its super maps
+    superMap.setWeakMapListeners(!hasTreeListener() && !hasValueListeners());
+
     if (hasListener()) {
       if (mapListener == null) {
         mapListener = new SignalListener() {
@@ -449,11 +518,14 @@ public class PropertyMapImpl implements PropertyMap {
     PropertyMapManager.getInstance().beginBatch();
 
     try {
-      superMap.removeMap(index);
+      checkDefaultMapModified();
+      PropertyMapImpl[] children = getCreatedChildMaps();
       superMaps.remove(index);
+      superMap.removeMap(index);
 
-      for (ConstMapIterator iterator = childMaps.constIterator(); iterator.atEntry(); iterator.next()) {
-        ((PropertyMapImpl) iterator.getValue()).removeParentSuperMap(index);
+      // Child maps created by the change notifications already have the new super maps
+      for (int i = 0; i < children.length; i++) {
+        children[i].removeParentSuperMap(index);
       }
     }
     finally {
@@ -473,12 +545,14 @@ public class PropertyMapImpl implements PropertyMap {
     PropertyMapManager.getInstance().beginBatch();
 
     try {
-      superMap.addMap(index, propertyObjectImpl.map);
+      checkDefaultMapModified();
+      PropertyMapImpl[] children = getCreatedChildMaps();
       superMaps.add(index, propertyObjectImpl);
+      superMap.addMap(index, propertyObjectImpl.map);
 
-      for (ConstMapIterator iterator = childMaps.constIterator(); iterator.atEntry(); iterator.next()) {
-        ((PropertyMapImpl) iterator.getValue()).addParentSuperMap(
-            propertyObjectImpl.getChildMapImpl((PropertyMapProperty) iterator.getKey()), index);
+      // Child maps created by the change notifications already have the new super maps
+      for (int i = 0; i < children.length; i++) {
+        children[i].addParentSuperMap(propertyObjectImpl.getChildMapImpl(children[i].property), index);
       }
     }
     finally {
@@ -528,6 +602,128 @@ public class PropertyMapImpl implements PropertyMap {
     return propertyGroup;
   }
 
+  public void setValueCacheEnabled(boolean enabled, boolean recursive) {
+    if (enabled != (valueCache != null)) {
+      if (!enabled)
+        invalidateValueCacheDependents();
+
+      valueCache = enabled ? new Object[propertyGroup.getTotalPropertyCount()] : null;
+      valueCacheVersion = defaultValuesVersion;
+      valueCacheUsed |= enabled;
+      updateListener();
+    }
+
+    if (recursive) {
+      childValueCacheEnabled = enabled;
+
+      for (ConstMapIterator iterator = childMaps.constIterator(); iterator.atEntry(); iterator.next())
+        ((PropertyMapImpl) iterator.getValue()).setValueCacheEnabled(enabled, recursive);
+    }
+  }
+
+  public boolean isValueCacheEnabled() {
+    return valueCache != null;
+  }
+
+  private void invalidateCachedValues(ConstMap changes) {
+    if (valueCache != null) {
+      for (ConstMapIterator iterator = changes.constIterator(); iterator.atEntry(); iterator.next())
+        invalidateCachedValue(iterator.getKey());
+    }
+
+    checkDefaultMapModified();
+  }
+
+  private void invalidateCachedValue(Object property) {
+    if (valueCache != null) {
+      int index = propertyGroup.getPropertyIndex((Property) property);
+
+      if (index >= 0 && index < valueCache.length)
+        valueCache[index] = null;
+    }
+
+    if (valueCacheDependents != null) {
+      HashSet dependents = (HashSet) valueCacheDependents.remove(property);
+
+      if (dependents != null) {
+        for (Iterator iterator = dependents.iterator(); iterator.hasNext();) {
+          ValueCacheDependent dependent = (ValueCacheDependent) iterator.next();
+          PropertyMapImpl map = dependent.getMap();
+
+          if (map != null)
+            map.invalidateCachedValue(dependent.property);
+        }
+      }
+    }
+  }
+
+  private void invalidateValueCacheDependents() {
+    if (valueCacheDependents != null) {
+      Object[] properties = valueCacheDependents.keySet().toArray();
+
+      for (int i = 0; i < properties.length; i++)
+        invalidateCachedValue(properties[i]);
+
+      valueCacheDependents = null;
+      valueCacheDependentCount = 0;
+    }
+  }
+
+  private void addValueCacheDependent(Property property, PropertyMapImpl map, Property mapProperty) {
+    if (valueCacheDependents == null) {
+      valueCacheDependents = new HashMap(4);
+      updateListener();
+    }
+
+    HashSet dependents = (HashSet) valueCacheDependents.get(property);
+
+    if (dependents == null) {
+      dependents = new HashSet(4);
+      valueCacheDependents.put(property, dependents);
+    }
+
+    if (dependents.add(new ValueCacheDependent(map, mapProperty)) &&
+        ++valueCacheDependentCount > valueCacheDependentPurgeCount)
+      purgeValueCacheDependents();
+  }
+
+  /**
+   * Removes the dependents whose maps have been garbage collected. Called when the number of dependents has doubled
+   * since the last purge.
+   */
+  private void purgeValueCacheDependents() {
+    valueCacheDependentCount = 0;
+
+    for (Iterator iterator = valueCacheDependents.values().iterator(); iterator.hasNext();) {
+      HashSet dependents = (HashSet) iterator.next();
+
+      for (Iterator it = dependents.iterator(); it.hasNext();) {
+        if (((ValueCacheDependent) it.next()).get() == null)
+          it.remove();
+      }
+
+      if (dependents.isEmpty())
+        iterator.remove();
+      else
+        valueCacheDependentCount += dependents.size();
+    }
+
+    valueCacheDependentPurgeCount = Math.max(16, valueCacheDependentCount * 2);
+  }
+
+  private void checkDefaultMapModified() {
+    if (!valueCacheUsed)
+      return;
+
+    PropertyMapImpl root = this;
+
+    while (root.parent != null)
+      root = root.parent;
+
+    if (root.propertyGroup.isDefaultMap(root))
+      defaultValuesVersion++;
+  }
+
   public void addPropertyChangeListener(Property property, PropertyChangeListener listener) {
     if (propertyChangeListeners == null)
       propertyChangeListeners = new HashMap(4);
@@ -583,7 +779,45 @@ public class PropertyMapImpl implements PropertyMap {
 
   public PropertyMapImpl getChildMapImpl(PropertyMapProperty property) {
     checkProperty(property);
-    return (PropertyMapImpl) childMaps.get(property);
+    PropertyMapImpl childMap = (PropertyMapImpl) childMaps.get(property);
+    return childMap == null && property.getGroup() == propertyGroup ? createChildMap(property) : childMap;
+  }
+
+  private PropertyMapImpl createChildMap(PropertyMapProperty property) {
+    PropertyMapImpl childMap = new PropertyMapImpl(this, property);
+    childMaps.put(property, childMap);
+    PropertyMapManager.getInstance().childMapCreated();
+
+    for (int i = 0; i < superMaps.size(); i++) {
+      PropertyMapImpl superChildMap = ((PropertyMapImpl) superMaps.get(i)).getChildMapImpl(property);
+      childMap.superMap.addMap(superChildMap.map);
+      childMap.superMaps.add(superChildMap);
+    }
+
+    if (childValueCacheEnabled)
+      childMap.setValueCacheEnabled(true, true);
+
+    childMap.updateListenerRecursive();
+    return childMap;
+  }
+
+  private PropertyMapImpl[] getCreatedChildMaps() {
+    PropertyMapImpl[] children = new PropertyMapImpl[childMaps.size()];
+    int i = 0;
+
+    for (ConstMapIterator iterator = childMaps.constIterator(); iterator.atEntry(); iterator.next())
+      children[i++] = (PropertyMapImpl) iterator.getValue();
+
+    return children;
+  }
+
+  private void createChildMaps() {
+    Property[] properties = propertyGroup.getProperties();
+
+    for (int i = 0; i < properties.length; i++) {
+      if (properties[i] instanceof PropertyMapProperty && childMaps.get(properties[i]) == null)
+        createChildMap((PropertyMapProperty) properties[i]);
+    }
   }
 
   private PropertyValue getParentDefaultValue(PropertyPath path) {
@@ -591,6 +825,73 @@ public class PropertyMapImpl implements PropertyMap {
     return value == null ? ((PropertyMapImpl) propertyGroup.getDefaultMap()).getValue(path) : value;
   }
 
+  /**
+   * Returns the value of a property in this map, including values inherited from super maps and default values,
+   * with references resolved. If the value cache is enabled the value is returned from the cache when possible.
+   * A cached value that is resolved through references is invalidated when a referenced value changes. The value
+   * cache is only used in referenced maps that have it enabled themselves.
+   *
+   * @param property the property
+   * @return the resolved value, null if the property has no value
+   */
+  public Object getResolvedValue(Property property) {
+    if (valueCache == null) {
+      PropertyValue value = getValueWithDefault(property);
+      return value == null ? null : value.getWithDefault(this);
+    }
+
+    if (valueCacheVersion != defaultValuesVersion) {
+      Arrays.fill(valueCache, null);
+      valueCacheVersion = defaultValuesVersion;
+    }
+
+    int index = propertyGroup.getPropertyIndex(property);
+
+    if (index >= valueCache.length) {
+      Object[] newCache = new Object[Math.max(propertyGroup.getTotalPropertyCount(), index + 1)];
+      System.arraycopy(valueCache, 0, newCache, 0, valueCache.length);
+      valueCache = newCache;
+    }
+
+    Object value = index < 0 ? null : valueCache[index];
+
+    if (value != null) {
+      PropertyMapManager.getInstance().valueCacheHit();
+      return value == NULL_VALUE ? null : value;
+    }
+
+    PropertyMapManager.getInstance().valueCacheMiss();
+    PropertyMapImpl valueMap = this;
+    PropertyValue propertyValue = getValueWithDefault(property);
+
+    // References in default maps are not listened to, so track the dependency on each referenced value
+    while (propertyValue instanceof PropertyRefValue) {
+      PropertyRefValue refValue = (PropertyRefValue) propertyValue;
+      PropertyMapImpl referencedMap = refValue.getReferencedMap(valueMap);
+
+      if (referencedMap == null)
+        return propertyValue.getWithDefault(valueMap);
+
+      referencedMap.addValueCacheDependent(refValue.getReferencedProperty(), this, property);
+
+      if (referencedMap.valueCache != null) {
+        value = referencedMap.getResolvedValue(refValue.getReferencedProperty());
+        break;
+      }
+
+      valueMap = referencedMap;
+      propertyValue = referencedMap.getValueWithDefault(refValue.getReferencedProperty());
+    }
+
+    if (!(propertyValue instanceof PropertyRefValue))
+      value = propertyValue == null ? null : propertyValue.getWithDefault(valueMap);
+
+    if (index >= 0)
+      valueCache[index] = value == null ? NULL_VALUE : value;
+
+    return value;
+  }
+
   public PropertyValue getValueWithDefault(Property property) {
     PropertyValue value = getValue(property);
     return value == null ? getParentDefaultValue(new PropertyPath(property)) : value;
@@ -639,8 +940,7 @@ public class PropertyMapImpl implements PropertyMap {
   }
 
   public boolean valueIsSet(Property property) {
-    PropertyValue value = (PropertyValue) values.get(property);
-    return value != null && value.getParent() == null;
+    return valueStore.isSet(property);
   }
 
   public void firePropertyValueChanged(Property property, ValueChange change) {
@@ -778,19 +1078,23 @@ public class PropertyMapImpl implements PropertyMap {
     return true;
   }
 
-  private void doRead(ObjectInputStream in) throws IOException {
+  private void doRead(ObjectInputStream in, boolean notify) throws IOException {
     while (in.readBoolean()) {
       String propertyName = in.readUTF();
       Property property = getPropertyGroup().getProperty(propertyName);
       PropertyValue value = ValueDecoder.decode(in, this, property);
 
-      if (property != null && value != null)
-        setValue(property, value);
+      if (property != null && value != null) {
+        if (notify)
+          setValue(property, value);
+        else
+          internalSetValue(property, value);
+      }
     }
 
     while (in.readBoolean()) {
       PropertyMapProperty property = (PropertyMapProperty) getPropertyGroup().getProperty(in.readUTF());
-      getChildMapImpl(property).doRead(in);
+      getChildMapImpl(property).doRead(in, notify);
     }
   }
 
@@ -832,24 +1136,59 @@ public class PropertyMapImpl implements PropertyMap {
     PropertyMapManager.getInstance().beginBatch();
 
     try {
-      int version = in.readInt();
-
-      if (version > SERIALIZE_VERSION)
-        throw new IOException("Can't read object because serialized version is newer than current version!");
-
-      doRead(in);
+      readVersion(in);
+      doRead(in, true);
     }
     finally {
       PropertyMapManager.getInstance().endBatch();
     }
   }
 
-  public static void skip(ObjectInputStream in) throws IOException {
+  /**
+   * Reads values into a map without super maps, parent map or listeners. No change notifications are fired and the
+   * {@link PropertyMapManager} is not used.
+   */
+  void readDetached(ObjectInputStream in) throws IOException {
+    readVersion(in);
+    doRead(in, false);
+  }
+
+  private static void readVersion(ObjectInputStream in) throws IOException {
     int version = in.readInt();
 
     if (version > SERIALIZE_VERSION)
       throw new IOException("Can't read object because serialized version is newer than current version!");
+  }
+
+  void setValues(PropertyMapImpl map) {
+    PropertyMapManager.getInstance().beginBatch();
 
+    try {
+      doSetValues(map);
+    }
+    finally {
+      PropertyMapManager.getInstance().endBatch();
+    }
+  }
+
+  private void doSetValues(PropertyMapImpl map) {
+    for (ConstMapIterator iterator = map.values.constIterator(); iterator.atEntry(); iterator.next()) {
+      PropertyValue value = (PropertyValue) iterator.getValue();
+
+      if (value.getParent() == null)
+        setValue((Property) iterator.getKey(), value.copyTo(this));
+    }
+
+    for (ConstMapIterator iterator = map.childMaps.constIterator(); iterator.atEntry(); iterator.next()) {
+      PropertyMapImpl childMap = (PropertyMapImpl) iterator.getValue();
+
+      if (!childMap.isEmpty(true))
+        getChildMapImpl((PropertyMapProperty) iterator.getKey()).doSetValues(childMap);
+    }
+  }
+
+  public static void skip(ObjectInputStream in) throws IOException {
+    readVersion(in);
     doSkip(in);
   }
 
@@ -874,6 +1213,8 @@ public class PropertyMapImpl implements PropertyMap {
     }
 
     if (recursive) {
+      createChildMaps();
+
       for (ConstMapIterator iterator = childMaps.constIterator(); iterator.atEntry(); iterator.next()) {
         PropertyMapProperty property = (PropertyMapProperty) iterator.getKey();
 
@@ -23,12 +23,14 @@
 // $Id: PropertyMapManager.java,v 1.16 2005/12/04 13:46:06 jesper Exp $
 package net.infonode.properties.propertymap;
 
+import net.infonode.properties.propertymap.value.PropertyRefValue;
 import net.infonode.properties.propertymap.value.PropertyValue;
 import net.infonode.util.Utils;
 import net.infonode.util.ValueChange;
 import net.infonode.util.collection.map.base.ConstMap;
 import net.infonode.util.collection.map.base.ConstMapIterator;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -44,9 +46,70 @@ import java.util.Map;
 public class PropertyMapManager {
   private static final PropertyMapManager INSTANCE = new PropertyMapManager();
 
-  private HashMap changes;
+  /**
+   * The changes to a property value during a batch. The old value is resolved when the first change is recorded,
+   * unless it's a simple value which can be resolved later. The new value is resolved when the batch ends.
+   */
+  private static class PropertyChange {
+    private PropertyValue oldValue;
+    private Object resolvedOldValue;
+    private PropertyValue newValue;
+
+    void set(PropertyMapImpl map, PropertyValue oldValue, PropertyValue newValue) {
+      this.newValue = newValue;
+
+      if (oldValue instanceof PropertyRefValue) {
+        this.oldValue = null;
+        resolvedOldValue = oldValue.getWithDefault(map);
+      }
+      else {
+        this.oldValue = oldValue;
+        resolvedOldValue = null;
+      }
+    }
+
+    Object getOldValue(PropertyMapImpl map) {
+      return oldValue == null ? resolvedOldValue : oldValue.getWithDefault(map);
+    }
+
+    Object getNewValue(PropertyMapImpl map) {
+      return newValue == null ? null : newValue.getWithDefault(map);
+    }
+
+    void clear() {
+      oldValue = null;
+      resolvedOldValue = null;
+      newValue = null;
+    }
+  }
+
+  /**
+   * The changes in one map during a batch.
+   */
+  private static class MapChanges {
+    private PropertyMapImpl map;
+    private HashMap changes = new HashMap(8);
+    private Map resolvedChanges;
+  }
+
+  /**
+   * Maps PropertyMapImpl -> MapChanges for the maps modified in the current batch.
+   */
+  private HashMap changedMaps = new HashMap();
+  private ArrayList changedMapList = new ArrayList();
+  private ArrayList mapChangesPool = new ArrayList();
+  private ArrayList propertyChangePool = new ArrayList();
   private int batchCounter;
 
+  private long valueCacheHits;
+  private long valueCacheMisses;
+  private long childMapCount;
+
+  private long batchCount;
+  private long batchChangeCount;
+  private int maxBatchChangeCount;
+  private long endBatchTime;
+
   /**
    * Returns the only instance of this class.
    *
@@ -56,29 +119,73 @@ public class PropertyMapManager {
     return INSTANCE;
   }
 
+  void valueCacheHit() {
+    valueCacheHits++;
+  }
+
+  void valueCacheMiss() {
+    valueCacheMisses++;
+  }
+
+  void childMapCreated() {
+    childMapCount++;
+  }
+
+  /**
+   * Returns the number of property value reads that were served from the value cache of a property map.
+   *
+   * @return the number of value cache hits
+   * @see PropertyMap#setValueCacheEnabled(boolean, boolean)
+   * @since IDW 1.7.0
+   */
+  public long getValueCacheHitCount() {
+    return valueCacheHits;
+  }
+
+  /**
+   * Returns the number of property value reads from property maps with an enabled value cache that had to be
+   * resolved because the value wasn't cached.
+   *
+   * @return the number of value cache misses
+   * @see PropertyMap#setValueCacheEnabled(boolean, boolean)
+   * @since IDW 1.7.0
+   */
+  public long getValueCacheMissCount() {
+    return valueCacheMisses;
+  }
+
+  /**
+   * Resets the value cache hit and miss counters to zero.
+   *
+   * @since IDW 1.7.0
+   */
+  public void resetValueCacheStatistics() {
+    valueCacheHits = 0;
+    valueCacheMisses = 0;
+  }
+
   void addMapChanges(PropertyMapImpl propertyMap, ConstMap mapChanges) {
-    HashMap map = (HashMap) changes.get(propertyMap);
+    MapChanges mc = (MapChanges) changedMaps.get(propertyMap);
 
-    if (map == null) {
-      map = new HashMap();
-      changes.put(propertyMap, map);
+    if (mc == null) {
+      mc = mapChangesPool.isEmpty() ? new MapChanges() : (MapChanges) mapChangesPool.remove(mapChangesPool.size() - 1);
+      mc.map = propertyMap;
+      changedMaps.put(propertyMap, mc);
+      changedMapList.add(mc);
     }
 
     for (ConstMapIterator iterator = mapChanges.constIterator(); iterator.atEntry(); iterator.next()) {
       ValueChange vc = (ValueChange) iterator.getValue();
-      Object key = iterator.getKey();
-      Object newValue = vc.getNewValue() == null ?
-                        null : ((PropertyValue) vc.getNewValue()).getWithDefault(propertyMap);
-      Object value = map.get(key);
-      Object oldValue = value == null ?
-                        vc.getOldValue() == null ?
-                        null : ((PropertyValue) vc.getOldValue()).getWithDefault(propertyMap) :
-                        ((ValueChange) value).getOldValue();
-
-      if (!Utils.equals(oldValue, newValue))
-        map.put(iterator.getKey(), new ValueChange(oldValue, newValue));
-      else if (value != null)
-        map.remove(key);
+      PropertyChange change = (PropertyChange) mc.changes.get(iterator.getKey());
+
+      if (change == null) {
+        change = propertyChangePool.isEmpty() ?
+                 new PropertyChange() : (PropertyChange) propertyChangePool.remove(propertyChangePool.size() - 1);
+        change.set(propertyMap, (PropertyValue) vc.getOldValue(), (PropertyValue) vc.getNewValue());
+        mc.changes.put(iterator.getKey(), change);
+      }
+      else
+        change.newValue = (PropertyValue) vc.getNewValue();
     }
   }
 
@@ -107,52 +214,172 @@ public class PropertyMapManager {
    * outermost {@link #endBatch()} the changes be propagated to the listeners.
    */
   public void beginBatch() {
-    if (batchCounter++ == 0)
-      changes = new HashMap();
-  }
-
-  private void addTreeChanges(PropertyMapImpl map, PropertyMapImpl modifiedMap, HashMap changes, HashMap treeChanges) {
-    HashMap changeMap = (HashMap) treeChanges.get(map);
-
-    if (changeMap == null) {
-      changeMap = new HashMap();
-      treeChanges.put(map, changeMap);
-    }
-
-    changeMap.put(modifiedMap, changes);
-
-    if (map.getParent() != null)
-      addTreeChanges(map.getParent(), modifiedMap, changes, treeChanges);
+    batchCounter++;
   }
 
   /**
    * Ends a batch operation. See {@link #beginBatch()} for more information.
    */
   public void endBatch() {
-    if (--batchCounter == 0) {
-      HashMap treeChanges = new HashMap();
-      HashMap localChanges = changes;
-      changes = null;
-
-      for (Iterator iterator = localChanges.entrySet().iterator(); iterator.hasNext();) {
-        Map.Entry entry = (Map.Entry) iterator.next();
-        PropertyMapImpl object = (PropertyMapImpl) entry.getKey();
-        HashMap objectChanges = (HashMap) entry.getValue();
-
-        if (!objectChanges.isEmpty()) {
-          object.firePropertyValuesChanged(Collections.unmodifiableMap(objectChanges));
-          addTreeChanges(object, object, objectChanges, treeChanges);
+    if (--batchCounter == 0 && !changedMapList.isEmpty()) {
+      long startTime = System.nanoTime();
+      int changeCount = 0;
+      MapChanges[] localChanges = (MapChanges[]) changedMapList.toArray(new MapChanges[changedMapList.size()]);
+
+      // Resolve the values and release the journal so that listeners can start new batches
+      for (int i = 0; i < localChanges.length; i++) {
+        MapChanges mc = localChanges[i];
+        PropertyMapImpl map = mc.map;
+        boolean notify = map.hasValueListeners() || map.hasTreeListener();
+        HashMap resolved = null;
+
+        for (Iterator iterator = mc.changes.entrySet().iterator(); iterator.hasNext();) {
+          Map.Entry entry = (Map.Entry) iterator.next();
+          PropertyChange change = (PropertyChange) entry.getValue();
+
+          if (notify) {
+            Object oldValue = change.getOldValue(map);
+            Object newValue = change.getNewValue(map);
+
+            if (!Utils.equals(oldValue, newValue)) {
+              if (resolved == null)
+                resolved = new HashMap(mc.changes.size() * 2);
+
+              resolved.put(entry.getKey(), new ValueChange(oldValue, newValue));
+            }
+          }
+
+          change.clear();
+          propertyChangePool.add(change);
+        }
+
+        mc.resolvedChanges = resolved == null ? null : Collections.unmodifiableMap(resolved);
+        mc.changes.clear();
+
+        if (resolved != null)
+          changeCount += resolved.size();
+      }
+
+      changedMaps.clear();
+      changedMapList.clear();
+
+      // Tree changes are collected bottom-up, but only for maps that have tree listeners
+      HashMap treeChanges = null;
+      ArrayList treeChangeMaps = null;
+
+      for (int i = 0; i < localChanges.length; i++) {
+        MapChanges mc = localChanges[i];
+
+        if (mc.resolvedChanges != null) {
+          for (PropertyMapImpl map = mc.map; map != null; map = map.getParent()) {
+            if (map.hasOwnTreeListeners()) {
+              if (treeChanges == null) {
+                treeChanges = new HashMap();
+                treeChangeMaps = new ArrayList();
+              }
+
+              HashMap changeMap = (HashMap) treeChanges.get(map);
+
+              if (changeMap == null) {
+                changeMap = new HashMap();
+                treeChanges.put(map, changeMap);
+                treeChangeMaps.add(map);
+              }
+
+              changeMap.put(mc.map, mc.resolvedChanges);
+            }
+          }
         }
       }
 
-      for (Iterator iterator = treeChanges.entrySet().iterator(); iterator.hasNext();) {
-        Map.Entry entry = (Map.Entry) iterator.next();
-        PropertyMapImpl object = (PropertyMapImpl) entry.getKey();
-        HashMap objectChanges = (HashMap) entry.getValue();
+      batchCount++;
+      batchChangeCount += changeCount;
+      maxBatchChangeCount = Math.max(maxBatchChangeCount, changeCount);
 
-        if (!objectChanges.isEmpty())
-          object.firePropertyTreeValuesChanged(Collections.unmodifiableMap(objectChanges));
+      for (int i = 0; i < localChanges.length; i++) {
+        MapChanges mc = localChanges[i];
+        Map changes = mc.resolvedChanges;
+        PropertyMapImpl map = mc.map;
+        mc.map = null;
+        mc.resolvedChanges = null;
+        mapChangesPool.add(mc);
+
+        if (changes != null)
+          map.firePropertyValuesChanged(changes);
       }
+
+      if (treeChangeMaps != null) {
+        for (int i = 0; i < treeChangeMaps.size(); i++) {
+          PropertyMapImpl map = (PropertyMapImpl) treeChangeMaps.get(i);
+          map.firePropertyTreeValuesChanged(Collections.unmodifiableMap((Map) treeChanges.get(map)));
+        }
+      }
+
+      endBatchTime += System.nanoTime() - startTime;
     }
   }
+
+  /**
+   * Returns the number of child property maps that have been created. Child maps are created when they are first
+   * accessed.
+   *
+   * @return the number of created child maps
+   * @since IDW 1.7.0
+   */
+  public long getChildMapCount() {
+    return childMapCount;
+  }
+
+  /**
+   * Returns the number of batches that have ended with at least one modified property map.
+   *
+   * @return the number of batches
+   * @since IDW 1.7.0
+   */
+  public long getBatchCount() {
+    return batchCount;
+  }
+
+  /**
+   * Returns the total number of property value changes that have been propagated to listeners by
+   * {@link #endBatch()}.
+   *
+   * @return the total number of property value changes
+   * @since IDW 1.7.0
+   */
+  public long getBatchChangeCount() {
+    return batchChangeCount;
+  }
+
+  /**
+   * Returns the largest number of property value changes that have been propagated by a single batch.
+   *
+   * @return the largest number of property value changes in a batch
+   * @since IDW 1.7.0
+   */
+  public int getMaxBatchChangeCount() {
+    return maxBatchChangeCount;
+  }
+
+  /**
+   * Returns the total time spent in {@link #endBatch()}, including the time spent in listeners.
+   *
+   * @return the total time in nanoseconds
+   * @since IDW 1.7.0
+   */
+  public long getEndBatchTime() {
+    return endBatchTime;
+  }
+
+  /**
+   * Resets the batch counters and the end batch time to zero.
+   *
+   * @since IDW 1.7.0
+   */
+  public void resetBatchStatistics() {
+    batchCount = 0;
+    batchChangeCount = 0;
+    maxBatchChangeCount = 0;
+    endBatchTime = 0;
+  }
 }
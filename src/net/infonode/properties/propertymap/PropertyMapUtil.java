@@ -47,4 +47,33 @@ public final class PropertyMapUtil {
     PropertyMapImpl.skip(in);
   }
 
+  /**
+   * Reads a property map in the stream into a new map that has the same property group as another map, but no super
+   * maps. No listeners are notified and no batch is used, so the map can be read on any thread. The values can later
+   * be set in a map in use with {@link #setValues(PropertyMap, PropertyMap)}.
+   *
+   * @param in  the stream containing the property map
+   * @param map the map whose property group is used
+   * @return the read map
+   * @throws IOException if there is an error in the stream
+   * @since IDW 1.7.0
+   */
+  public static PropertyMap readDetachedMap(ObjectInputStream in, PropertyMap map) throws IOException {
+    PropertyMapImpl detachedMap = new PropertyMapImpl(((PropertyMapImpl) map).getPropertyGroup());
+    detachedMap.readDetached(in);
+    return detachedMap;
+  }
+
+  /**
+   * Sets the values that are set in a map, and recursively in its child maps, in another map. Values that are not set
+   * in the source map are kept. All values are set in one batch.
+   *
+   * @param map    the map in which to set the values
+   * @param values the map containing the values
+   * @since IDW 1.7.0
+   */
+  public static void setValues(PropertyMap map, PropertyMap values) {
+    ((PropertyMapImpl) map).setValues((PropertyMapImpl) values);
+  }
+
 }
@@ -25,7 +25,6 @@ package net.infonode.properties.propertymap;
 
 import net.infonode.properties.base.Property;
 import net.infonode.properties.base.exception.CantRemoveValueException;
-import net.infonode.properties.propertymap.value.PropertyValue;
 import net.infonode.properties.propertymap.value.SimplePropertyValue;
 import net.infonode.properties.types.PropertyGroupProperty;
 import net.infonode.properties.util.PropertyValueHandler;
@@ -49,9 +48,7 @@ public class PropertyMapValueHandler implements PropertyValueHandler {
   }
 
   public Object getValue(Property property, Object object) {
-    PropertyMapImpl propertyMap = (PropertyMapImpl) object;
-    PropertyValue value = propertyMap.getValueWithDefault(property);
-    return value == null ? null : value.getWithDefault(propertyMap);
+    return ((PropertyMapImpl) object).getResolvedValue(property);
   }
 
   public void setValue(Property property, Object object, Object value) {
@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2004 NNL Technology AB
+ * Visit www.infonode.net for information about InfoNode(R) 
+ * products and how to contact NNL Technology AB.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, 
+ * MA 02111-1307, USA.
+ */
+
+
+// $Id$
+package net.infonode.properties.propertymap;
+
+import net.infonode.properties.base.Property;
+import net.infonode.properties.base.PropertyGroup;
+import net.infonode.properties.propertymap.value.PropertyValue;
+import net.infonode.util.collection.map.base.ConstMapIterator;
+import net.infonode.util.collection.map.base.Map;
+import net.infonode.util.collection.map.base.MapIterator;
+
+import java.util.BitSet;
+
+/**
+ * Stores the property values of a property map in an array indexed by
+ * {@link PropertyGroup#getPropertyIndex(Property)}. A bit set keeps track of the values that are set in the map, as
+ * opposed to values inherited from super maps. The arrays are allocated when the first value is stored.
+ *
+ * @author $Author$
+ * @version $Revision$
+ */
+class PropertyValueStore implements Map {
+  private class Iterator implements MapIterator {
+    private int index = -1;
+    private Object key;
+    private Object value;
+
+    Iterator() {
+      next();
+    }
+
+    public void remove() {
+      PropertyValueStore.this.remove(key);
+    }
+
+    public Object getKey() {
+      return key;
+    }
+
+    public Object getValue() {
+      return value;
+    }
+
+    public void next() {
+      key = null;
+      value = null;
+
+      if (values != null) {
+        while (++index < values.length) {
+          if (values[index] != null) {
+            key = group.getPropertyByIndex(index);
+            value = values[index];
+            return;
+          }
+        }
+      }
+    }
+
+    public boolean atEntry() {
+      return value != null;
+    }
+  }
+
+  private PropertyGroup group;
+  private Object[] values;
+  private BitSet setValues;
+  private int size;
+
+  PropertyValueStore(PropertyGroup group) {
+    this.group = group;
+  }
+
+  private int getIndex(Object key) {
+    return key instanceof Property ? group.getPropertyIndex((Property) key) : -1;
+  }
+
+  /**
+   * Returns true if the map contains a value for the property that is not inherited from a super map.
+   *
+   * @param property the property
+   * @return true if the map contains a value for the property that is not inherited from a super map
+   */
+  boolean isSet(Property property) {
+    int index = getIndex(property);
+    return index >= 0 && setValues != null && setValues.get(index);
+  }
+
+  public Object put(Object key, Object value) {
+    if (value == null)
+      return remove(key);
+
+    int index = getIndex(key);
+
+    if (index < 0)
+      throw new IllegalArgumentException("Property '" + key + "' not found in group '" + group + "'!");
+
+    if (values == null) {
+      values = new Object[Math.max(group.getTotalPropertyCount(), index + 1)];
+      setValues = new BitSet(values.length);
+    }
+    else if (index >= values.length) {
+      Object[] newValues = new Object[Math.max(group.getTotalPropertyCount(), index + 1)];
+      System.arraycopy(values, 0, newValues, 0, values.length);
+      values = newValues;
+    }
+
+    Object oldValue = values[index];
+    values[index] = value;
+    setValues.set(index, ((PropertyValue) value).getParent() == null);
+
+    if (oldValue == null)
+      size++;
+
+    return oldValue;
+  }
+
+  public Object remove(Object key) {
+    int index = getIndex(key);
+
+    if (values == null || index < 0 || index >= values.length)
+      return null;
+
+    Object oldValue = values[index];
+
+    if (oldValue != null) {
+      values[index] = null;
+      setValues.clear(index);
+      size--;
+    }
+
+    return oldValue;
+  }
+
+  public void clear() {
+    values = null;
+    setValues = null;
+    size = 0;
+  }
+
+  public MapIterator iterator() {
+    return new Iterator();
+  }
+
+  public Object get(Object key) {
+    if (values == null)
+      return null;
+
+    int index = getIndex(key);
+    return index < 0 || index >= values.length ? null : values[index];
+  }
+
+  public boolean containsKey(Object key) {
+    return get(key) != null;
+  }
+
+  public boolean containsValue(Object value) {
+    if (values != null) {
+      for (int i = 0; i < values.length; i++) {
+        if (values[i] != null && values[i].equals(value))
+          return true;
+      }
+    }
+
+    return false;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public ConstMapIterator constIterator() {
+    return iterator();
+  }
+
+  public int size() {
+    return size;
+  }
+}
@@ -73,6 +73,25 @@ public class PropertyRefValue implements PropertyValue, SignalListener {
     return map;
   }
 
+  /**
+   * Returns the map that contains the referenced value when this value is read from a map.
+   *
+   * @param object the map from which the value is read
+   * @return the map that contains the referenced value, null if it can't be resolved
+   */
+  public PropertyMapImpl getReferencedMap(PropertyMapImpl object) {
+    return propertyObjectRef.getMap(object);
+  }
+
+  /**
+   * Returns the referenced property.
+   *
+   * @return the referenced property
+   */
+  public Property getReferencedProperty() {
+    return propertyRef;
+  }
+
   public void updateListener(boolean enable) {
     if (enable)
       propertyObjectRef.getMap(map).getMap().getChangeSignal().add(this);
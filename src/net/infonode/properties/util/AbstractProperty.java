@@ -38,6 +38,7 @@ abstract public class AbstractProperty implements Property {
   private String name;
   private Class type;
   private String description;
+  private final int ordinal;
 
   /**
    * Constructor.
@@ -52,11 +53,22 @@ abstract public class AbstractProperty implements Property {
     this.name = name;
     this.type = type;
     this.description = description;
+    ordinal = group == null ? -1 : group.getPropertyCount();
 
     if (group != null)
       group.addProperty(this);
   }
 
+  /**
+   * Returns the index of this property among the properties in its group, not including properties in super groups.
+   *
+   * @return the index of this property in its group, -1 if it has no group
+   * @since IDW 1.7.0
+   */
+  public final int getOrdinal() {
+    return ordinal;
+  }
+
   public PropertyGroup getGroup() {
     return group;
   }
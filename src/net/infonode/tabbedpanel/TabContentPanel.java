@@ -24,14 +24,21 @@
 package net.infonode.tabbedpanel;
 
 import net.infonode.gui.layout.StackableLayout;
+import net.infonode.properties.base.Property;
+import net.infonode.properties.propertymap.PropertyMapWeakListenerManager;
+import net.infonode.properties.util.PropertyChangeListener;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.ArrayList;
 
 /**
  * A TabContentPanel is a container for tabs' content components. It listens to
  * a tabbed panel and manages the tabs' content components by showing and hiding
  * the components based upon the selection of tabs in the tabbed panel.
+ * Depending on the tabbed panel's {@link TabContentPolicy}, the content
+ * components of non-selected tabs are either hidden or removed from this
+ * panel.
  *
  * @author $Author: jesper $
  * @version $Revision: 1.19 $
@@ -41,22 +48,42 @@ import java.awt.*;
 public class TabContentPanel extends JPanel {
   private TabbedPanel tabbedPanel;
   private StackableLayout layout = new StackableLayout(this);
+  private TabContentPolicy contentPolicy = TabContentPolicy.KEEP_ALL;
+  private int contentCacheSize;
+
+  /**
+   * Content components in the order they were last selected, the most recent first
+   */
+  private ArrayList recentComponents = new ArrayList();
+
   private TabListener listener = new TabAdapter() {
     public void tabSelected(TabStateChangedEvent event) {
-      layout.showComponent(event.getTab() == null ? null : event.getTab().getContentComponent());
+      showContentComponent(event.getTab() == null ? null : event.getTab().getContentComponent());
     }
 
     public void tabRemoved(TabRemovedEvent event) {
-      if (event.getTab().getContentComponent() != null)
-        remove(event.getTab().getContentComponent());
+      Component c = event.getTab().getContentComponent();
+
+      if (c != null) {
+        recentComponents.remove(c);
+
+        if (c.getParent() == TabContentPanel.this)
+          remove(c);
+      }
     }
 
     public void tabAdded(TabEvent event) {
-      if (event.getTab().getContentComponent() != null)
+      if (event.getTab().getContentComponent() != null && contentPolicy == TabContentPolicy.KEEP_ALL)
         add(event.getTab().getContentComponent());
     }
   };
 
+  private PropertyChangeListener contentPolicyListener = new PropertyChangeListener() {
+    public void propertyChanged(Property property, Object valueContainer, Object oldValue, Object newValue) {
+      updateContentPolicy();
+    }
+  };
+
   /**
    * <p>
    * Constructs a TabContentPanel
@@ -106,6 +133,13 @@ public class TabContentPanel extends JPanel {
     if (this.tabbedPanel != tabbedPanel) {
       if (this.tabbedPanel != null) {
         this.tabbedPanel.removeTabListener(listener);
+        PropertyMapWeakListenerManager.removeWeakPropertyChangeListener(this.tabbedPanel.getProperties().getMap(),
+                                                                        TabbedPanelProperties.TAB_CONTENT_POLICY,
+                                                                        contentPolicyListener);
+        PropertyMapWeakListenerManager.removeWeakPropertyChangeListener(this.tabbedPanel.getProperties().getMap(),
+                                                                        TabbedPanelProperties.TAB_CONTENT_CACHE_SIZE,
+                                                                        contentPolicyListener);
+        recentComponents.clear();
         removeAll();
       }
 
@@ -113,12 +147,64 @@ public class TabContentPanel extends JPanel {
 
       if (this.tabbedPanel != null) {
         tabbedPanel.addTabListener(listener);
-        for (int i = 0; i < tabbedPanel.getTabCount(); i++) {
-          Component c = tabbedPanel.getTabAt(i).getContentComponent();
-          if (c != null)
-            add(tabbedPanel.getTabAt(i).getContentComponent());
-        }
+        PropertyMapWeakListenerManager.addWeakPropertyChangeListener(tabbedPanel.getProperties().getMap(),
+                                                                     TabbedPanelProperties.TAB_CONTENT_POLICY,
+                                                                     contentPolicyListener);
+        PropertyMapWeakListenerManager.addWeakPropertyChangeListener(tabbedPanel.getProperties().getMap(),
+                                                                     TabbedPanelProperties.TAB_CONTENT_CACHE_SIZE,
+                                                                     contentPolicyListener);
+        updateContentPolicy();
+      }
+    }
+  }
+
+  private void updateContentPolicy() {
+    contentPolicy = tabbedPanel.getProperties().getTabContentPolicy();
+    contentCacheSize = tabbedPanel.getProperties().getTabContentCacheSize();
+
+    if (contentPolicy == TabContentPolicy.KEEP_ALL) {
+      for (int i = 0; i < tabbedPanel.getTabCount(); i++) {
+        Component c = tabbedPanel.getTabAt(i).getContentComponent();
+        if (c != null && c.getParent() != this)
+          add(c);
       }
     }
+
+    Tab selectedTab = tabbedPanel.getSelectedTab();
+    showContentComponent(selectedTab == null ? null : selectedTab.getContentComponent());
+  }
+
+  private void showContentComponent(Component c) {
+    if (c != null) {
+      recentComponents.remove(c);
+      recentComponents.add(0, c);
+
+      if (c.getParent() != this)
+        add(c);
+    }
+
+    layout.showComponent(c);
+    removeHiddenComponents(c);
+  }
+
+  private void removeHiddenComponents(Component visibleComponent) {
+    if (contentPolicy == TabContentPolicy.KEEP_ALL)
+      return;
+
+    int keepCount = visibleComponent == null ? 0 : 1;
+    if (contentPolicy == TabContentPolicy.KEEP_RECENT)
+      keepCount = Math.max(keepCount, contentCacheSize);
+
+    while (recentComponents.size() > keepCount)
+      recentComponents.remove(recentComponents.size() - 1);
+
+    if (getComponentCount() > recentComponents.size()) {
+      for (int i = getComponentCount() - 1; i >= 0; i--) {
+        if (!recentComponents.contains(getComponent(i)))
+          remove(i);
+      }
+
+      revalidate();
+    }
   }
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2004 NNL Technology AB
+ * Visit www.infonode.net for information about InfoNode(R) 
+ * products and how to contact NNL Technology AB.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, 
+ * MA 02111-1307, USA.
+ */
+
+// $Id$
+package net.infonode.tabbedpanel;
+
+/**
+ * TabContentPolicy tells a {@link TabContentPanel} which of the tabs' content components should be kept in the
+ * component hierarchy. Content components that are not kept are removed from the content panel when their tab is
+ * deselected and added again when the tab is selected.
+ *
+ * @author $Author$
+ * @version $Revision$
+ * @see TabbedPanelProperties#setTabContentPolicy
+ * @see TabContentPanel
+ * @since IDW 1.7.0
+ */
+public enum TabContentPolicy {
+
+  /**
+   * Keep all policy. This means that the content components of all tabs are kept in the content panel and the
+   * content components of the non-selected tabs are hidden.
+   */
+  KEEP_ALL,
+
+  /**
+   * Detach hidden policy. This means that only the content component of the selected tab is kept in the content
+   * panel.
+   */
+  DETACH_HIDDEN,
+
+  /**
+   * Keep recent policy. This means that the content components of the most recently selected tabs are kept in the
+   * content panel. The number of kept content components is set with
+   * {@link TabbedPanelProperties#setTabContentCacheSize}.
+   */
+  KEEP_RECENT
+}
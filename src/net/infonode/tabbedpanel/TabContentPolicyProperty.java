@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2004 NNL Technology AB
+ * Visit www.infonode.net for information about InfoNode(R) 
+ * products and how to contact NNL Technology AB.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, 
+ * MA 02111-1307, USA.
+ */
+
+// $Id$
+package net.infonode.tabbedpanel;
+
+import net.infonode.properties.base.PropertyGroup;
+import net.infonode.properties.types.EnumProperty;
+import net.infonode.properties.util.PropertyValueHandler;
+
+/**
+ * Property for TabContentPolicy
+ *
+ * @author $Author$
+ * @version $Revision$
+ * @see TabContentPolicy
+ * @since IDW 1.7.0
+ */
+public class TabContentPolicyProperty extends EnumProperty {
+  /**
+   * Constructs a TabContentPolicyProperty object
+   *
+   * @param group        property group
+   * @param name         property name
+   * @param description  property description
+   * @param valueStorage storage for property
+   */
+  public TabContentPolicyProperty(PropertyGroup group,
+                                  String name,
+                                  String description,
+                                  PropertyValueHandler valueStorage) {
+    super(group,
+          name,
+          TabContentPolicy.class,
+          description,
+          valueStorage,
+          TabContentPolicy.values());
+  }
+
+  /**
+   * Gets the TabContentPolicy
+   *
+   * @param object storage object for property
+   * @return the TabContentPolicy
+   */
+  public TabContentPolicy get(Object object) {
+    return (TabContentPolicy) getValue(object);
+  }
+
+  /**
+   * Sets the TabContentPolicy
+   *
+   * @param object storage object for property
+   * @param policy the TabContentPolicy
+   */
+  public void set(Object object, TabContentPolicy policy) {
+    setValue(object, policy);
+  }
+}
@@ -328,7 +328,9 @@ public class TabbedPanel extends JPanel {
       if (highlightedTab == tab)
         highlightedTab = null;
 
-      setTabAreaComponentsButtonsVisible();
+      // The button visibility is updated when the tab area is laid out, measuring all tabs here would make removing
+      // many tabs quadratic
+      tabAreaContainer.revalidate();
       updateTabAreaVisibility();
       //revalidate();
       tabAreaContainer.repaint();
@@ -456,6 +458,7 @@ public class TabbedPanel extends JPanel {
     updateTabDropDownList();
     draggableComponentBox.setScrollOffset(properties.getTabScrollingOffset());
     draggableComponentBox.setEnsureSelectedVisible(properties.getEnsureSelectedTabVisible());
+    draggableComponentBox.setVirtualized(properties.getTabVirtualizationEnabled());
 
     tabAreaOrientation = properties.getTabAreaOrientation();
     updatePropertiesForTabAreaLayoutConstraints();
@@ -524,6 +527,10 @@ public class TabbedPanel extends JPanel {
         draggableComponentBox.setEnsureSelectedVisible(
             ((Boolean) ((ValueChange) m.get(TabbedPanelProperties.ENSURE_SELECTED_VISIBLE)).getNewValue()).booleanValue());
 
+      if (keySet.contains(TabbedPanelProperties.TAB_VIRTUALIZATION_ENABLED))
+        draggableComponentBox.setVirtualized(
+            ((Boolean) ((ValueChange) m.get(TabbedPanelProperties.TAB_VIRTUALIZATION_ENABLED)).getNewValue()).booleanValue());
+
       if (keySet.contains(TabbedPanelProperties.TAB_AREA_ORIENTATION)) {
         tabAreaOrientation = (Direction) ((ValueChange) m.get(TabbedPanelProperties.TAB_AREA_ORIENTATION)).getNewValue();
         updatePropertiesForTabAreaLayoutConstraints();
@@ -829,6 +836,20 @@ public class TabbedPanel extends JPanel {
     return tabAreaContainer.contains(SwingUtilities.convertPoint(this, p, tabAreaContainer));
   }
 
+  /**
+   * Gets the bounds of the tab area
+   *
+   * @return the bounds of the tab area relative to this tabbed panel, null if the tab area isn't visible
+   * @see #tabAreaContainsPoint
+   * @since IDW 1.7.0
+   */
+  public Rectangle getTabAreaBounds() {
+    if (!tabAreaContainer.isVisible())
+      return null;
+
+    return SwingUtilities.convertRectangle(tabAreaContainer.getParent(), tabAreaContainer.getBounds(), this);
+  }
+
   /**
    * Check if the content area contains the given point
    *
@@ -1282,9 +1303,10 @@ public class TabbedPanel extends JPanel {
   }
 
   private void updateAllTabsProperties() {
-    Component[] components = draggableComponentBox.getBoxComponents();
+    // The box only contains the visible tabs when the tabs are virtualized
+    Object[] components = draggableComponentBox.getDraggableComponents();
     for (int i = 0; i < components.length; i++)
-      updateTabProperties((Tab) components[i]);
+      updateTabProperties(findTab((DraggableComponent) components[i]));
   }
 
   private void updateTabProperties(Tab tab) {
@@ -146,6 +146,43 @@ public class TabbedPanelProperties extends PropertyMapContainer {
   public static final BooleanProperty ENSURE_SELECTED_VISIBLE = new BooleanProperty(PROPERTIES, "Ensure Selected Visible", "Upon select, the selected tab will be scrolled into the visible area.",
                                                                                     PropertyMapValueHandler.INSTANCE);
 
+  /**
+   * Tab virtualization enabled property
+   *
+   * @see #setTabVirtualizationEnabled
+   * @see #getTabVirtualizationEnabled
+   * @since IDW 1.7.0
+   */
+  public static final BooleanProperty TAB_VIRTUALIZATION_ENABLED = new BooleanProperty(PROPERTIES,
+                                                                                       "Tab Virtualization Enabled",
+                                                                                       "When enabled only the tabs in the visible part of a scrolling tab area are added to the tab area.",
+                                                                                       PropertyMapValueHandler.INSTANCE);
+
+  /**
+   * Tab content policy property
+   *
+   * @see #setTabContentPolicy
+   * @see #getTabContentPolicy
+   * @since IDW 1.7.0
+   */
+  public static final TabContentPolicyProperty TAB_CONTENT_POLICY = new TabContentPolicyProperty(PROPERTIES,
+                                                                                                 "Tab Content Policy",
+                                                                                                 "Determines which tab content components are kept in the content area when their tabs are not selected.",
+                                                                                                 PropertyMapValueHandler.INSTANCE);
+
+  /**
+   * Tab content cache size property
+   *
+   * @see #setTabContentCacheSize
+   * @see #getTabContentCacheSize
+   * @since IDW 1.7.0
+   */
+  public static final IntegerProperty TAB_CONTENT_CACHE_SIZE = IntegerProperty.createPositive(PROPERTIES,
+                                                                                              "Tab Content Cache Size",
+                                                                                              "Number of most recently selected tabs whose content components are kept in the content area when the tab content policy is KEEP_RECENT.",
+                                                                                              3,
+                                                                                              PropertyMapValueHandler.INSTANCE);
+
   /**
    * Tab area orientation property
    *
@@ -366,6 +403,9 @@ public class TabbedPanelProperties extends PropertyMapContainer {
                                                           ABORT_DRAG_KEY,
                                                           TAB_LAYOUT_POLICY,
                                                           ENSURE_SELECTED_VISIBLE,
+                                                          TAB_VIRTUALIZATION_ENABLED,
+                                                          TAB_CONTENT_POLICY,
+                                                          TAB_CONTENT_CACHE_SIZE,
                                                           AUTO_SELECT_TAB,
                                                           TAB_DESELECTABLE,
                                                           TAB_SELECT_TRIGGER,
@@ -464,6 +504,9 @@ public class TabbedPanelProperties extends PropertyMapContainer {
         .setTabScrollingOffset(10).setTabSpacing(-1)
         .setTabDepthOrderPolicy(TabDepthOrderPolicy.DESCENDING)
         .setEnsureSelectedTabVisible(false)
+        .setTabVirtualizationEnabled(false)
+        .setTabContentPolicy(TabContentPolicy.KEEP_ALL)
+        .setTabContentCacheSize(5)
         .setTabAreaOrientation(Direction.UP)
         .setAutoSelectTab(true)
         .setHighlightPressedTab(true)
@@ -710,6 +753,27 @@ public class TabbedPanelProperties extends PropertyMapContainer {
     return this;
   }
 
+  /**
+   * <p>
+   * Sets if the tabs should be virtualized, i.e. only the tabs in the visible part of the tab area, the selected
+   * tab and the highlighted tab are added to the tab area. The other tabs are laid out using their last known sizes.
+   * This reduces the layout and memory cost of tabbed panels with a large number of tabs.
+   * </p>
+   * <p>
+   * <strong>Note: </strong> This will only have effect if scolling is
+   * enabled.
+   * </p>
+   *
+   * @param enabled true for virtualized tabs, otherwise false
+   * @return this TabbedPanelProperties
+   * @see #setTabLayoutPolicy
+   * @since IDW 1.7.0
+   */
+  public TabbedPanelProperties setTabVirtualizationEnabled(boolean enabled) {
+    TAB_VIRTUALIZATION_ENABLED.set(getMap(), enabled);
+    return this;
+  }
+
   /**
    * <p>
    * Sets number of pixels to be shown for the scrolled out tab next to the
@@ -802,6 +866,46 @@ public class TabbedPanelProperties extends PropertyMapContainer {
     return this;
   }
 
+  /**
+   * <p>
+   * Sets the tab content policy, i.e. which of the tabs' content components are kept in the content area.
+   * </p>
+   *
+   * <p>
+   * Content components that are not kept are removed from the component hierarchy when their tabs are deselected, so
+   * they don't take part in validation, focus traversal and look and feel updates. A removed content component does
+   * not contribute to the minimum and preferred size of the content area.
+   * </p>
+   *
+   * <p>
+   * <strong>Note: </strong> This will only have effect for a tabbed panel that uses a {@link TabContentPanel} for the
+   * tabs' content components.
+   * </p>
+   *
+   * @param policy the tab content policy
+   * @return this TabbedPanelProperties
+   * @see #setTabContentCacheSize
+   * @since IDW 1.7.0
+   */
+  public TabbedPanelProperties setTabContentPolicy(TabContentPolicy policy) {
+    TAB_CONTENT_POLICY.set(getMap(), policy);
+    return this;
+  }
+
+  /**
+   * Sets the number of most recently selected tabs whose content components are kept in the content area when the
+   * tab content policy is {@link TabContentPolicy#KEEP_RECENT}. The selected tab is included in the count.
+   *
+   * @param size the number of content components to keep
+   * @return this TabbedPanelProperties
+   * @see #setTabContentPolicy
+   * @since IDW 1.7.0
+   */
+  public TabbedPanelProperties setTabContentCacheSize(int size) {
+    TAB_CONTENT_CACHE_SIZE.set(getMap(), size);
+    return this;
+  }
+
   /**
    * Sets the tab select trigger, i.e. what triggers a tab selection
    *
@@ -997,6 +1101,24 @@ public class TabbedPanelProperties extends PropertyMapContainer {
     return ENSURE_SELECTED_VISIBLE.get(getMap());
   }
 
+  /**
+   * <p>
+   * Returns true if the tabs are virtualized, i.e. only the tabs in the visible part of the tab area, the selected
+   * tab and the highlighted tab are added to the tab area.
+   * </p>
+   * <p>
+   * <strong>Note: </strong> This will only have effect if scolling is
+   * enabled.
+   * </p>
+   *
+   * @return true if the tabs are virtualized, otherwise false
+   * @see #getTabLayoutPolicy
+   * @since IDW 1.7.0
+   */
+  public boolean getTabVirtualizationEnabled() {
+    return TAB_VIRTUALIZATION_ENABLED.get(getMap());
+  }
+
   /**
    * Returns true if a shadow is painted for the tab area, false if a shadow
    * is painted for the highlighted tab and the tab area components panel.
@@ -1094,6 +1216,29 @@ public class TabbedPanelProperties extends PropertyMapContainer {
     return TAB_DROP_DOWN_LIST_VISIBLE_POLICY.get(getMap());
   }
 
+  /**
+   * Gets the tab content policy, i.e. which of the tabs' content components are kept in the content area.
+   *
+   * @return the tab content policy
+   * @see #getTabContentCacheSize
+   * @since IDW 1.7.0
+   */
+  public TabContentPolicy getTabContentPolicy() {
+    return TAB_CONTENT_POLICY.get(getMap());
+  }
+
+  /**
+   * Gets the number of most recently selected tabs whose content components are kept in the content area when the
+   * tab content policy is {@link TabContentPolicy#KEEP_RECENT}.
+   *
+   * @return the number of content components to keep
+   * @see #getTabContentPolicy
+   * @since IDW 1.7.0
+   */
+  public int getTabContentCacheSize() {
+    return TAB_CONTENT_CACHE_SIZE.get(getMap());
+  }
+
   /**
    * Gets the tab select trigger, i.e. what triggers a tab selection
    *
@@ -66,6 +66,11 @@ public class TabbedUtils {
     while (c != null) {
       if (c instanceof TabbedPanel)
         return (TabbedPanel) c;
+
+      // A virtualized tab isn't added to the tab area when it's outside the visible part of it
+      if (c instanceof Tab && c.getParent() == null)
+        return ((Tab) c).getTabbedPanel();
+
       c = c.getParent();
     }
 
@@ -31,6 +31,9 @@ import net.infonode.util.Direction;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 
 /**
  * @author $Author: jesper $
@@ -38,6 +41,67 @@ import java.awt.*;
  * @since ITP 1.1.0
  */
 public class ShadowPainter {
+  private static final int LEFT_CORNER_TILE = 0;
+  private static final int RIGHT_CORNER_TILE = 1;
+  private static final int EDGE_TILE = 2;
+  private static final int CORNER_START_EDGE_TILE = 3;
+
+  private static final int MAX_TILE_COUNT = 256;
+
+  /**
+   * The shadow corners and edges rendered into images, shared by all shadow painters
+   */
+  private static final LinkedHashMap tiles = new LinkedHashMap(16, 0.75f, true);
+
+  private static final TileKey lookupKey = new TileKey();
+
+  private static class TileKey {
+    private GraphicsConfiguration configuration;
+    private int type;
+    private boolean flip;
+    private int shadowSize;
+    private int shadowBlendSize;
+    private int shadowColor;
+    private int shadowStrength;
+    private int backgroundColor;
+    private boolean hasBackgroundColor;
+
+    private void set(TileKey key) {
+      configuration = key.configuration;
+      type = key.type;
+      flip = key.flip;
+      shadowSize = key.shadowSize;
+      shadowBlendSize = key.shadowBlendSize;
+      shadowColor = key.shadowColor;
+      shadowStrength = key.shadowStrength;
+      backgroundColor = key.backgroundColor;
+      hasBackgroundColor = key.hasBackgroundColor;
+    }
+
+    public int hashCode() {
+      int hash = ((((type * 2 + (flip ? 1 : 0)) * 31 + shadowSize) * 31 + shadowBlendSize) * 31 + shadowColor) * 31 +
+                 shadowStrength;
+      hash = hasBackgroundColor ? hash * 31 + backgroundColor : hash;
+      return configuration == null ? hash : hash * 31 + configuration.hashCode();
+    }
+
+    public boolean equals(Object obj) {
+      if (!(obj instanceof TileKey))
+        return false;
+
+      TileKey key = (TileKey) obj;
+      return key.configuration == configuration &&
+             key.type == type &&
+             key.flip == flip &&
+             key.shadowSize == shadowSize &&
+             key.shadowBlendSize == shadowBlendSize &&
+             key.shadowColor == shadowColor &&
+             key.shadowStrength == shadowStrength &&
+             key.hasBackgroundColor == hasBackgroundColor &&
+             key.backgroundColor == backgroundColor;
+    }
+  }
+
   private Color panelBackgroundColor;
   private Color tabBackgroundColor;
   private Component component;
@@ -344,6 +408,15 @@ public class ShadowPainter {
   }
 
   private void drawLeftCornerShadow(Graphics g, int x, int y, boolean upper, Color backgroundColor) {
+    if (canUseTiles()) {
+      int width = shadowSize + shadowBlendSize;
+      drawTile(g, getTile(g, LEFT_CORNER_TILE, upper, backgroundColor), 0, width, x, x + width, y, upper);
+    }
+    else
+      drawLeftCornerShadowLines(g, x, y, upper, backgroundColor);
+  }
+
+  private void drawLeftCornerShadowLines(Graphics g, int x, int y, boolean upper, Color backgroundColor) {
     for (int i = 0; i < shadowBlendSize; i++) {
       g.setColor(getShadowBlendColor(i, backgroundColor));
       int x1 = x + shadowSize + shadowBlendSize - 1 - i;
@@ -357,6 +430,13 @@ public class ShadowPainter {
   }
 
   private void drawRightCornerShadow(Graphics g, int x, int y, boolean flip, Color backgroundColor) {
+    if (canUseTiles())
+      drawTile(g, getTile(g, RIGHT_CORNER_TILE, flip, backgroundColor), 0, shadowSize, x, x + shadowSize, y, flip);
+    else
+      drawRightCornerShadowLines(g, x, y, flip, backgroundColor);
+  }
+
+  private void drawRightCornerShadowLines(Graphics g, int x, int y, boolean flip, Color backgroundColor) {
     g.setColor(getShadowColor(backgroundColor));
 
     for (int i = 0; i < shadowSize - shadowBlendSize; i++) {
@@ -377,6 +457,24 @@ public class ShadowPainter {
     if (startX + (cornerStart ? 0 : shadowSize + shadowBlendSize) >= endX)
       return;
 
+    // The lines of a corner start shorter than the shadow size are drawn backwards, so those are drawn as lines
+    int startWidth = cornerStart ? shadowSize + (vertical ? 1 : 0) : shadowSize + shadowBlendSize;
+
+    if (canUseTiles() && startX + startWidth <= endX) {
+      Image tile = getTile(g, cornerStart ? CORNER_START_EDGE_TILE : EDGE_TILE, vertical, backgroundColor);
+
+      if (cornerStart)
+        drawTile(g, tile, 0, startWidth, startX, startX + startWidth, y, vertical);
+
+      if (startX + startWidth < endX)
+        drawTile(g, tile, startWidth, startWidth + 1, startX + startWidth, endX, y, vertical);
+    }
+    else
+      drawEdgeShadowLines(g, startX, endX, y, cornerStart, vertical, backgroundColor);
+  }
+
+  private void drawEdgeShadowLines(Graphics g, int startX, int endX, int y, boolean cornerStart, boolean vertical,
+                                   Color backgroundColor) {
     g.setColor(getShadowColor(backgroundColor));
 
     for (int i = 0; i < shadowSize - shadowBlendSize; i++) {
@@ -417,6 +515,84 @@ public class ShadowPainter {
     }
   }
 */
+  private boolean canUseTiles() {
+    return shadowBlendSize >= 0 && shadowBlendSize <= shadowSize;
+  }
+
+  /**
+   * Draws the columns startColumn to endColumn of a tile stretched from x1 to x2. The tile is transposed if flip is
+   * true.
+   */
+  private void drawTile(Graphics g, Image tile, int startColumn, int endColumn, int x1, int x2, int y, boolean flip) {
+    if (flip)
+      g.drawImage(tile, y, x1, y + shadowSize, x2, 0, startColumn, shadowSize, endColumn, null);
+    else
+      g.drawImage(tile, x1, y, x2, y + shadowSize, startColumn, 0, endColumn, shadowSize, null);
+  }
+
+  private Image getTile(Graphics g, int type, boolean flip, Color backgroundColor) {
+    GraphicsConfiguration configuration = g instanceof Graphics2D ? ((Graphics2D) g).getDeviceConfiguration() : null;
+
+    synchronized (tiles) {
+      lookupKey.configuration = configuration;
+      lookupKey.type = type;
+      lookupKey.flip = flip;
+      lookupKey.shadowSize = shadowSize;
+      lookupKey.shadowBlendSize = shadowBlendSize;
+      lookupKey.shadowColor = shadowColor.getRGB();
+      lookupKey.shadowStrength = Float.floatToIntBits(shadowStrength);
+      lookupKey.hasBackgroundColor = backgroundColor != null;
+      lookupKey.backgroundColor = backgroundColor == null ? 0 : backgroundColor.getRGB();
+
+      Image tile = (Image) tiles.get(lookupKey);
+
+      if (tile == null) {
+        tile = createTile(configuration, type, flip, backgroundColor);
+
+        TileKey key = new TileKey();
+        key.set(lookupKey);
+        tiles.put(key, tile);
+
+        if (tiles.size() > MAX_TILE_COUNT) {
+          Iterator it = tiles.keySet().iterator();
+          it.next();
+          it.remove();
+        }
+      }
+
+      return tile;
+    }
+  }
+
+  private Image createTile(GraphicsConfiguration configuration, int type, boolean flip, Color backgroundColor) {
+    int width = type == LEFT_CORNER_TILE ? shadowSize + shadowBlendSize :
+                type == RIGHT_CORNER_TILE ? shadowSize :
+                type == EDGE_TILE ? shadowSize + shadowBlendSize + 1 :
+                shadowSize + (flip ? 1 : 0) + 1;
+    int imageWidth = Math.max(1, flip ? shadowSize : width);
+    int imageHeight = Math.max(1, flip ? width : shadowSize);
+    BufferedImage image = configuration == null ?
+                          new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_ARGB) :
+                          configuration.createCompatibleImage(imageWidth, imageHeight, Transparency.TRANSLUCENT);
+    Graphics g = image.createGraphics();
+
+    try {
+      // The shadow is drawn onto a transparent image, blending it onto the panel gives the same result as drawing
+      // the lines directly
+      if (type == LEFT_CORNER_TILE)
+        drawLeftCornerShadowLines(g, 0, 0, flip, backgroundColor);
+      else if (type == RIGHT_CORNER_TILE)
+        drawRightCornerShadowLines(g, 0, 0, flip, backgroundColor);
+      else
+        drawEdgeShadowLines(g, 0, width, 0, type == CORNER_START_EDGE_TILE, flip, backgroundColor);
+    }
+    finally {
+      g.dispose();
+    }
+
+    return image;
+  }
+
   private static void drawLine(Graphics g, int x1, int y1, int x2, int y2, boolean flip) {
     if (flip)
       GraphicsUtil.drawOptimizedLine(g, y1, x1, y2, x2);
@@ -26,6 +26,7 @@ package net.infonode.tabbedpanel.titledtab;
 import java.awt.*;
 import java.awt.event.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Set;
 
@@ -48,6 +49,7 @@ import net.infonode.gui.hover.HoverListener;
 import net.infonode.gui.hover.hoverable.HoverManager;
 import net.infonode.gui.hover.hoverable.Hoverable;
 import net.infonode.gui.icon.IconProvider;
+import net.infonode.gui.layout.LayoutUtil;
 import net.infonode.gui.layout.StackableLayout;
 import net.infonode.gui.panel.SimplePanel;
 import net.infonode.gui.shaped.panel.ShapedPanel;
@@ -102,36 +104,167 @@ public class TitledTab extends Tab implements IconProvider {
   private static PanelUI UI = new PanelUI() {
   };
 
-  private class StatePanel extends SimplePanel {
+  /**
+   * The text and icon label of a state. Its height includes the text and the state icon even if one of them isn't
+   * shown.
+   */
+  private static class StateLabel extends RotatableLabel {
+    private static final long serialVersionUID = 1;
+
+    private Icon icon;
+
+    StateLabel() {
+      super(null, null);
+    }
+
+    public Dimension getPreferredSize() {
+      Dimension d = super.getPreferredSize();
+      String text = this.getText();
+      Icon tmpIcon = this.getIcon();
+
+      if (text == null || tmpIcon == null) {
+        this.setText(" ");
+        this.setIcon(icon);
+        if (getDirection().isHorizontal())
+          d = new Dimension(d.width, super.getPreferredSize().height);
+        else
+          d = new Dimension(super.getPreferredSize().width, d.height);
+
+        this.setText(text);
+        this.setIcon(tmpIcon);
+      }
+
+      return d;
+    }
+
+    void setStateIcon(Icon icon, boolean visible) {
+      this.icon = icon;
+      setIcon(visible ? icon : null);
+    }
+
+    void update(TitledTabStateProperties stateProperties) {
+      setText(stateProperties.getTextVisible() ? stateProperties.getText() : null);
+      setStateIcon(stateProperties.getIcon(), stateProperties.getIconVisible());
+      setIconTextGap(stateProperties.getIconTextGap());
+      setDirection(stateProperties.getDirection());
+
+      Alignment alignment = stateProperties.getIconTextRelativeAlignment();
+      setHorizontalTextPosition(alignment == Alignment.LEFT ? JLabel.RIGHT :
+        JLabel.LEFT);
+
+      alignment = stateProperties.getHorizontalAlignment();
+      setHorizontalAlignment(alignment == Alignment.LEFT ? JLabel.LEFT :
+        alignment == Alignment.CENTER ? JLabel.CENTER :
+          JLabel.RIGHT);
+
+      alignment = stateProperties.getVerticalAlignment();
+      setVerticalAlignment(alignment == Alignment.TOP ? JLabel.TOP :
+        alignment == Alignment.CENTER ? JLabel.CENTER :
+          JLabel.BOTTOM);
+
+      setFont(stateProperties.getComponentProperties().getFont());
+    }
+  }
+
+  /**
+   * Calculates the size of a state panel that hasn't been created. It has the same components as a state panel, with
+   * a placeholder for the title component. One calculator is shared by all tabs, so it's only used on the event
+   * dispatch thread.
+   */
+  private static class StateSizeCalculator {
+    private final SimplePanel statePanel = new SimplePanel();
     private final ShapedPanel panel = new ShapedPanel();
     private final SimplePanel titleComponentPanel = new SimplePanel();
-    private final RotatableLabel label = new RotatableLabel(null, null) {
-      public Dimension getPreferredSize() {
-        Dimension d = super.getPreferredSize();
-        String text = this.getText();
-        Icon tmpIcon = this.getIcon();
-
-        if (text == null || tmpIcon == null) {
-          this.setText(" ");
-          this.setIcon(icon);
-          if (getDirection().isHorizontal())
-            d = new Dimension(d.width, super.getPreferredSize().height);
-          else
-            d = new Dimension(super.getPreferredSize().width, d.height);
-
-          this.setText(text);
-          this.setIcon(tmpIcon);
-        }
+    private final SimplePanel titleComponentPlaceholder = new SimplePanel();
+    private final StateLabel label = new StateLabel();
 
-        return d;
+    StateSizeCalculator() {
+      label.setMinimumSize(new Dimension(0, 0));
+      panel.add(label, BorderLayout.CENTER);
+      statePanel.add(panel, BorderLayout.CENTER);
+      titleComponentPanel.add(titleComponentPlaceholder, BorderLayout.CENTER);
+    }
+
+    Dimension getSize(TitledTab tab,
+                      TitledTabStateProperties stateProperties,
+                      JComponent titleComponent,
+                      Border outerBorder,
+                      Border innerBorder,
+                      boolean minimum) {
+      label.setBorder(tab.focusBorder);
+      label.update(stateProperties);
+      tab.updateShapedPanel(panel, stateProperties);
+      statePanel.setBorder(outerBorder);
+      panel.setBorder(innerBorder);
+      panel.remove(titleComponentPanel);
+
+      if (titleComponent != null && stateProperties.getTitleComponentVisible()) {
+        titleComponentPlaceholder.setPreferredSize(titleComponent.getPreferredSize());
+        titleComponentPlaceholder.setMinimumSize(titleComponent.getMinimumSize());
+        addTitleComponentPanel(panel,
+                               titleComponentPanel,
+                               stateProperties.getDirection(),
+                               stateProperties.getTitleComponentTextRelativeAlignment(),
+                               getTitleComponentGap(stateProperties));
       }
-    };
+
+      try {
+        return minimum ? statePanel.getMinimumSize() : statePanel.getPreferredSize();
+      }
+      finally {
+        // Don't keep references to the tab
+        label.setBorder(null);
+        label.setText(null);
+        label.setStateIcon(null, false);
+        statePanel.setBorder(null);
+        panel.setBorder(null);
+      }
+    }
+  }
+
+  private static StateSizeCalculator stateSizeCalculator;
+
+  private static int getTitleComponentGap(TitledTabStateProperties stateProperties) {
+    return stateProperties.getIconVisible() || stateProperties.getTextVisible() ?
+           stateProperties.getTextTitleComponentGap() : 0;
+  }
+
+  private static void addTitleComponentPanel(Container panel,
+                                             JComponent titleComponentPanel,
+                                             Direction d,
+                                             Alignment alignment,
+                                             int gap) {
+    if (d == Direction.UP) {
+      panel.add(titleComponentPanel, alignment == Alignment.LEFT ? BorderLayout.SOUTH : BorderLayout.NORTH);
+      titleComponentPanel.setBorder(
+          new EmptyBorder(alignment == Alignment.LEFT ? gap : 0, 0, alignment == Alignment.LEFT ? 0 : gap, 0));
+    }
+    else if (d == Direction.LEFT) {
+      panel.add(titleComponentPanel, alignment == Alignment.LEFT ? BorderLayout.EAST : BorderLayout.WEST);
+      titleComponentPanel.setBorder(
+          new EmptyBorder(0, alignment == Alignment.LEFT ? gap : 0, 0, alignment == Alignment.LEFT ? 0 : gap));
+    }
+    else if (d == Direction.DOWN) {
+      panel.add(titleComponentPanel, alignment == Alignment.LEFT ? BorderLayout.NORTH : BorderLayout.SOUTH);
+      titleComponentPanel.setBorder(
+          new EmptyBorder(alignment == Alignment.LEFT ? 0 : gap, 0, alignment == Alignment.LEFT ? gap : 0, 0));
+    }
+    else {
+      panel.add(titleComponentPanel, alignment == Alignment.LEFT ? BorderLayout.WEST : BorderLayout.EAST);
+      titleComponentPanel.setBorder(
+          new EmptyBorder(0, alignment == Alignment.LEFT ? 0 : gap, 0, alignment == Alignment.LEFT ? gap : 0));
+    }
+  }
+
+  private class StatePanel extends SimplePanel {
+    private final ShapedPanel panel = new ShapedPanel();
+    private final SimplePanel titleComponentPanel = new SimplePanel();
+    private final StateLabel label = new StateLabel();
     private JComponent titleComponent;
     private Direction currentLayoutDirection;
     private int currentLayoutGap = -1;
     private Alignment currentLayoutAlignment;
     private String toolTipText;
-    private Icon icon;
 
     public StatePanel(Border focusBorder) {
       super(new BorderLayout());
@@ -230,11 +363,7 @@ public class TitledTab extends Tab implements IconProvider {
     private void updateLayout(TitledTabStateProperties stateProperties, boolean titleComponentChanged) {
       if (titleComponent != null && stateProperties.getTitleComponentVisible()) {
         Direction d = stateProperties.getDirection();
-        int gap;
-        if (stateProperties.getIconVisible() || stateProperties.getTextVisible())
-          gap = stateProperties.getTextTitleComponentGap();
-        else
-          gap = 0;
+        int gap = getTitleComponentGap(stateProperties);
         Alignment alignment = stateProperties.getTitleComponentTextRelativeAlignment();
         if (titleComponentPanel.getComponentCount() == 0 ||
             (titleComponentPanel.getComponentCount() > 0 && titleComponentPanel.getComponent(0) != titleComponent) ||
@@ -248,27 +377,7 @@ public class TitledTab extends Tab implements IconProvider {
           currentLayoutAlignment = alignment;
 
           panel.remove(titleComponentPanel);
-          if (d == Direction.UP) {
-            panel.add(titleComponentPanel, alignment == Alignment.LEFT ? BorderLayout.SOUTH : BorderLayout.NORTH);
-            titleComponentPanel.setBorder(
-                new EmptyBorder(alignment == Alignment.LEFT ? gap : 0, 0, alignment == Alignment.LEFT ? 0 : gap, 0));
-          }
-          else if (d == Direction.LEFT) {
-            panel.add(titleComponentPanel, alignment == Alignment.LEFT ? BorderLayout.EAST : BorderLayout.WEST);
-            titleComponentPanel.setBorder(
-                new EmptyBorder(0, alignment == Alignment.LEFT ? gap : 0, 0, alignment == Alignment.LEFT ? 0 : gap));
-          }
-          else if (d == Direction.DOWN) {
-            panel.add(titleComponentPanel, alignment == Alignment.LEFT ? BorderLayout.NORTH : BorderLayout.SOUTH);
-            titleComponentPanel.setBorder(
-                new EmptyBorder(alignment == Alignment.LEFT ? 0 : gap, 0, alignment == Alignment.LEFT ? gap : 0, 0));
-          }
-          else {
-            panel.add(titleComponentPanel, alignment == Alignment.LEFT ? BorderLayout.WEST : BorderLayout.EAST);
-            titleComponentPanel.setBorder(
-                new EmptyBorder(0, alignment == Alignment.LEFT ? 0 : gap, 0, alignment == Alignment.LEFT ? gap : 0));
-          }
-
+          addTitleComponentPanel(panel, titleComponentPanel, d, alignment, gap);
           panel.revalidate();
         }
       }
@@ -281,13 +390,7 @@ public class TitledTab extends Tab implements IconProvider {
     }
 
     public void updateShapedPanel(TitledTabStateProperties stateProperties) {
-      Direction tabAreaOrientation = getTabAreaOrientation();
-      ShapedPanelProperties shapedPanelProperties = stateProperties.getShapedPanelProperties();
-      InternalPropertiesUtil.applyTo(shapedPanelProperties, panel, tabAreaOrientation.getNextCW());
-      panel
-      .setHorizontalFlip(tabAreaOrientation == Direction.DOWN || tabAreaOrientation == Direction.LEFT ? !shapedPanelProperties
-                                                                                                      .getHorizontalFlip()
-                                                                                                      : shapedPanelProperties.getHorizontalFlip());
+      TitledTab.this.updateShapedPanel(panel, stateProperties);
     }
 
     public void setBorders(Border outerBorder, Border innerBorder) {
@@ -299,28 +402,7 @@ public class TitledTab extends Tab implements IconProvider {
       boolean updateBorders = false;
 
       if (changes == null) {
-        label.setText(stateProperties.getTextVisible() ? stateProperties.getText() : null);
-
-        icon = stateProperties.getIcon();
-        label.setIcon(stateProperties.getIconVisible() ? stateProperties.getIcon() : null);
-
-        label.setIconTextGap(stateProperties.getIconTextGap());
-
-        label.setDirection(stateProperties.getDirection());
-
-        Alignment alignment = stateProperties.getIconTextRelativeAlignment();
-        label.setHorizontalTextPosition(alignment == Alignment.LEFT ? JLabel.RIGHT :
-          JLabel.LEFT);
-
-        alignment = stateProperties.getHorizontalAlignment();
-        label.setHorizontalAlignment(alignment == Alignment.LEFT ? JLabel.LEFT :
-          alignment == Alignment.CENTER ? JLabel.CENTER :
-            JLabel.RIGHT);
-
-        alignment = stateProperties.getVerticalAlignment();
-        label.setVerticalAlignment(alignment == Alignment.TOP ? JLabel.TOP :
-          alignment == Alignment.CENTER ? JLabel.CENTER :
-            JLabel.BOTTOM);
+        label.update(stateProperties);
 
         toolTipText = stateProperties.getToolTipEnabled() ? stateProperties.getToolTipText() : null;
         if (toolTipText != null && toolTipText.length() == 0)
@@ -331,8 +413,6 @@ public class TitledTab extends Tab implements IconProvider {
         updateLayout(stateProperties, true);
 
         ComponentProperties componentProperties = stateProperties.getComponentProperties();
-        label.setFont(componentProperties.getFont());
-
         Color c = componentProperties.getForegroundColor();
         label.setForeground(c);
         setForeground(c);
@@ -351,8 +431,7 @@ public class TitledTab extends Tab implements IconProvider {
           }
 
           if (keySet.contains(TitledTabStateProperties.ICON) || keySet.contains(TitledTabStateProperties.ICON_VISIBLE)) {
-            icon = stateProperties.getIcon();
-            label.setIcon(stateProperties.getIconVisible() ? stateProperties.getIcon() : null);
+            label.setStateIcon(stateProperties.getIcon(), stateProperties.getIconVisible());
           }
 
           if (keySet.contains(TitledTabStateProperties.ICON_TEXT_GAP)) {
@@ -487,8 +566,23 @@ public class TitledTab extends Tab implements IconProvider {
   }
 
   private final StatePanel normalStatePanel;
-  private final StatePanel highlightedStatePanel;
-  private final StatePanel disabledStatePanel;
+
+  /**
+   * The highlighted and disabled state panels are created when they are shown. Until then their sizes are calculated
+   * by the shared {@link StateSizeCalculator}.
+   */
+  private StatePanel highlightedStatePanel;
+  private StatePanel disabledStatePanel;
+
+  /**
+   * The preferred and minimum sizes of the highlighted and disabled states, cleared when the tab is invalidated
+   */
+  private final Dimension[] stateSizes = new Dimension[4];
+  private JComponent highlightedStateTitleComponent;
+  private JComponent disabledStateTitleComponent;
+  private Border normalBorder;
+  private Border innerHighlightBorder;
+  private Border innerDisabledBorder;
 
   private ArrayList mouseListeners;
   private ArrayList mouseMotionListeners;
@@ -550,11 +644,21 @@ public class TitledTab extends Tab implements IconProvider {
 
     focusBorder = new FocusBorder(this);
     normalStatePanel = new StatePanel(focusBorder);
-    highlightedStatePanel = new StatePanel(focusBorder);
-    disabledStatePanel = new StatePanel(focusBorder);
-
 
     layout = new StackableLayout(this) {
+      public Dimension preferredLayoutSize(Container parent) {
+        Dimension size = super.preferredLayoutSize(parent);
+        return usesSelectedComponentSize() ? size : addStateSizes(size, false);
+      }
+
+      public Dimension minimumLayoutSize(Container parent) {
+        return addStateSizes(super.minimumLayoutSize(parent), true);
+      }
+
+      public void invalidateLayout(Container target) {
+        Arrays.fill(stateSizes, null);
+      }
+
       public void layoutContainer(Container parent) {
         super.layoutContainer(parent);
         StatePanel visibleStatePanel = (StatePanel) getVisibleComponent();
@@ -565,8 +669,6 @@ public class TitledTab extends Tab implements IconProvider {
     setLayout(layout);
 
     add(normalStatePanel);
-    add(highlightedStatePanel);
-    add(disabledStatePanel);
 
     setText(text);
     setIcon(icon);
@@ -704,7 +806,7 @@ public class TitledTab extends Tab implements IconProvider {
    * @return title component or null if no title component
    */
   public JComponent getHighlightedStateTitleComponent() {
-    return highlightedStatePanel.getTitleComponent();
+    return highlightedStateTitleComponent;
   }
 
   /**
@@ -713,7 +815,7 @@ public class TitledTab extends Tab implements IconProvider {
    * @return title component or null if no title component
    */
   public JComponent getDisabledStateTitleComponent() {
-    return disabledStatePanel.getTitleComponent();
+    return disabledStateTitleComponent;
   }
 
   /**
@@ -725,9 +827,9 @@ public class TitledTab extends Tab implements IconProvider {
    * @param titleComponent the title component or null for no title component
    */
   public void setTitleComponent(JComponent titleComponent) {
-    normalStatePanel.setTitleComponent(titleComponent, properties.getNormalProperties());
-    highlightedStatePanel.setTitleComponent(titleComponent, properties.getHighlightedProperties());
-    disabledStatePanel.setTitleComponent(titleComponent, properties.getDisabledProperties());
+    setNormalStateTitleComponent(titleComponent);
+    setHighlightedStateTitleComponent(titleComponent);
+    setDisabledStateTitleComponent(titleComponent);
   }
 
   /**
@@ -745,7 +847,12 @@ public class TitledTab extends Tab implements IconProvider {
    * @param titleComponent the title component or null for no title component
    */
   public void setHighlightedStateTitleComponent(JComponent titleComponent) {
-    highlightedStatePanel.setTitleComponent(titleComponent, properties.getHighlightedProperties());
+    highlightedStateTitleComponent = titleComponent;
+
+    if (highlightedStatePanel != null)
+      highlightedStatePanel.setTitleComponent(titleComponent, properties.getHighlightedProperties());
+    else
+      revalidate();
   }
 
   /**
@@ -754,7 +861,12 @@ public class TitledTab extends Tab implements IconProvider {
    * @param titleComponent the title component or null for no title component
    */
   public void setDisabledStateTitleComponent(JComponent titleComponent) {
-    disabledStatePanel.setTitleComponent(titleComponent, properties.getDisabledProperties());
+    disabledStateTitleComponent = titleComponent;
+
+    if (disabledStatePanel != null)
+      disabledStatePanel.setTitleComponent(titleComponent, properties.getDisabledProperties());
+    else
+      revalidate();
   }
 
   /**
@@ -967,7 +1079,7 @@ public class TitledTab extends Tab implements IconProvider {
     Direction tabAreaOrientation = getTabAreaOrientation();
     int raised = properties.getHighlightedRaised();
     Insets notRaised = InsetsUtil.setInset(InsetsUtil.EMPTY_INSETS, tabAreaOrientation, raised);
-    Border normalBorder = new EmptyBorder(notRaised);
+    normalBorder = new EmptyBorder(notRaised);
 
     Insets maxInsets = properties.getBorderSizePolicy() == TitledTabBorderSizePolicy.INDIVIDUAL_SIZE ?
                                                                                                       null :
@@ -995,18 +1107,133 @@ public class TitledTab extends Tab implements IconProvider {
         tabAreaOrientation,
         -normalLowered,
         maxInsets);
-    Border innerHighlightBorder = getInnerBorder(properties.getHighlightedProperties(),
+    innerHighlightBorder = getInnerBorder(properties.getHighlightedProperties(),
         tabAreaOrientation,
         raised - normalLowered,
         maxInsets);
-    Border innerDisabledBorder = getInnerBorder(properties.getDisabledProperties(),
+    innerDisabledBorder = getInnerBorder(properties.getDisabledProperties(),
         tabAreaOrientation,
         -normalLowered,
         maxInsets);
 
     normalStatePanel.setBorders(normalBorder, innerNormalBorder);
-    highlightedStatePanel.setBorders(null, innerHighlightBorder);
-    disabledStatePanel.setBorders(normalBorder, innerDisabledBorder);
+
+    if (highlightedStatePanel != null)
+      highlightedStatePanel.setBorders(null, innerHighlightBorder);
+
+    if (disabledStatePanel != null)
+      disabledStatePanel.setBorders(normalBorder, innerDisabledBorder);
+
+    if (highlightedStatePanel == null || disabledStatePanel == null)
+      revalidate();
+  }
+
+  private StatePanel getHighlightedStatePanel() {
+    if (highlightedStatePanel == null) {
+      highlightedStatePanel = createStatePanel(properties.getHighlightedProperties(), highlightedStateTitleComponent);
+      highlightedStatePanel.setBorders(null, innerHighlightBorder);
+    }
+
+    return highlightedStatePanel;
+  }
+
+  private StatePanel getDisabledStatePanel() {
+    if (disabledStatePanel == null) {
+      disabledStatePanel = createStatePanel(properties.getDisabledProperties(), disabledStateTitleComponent);
+      disabledStatePanel.setBorders(normalBorder, innerDisabledBorder);
+    }
+
+    return disabledStatePanel;
+  }
+
+  private StatePanel createStatePanel(TitledTabStateProperties stateProperties, JComponent titleComponent) {
+    StatePanel statePanel = new StatePanel(focusBorder);
+    add(statePanel);
+    statePanel.setTitleComponent(titleComponent, stateProperties);
+    statePanel.updateState(null, stateProperties);
+    return statePanel;
+  }
+
+  /**
+   * Returns a size that also fits the states whose panels haven't been created.
+   */
+  private Dimension addStateSizes(Dimension size, boolean minimum) {
+    if (highlightedStatePanel == null)
+      size = max(size, getStateSize(minimum ? 1 : 0,
+                                    properties.getHighlightedProperties(),
+                                    highlightedStateTitleComponent,
+                                    null,
+                                    innerHighlightBorder,
+                                    minimum));
+
+    if (disabledStatePanel == null)
+      size = max(size, getStateSize(minimum ? 3 : 2,
+                                    properties.getDisabledProperties(),
+                                    disabledStateTitleComponent,
+                                    normalBorder,
+                                    innerDisabledBorder,
+                                    minimum));
+
+    return size;
+  }
+
+  private Dimension getStateSize(int index,
+                                 TitledTabStateProperties stateProperties,
+                                 JComponent titleComponent,
+                                 Border outerBorder,
+                                 Border innerBorder,
+                                 boolean minimum) {
+    if (stateSizes[index] == null) {
+      if (stateSizeCalculator == null)
+        stateSizeCalculator = new StateSizeCalculator();
+
+      stateSizes[index] = stateSizeCalculator.getSize(this,
+                                                      stateProperties,
+                                                      titleComponent,
+                                                      outerBorder,
+                                                      innerBorder,
+                                                      minimum);
+    }
+
+    // The minimum size provider is applied like in a state panel
+    return LayoutUtil.add(normalStatePanel.getAdjustedSize(stateSizes[index]), getInsets());
+  }
+
+  private static Dimension max(Dimension d1, Dimension d2) {
+    return new Dimension(Math.max(d1.width, d2.width), Math.max(d1.height, d2.height));
+  }
+
+  private void updateShapedPanel(ShapedPanel panel, TitledTabStateProperties stateProperties) {
+    Direction tabAreaOrientation = getTabAreaOrientation();
+    ShapedPanelProperties shapedPanelProperties = stateProperties.getShapedPanelProperties();
+    InternalPropertiesUtil.applyTo(shapedPanelProperties, panel, tabAreaOrientation.getNextCW());
+    panel
+    .setHorizontalFlip(tabAreaOrientation == Direction.DOWN || tabAreaOrientation == Direction.LEFT ? !shapedPanelProperties
+                                                                                                    .getHorizontalFlip()
+                                                                                                    : shapedPanelProperties.getHorizontalFlip());
+  }
+
+  /**
+   * Returns true if the changes of the state properties affects the borders, used for state panels that aren't
+   * created.
+   */
+  private static boolean isBorderChange(Map changes, TitledTabStateProperties stateProperties) {
+    Map m = (Map) changes.get(stateProperties.getMap());
+
+    if (m != null && m.containsKey(TitledTabStateProperties.DIRECTION))
+      return true;
+
+    m = (Map) changes.get(stateProperties.getComponentProperties().getMap());
+    return m != null && (m.containsKey(ComponentProperties.INSETS) || m.containsKey(ComponentProperties.BORDER));
+  }
+
+  /**
+   * Returns true if the changes affect the state properties, used for state panels that aren't created.
+   */
+  private static boolean isStateChange(Map changes, TitledTabStateProperties stateProperties) {
+    return changes.containsKey(stateProperties.getMap()) ||
+           changes.containsKey(stateProperties.getComponentProperties().getMap()) ||
+           changes.containsKey(stateProperties.getShapedPanelProperties().getMap());
   }
 
   private void doUpdateTab(Map changes) {
@@ -1057,8 +1284,21 @@ public class TitledTab extends Tab implements IconProvider {
     }
 
     updateBorders = normalStatePanel.updateState(changes, properties.getNormalProperties()) || updateBorders;
-    updateBorders = highlightedStatePanel.updateState(changes, properties.getHighlightedProperties()) || updateBorders;
-    updateBorders = disabledStatePanel.updateState(changes, properties.getDisabledProperties()) || updateBorders;
+
+    if (highlightedStatePanel != null)
+      updateBorders = highlightedStatePanel.updateState(changes, properties.getHighlightedProperties()) ||
+                      updateBorders;
+    else if (changes != null && isStateChange(changes, properties.getHighlightedProperties())) {
+      updateBorders = isBorderChange(changes, properties.getHighlightedProperties()) || updateBorders;
+      revalidate();
+    }
+
+    if (disabledStatePanel != null)
+      updateBorders = disabledStatePanel.updateState(changes, properties.getDisabledProperties()) || updateBorders;
+    else if (changes != null && isStateChange(changes, properties.getDisabledProperties())) {
+      updateBorders = isBorderChange(changes, properties.getDisabledProperties()) || updateBorders;
+      revalidate();
+    }
 
     if (updateBorders)
       updateBorders();
@@ -1106,17 +1346,21 @@ public class TitledTab extends Tab implements IconProvider {
       updateBorders();
 
       normalStatePanel.updateShapedPanel(properties.getNormalProperties());
-      highlightedStatePanel.updateShapedPanel(properties.getHighlightedProperties());
-      disabledStatePanel.updateShapedPanel(properties.getDisabledProperties());
+
+      if (highlightedStatePanel != null)
+        highlightedStatePanel.updateShapedPanel(properties.getHighlightedProperties());
+
+      if (disabledStatePanel != null)
+        disabledStatePanel.updateShapedPanel(properties.getDisabledProperties());
     }
   }
 
   private void updateCurrentStatePanel() {
     StatePanel newStatePanel = normalStatePanel;
     if (!isEnabled())
-      newStatePanel = disabledStatePanel;
+      newStatePanel = getDisabledStatePanel();
     else if (isHighlighted())
-      newStatePanel = highlightedStatePanel;
+      newStatePanel = getHighlightedStatePanel();
 
     eventPanel.setToolTipText(newStatePanel.getToolTipText());
 
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2004 NNL Technology AB
+ * Visit www.infonode.net for information about InfoNode(R) 
+ * products and how to contact NNL Technology AB.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, 
+ * MA 02111-1307, USA.
+ */
+
+// $Id$
+package net.infonode.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+
+/**
+ * An object input stream that reads data written by a {@link CompactObjectOutputStream}.
+ *
+ * @author $Author$
+ * @version $Revision$
+ * @since IDW 1.7.0
+ */
+public class CompactObjectInputStream extends ObjectInputStream {
+  private ArrayList stringTable = new ArrayList();
+
+  /**
+   * Creates a compact object input stream that reads from the specified input stream.
+   *
+   * @param in the input stream to read from
+   * @throws IOException if an I/O error occurs while reading the stream header
+   */
+  public CompactObjectInputStream(InputStream in) throws IOException {
+    super(in);
+  }
+
+  public int readInt() throws IOException {
+    int value = readVarInt();
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  public short readShort() throws IOException {
+    return (short) readInt();
+  }
+
+  public String readUTF() throws IOException {
+    int index = readVarInt();
+
+    if (index == 0) {
+      String str = super.readUTF();
+      stringTable.add(str);
+      return str;
+    }
+
+    if (index > stringTable.size())
+      throw new StreamCorruptedException("Invalid string table index " + index);
+
+    return (String) stringTable.get(index - 1);
+  }
+
+  private int readVarInt() throws IOException {
+    int value = 0;
+
+    for (int shift = 0; shift < 32; shift += 7) {
+      int b = super.readByte();
+      value |= (b & 0x7F) << shift;
+
+      if ((b & 0x80) == 0)
+        return value;
+    }
+
+    throw new StreamCorruptedException("Invalid variable length integer");
+  }
+}
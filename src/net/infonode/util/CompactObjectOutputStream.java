@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2004 NNL Technology AB
+ * Visit www.infonode.net for information about InfoNode(R) 
+ * products and how to contact NNL Technology AB.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, 
+ * MA 02111-1307, USA.
+ */
+
+// $Id$
+package net.infonode.util;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+
+/**
+ * An object output stream that writes ints and shorts as variable length integers and replaces repeated UTF strings
+ * with indexes into a string table. Objects are serialized as in a normal object output stream. The data must be
+ * read with a {@link CompactObjectInputStream}.
+ *
+ * @author $Author$
+ * @version $Revision$
+ * @since IDW 1.7.0
+ */
+public class CompactObjectOutputStream extends ObjectOutputStream {
+  private HashMap stringTable = new HashMap();
+
+  /**
+   * Creates a compact object output stream that writes to the specified output stream.
+   *
+   * @param out the output stream to write to
+   * @throws IOException if an I/O error occurs while writing the stream header
+   */
+  public CompactObjectOutputStream(OutputStream out) throws IOException {
+    super(out);
+  }
+
+  public void writeInt(int value) throws IOException {
+    writeVarInt((value << 1) ^ (value >> 31));
+  }
+
+  public void writeShort(int value) throws IOException {
+    writeInt((short) value);
+  }
+
+  /**
+   * Writes a string. The first time a string is written it's added to the string table, after that only the index
+   * of the string in the table is written.
+   *
+   * @param str the string
+   * @throws IOException if an I/O error occurs
+   */
+  public void writeUTF(String str) throws IOException {
+    Integer index = (Integer) stringTable.get(str);
+
+    if (index == null) {
+      writeVarInt(0);
+      super.writeUTF(str);
+      stringTable.put(str, Integer.valueOf(stringTable.size() + 1));
+    }
+    else
+      writeVarInt(index.intValue());
+  }
+
+  private void writeVarInt(int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      super.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+
+    super.writeByte(value);
+  }
+}
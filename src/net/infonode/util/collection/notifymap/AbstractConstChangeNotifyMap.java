@@ -28,7 +28,6 @@ import net.infonode.util.collection.map.SingleValueMap;
 import net.infonode.util.collection.map.base.ConstMap;
 import net.infonode.util.signal.Signal;
 import net.infonode.util.signal.SignalHook;
-import net.infonode.util.signal.SignalListener;
 
 abstract public class AbstractConstChangeNotifyMap implements ConstChangeNotifyMap {
   private Signal changeSignal = new Signal() {
@@ -40,14 +39,12 @@ abstract public class AbstractConstChangeNotifyMap implements ConstChangeNotifyM
       AbstractConstChangeNotifyMap.this.lastListenerRemoved();
     }
 
-    protected synchronized void removeListener(int index) {
-      super.removeListener(index);
-      listenerRemoved();
+    protected void listenerRemoved() {
+      AbstractConstChangeNotifyMap.this.listenerRemoved();
     }
 
-    public synchronized void addListener(SignalListener listener) {
-      super.addListener(listener);
-      listenerAdded();
+    protected void listenerAdded() {
+      AbstractConstChangeNotifyMap.this.listenerAdded();
     }
   };
 
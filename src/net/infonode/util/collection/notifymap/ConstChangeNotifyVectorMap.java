@@ -36,6 +36,7 @@ import java.util.ArrayList;
 public class ConstChangeNotifyVectorMap extends AbstractConstChangeNotifyMap {
   private ConstVectorMap vectorMap = new ConstVectorMap();
   private ArrayList mapListeners;
+  private boolean weakMapListeners;
 
   protected void firstListenerAdded() {
     mapListeners = new ArrayList(vectorMap.getMapCount() + 2);
@@ -53,6 +54,35 @@ public class ConstChangeNotifyVectorMap extends AbstractConstChangeNotifyMap {
     mapListeners = null;
   }
 
+  /**
+   * Sets if the listeners added to the maps in this vector map are weak. Weak listeners don't keep this map alive
+   * when it's only reachable from the maps it listens to.
+   *
+   * @param weak true if the listeners should be weak
+   * @since IDW 1.7.0
+   */
+  public void setWeakMapListeners(boolean weak) {
+    if (weak == weakMapListeners)
+      return;
+
+    weakMapListeners = weak;
+
+    if (mapListeners != null) {
+      for (int i = 0; i < mapListeners.size(); i++) {
+        SignalListener listener = (SignalListener) mapListeners.get(i);
+        getMap(i).getChangeSignal().remove(listener);
+        addListener(getMap(i), listener);
+      }
+    }
+  }
+
+  private void addListener(ConstChangeNotifyMap map, SignalListener listener) {
+    if (weakMapListeners)
+      map.getChangeSignal().addWeak(listener);
+    else
+      map.getChangeSignal().add(listener);
+  }
+
   private Object getValue(Object key, int fromIndex, int toIndex) {
     for (int i = fromIndex; i < toIndex; i++) {
       Object value = getMap(i).get(key);
@@ -125,7 +155,7 @@ public class ConstChangeNotifyVectorMap extends AbstractConstChangeNotifyMap {
     };
 
     mapListeners.add(index, mapListener);
-    map.getChangeSignal().add(mapListener);
+    addListener(map, mapListener);
   }
 
   private void removeMapListener(int index) {
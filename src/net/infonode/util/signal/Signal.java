@@ -25,26 +25,29 @@ package net.infonode.util.signal;
 
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Map;
 
 /**
+ * A signal that notifies its listeners when it's emitted. The listeners are stored in an array that is replaced
+ * when a listener is added or removed, so emitting a signal requires no locking or copying.
+ *
  * @author $Author: jesper $
  * @version $Revision: 1.3 $
  */
 public class Signal {
+  private static final SignalListener[] NO_LISTENERS = new SignalListener[0];
+
   private static class WeakListener extends WeakReference<SignalListener> implements SignalListener {
-    private SignalHookImpl hook;
+    private Signal signal;
 
-    protected WeakListener(SignalListener listener, ReferenceQueue q, SignalHookImpl hook) {
+    protected WeakListener(SignalListener listener, ReferenceQueue q, Signal signal) {
       super(listener, q);
-      this.hook = hook;
-    }
-
-    public void remove() {
-      hook.removeWeak(this);
+      this.signal = signal;
     }
 
     public void signalEmitted(Signal signal, Object object) {
@@ -61,16 +64,12 @@ public class Signal {
     }
 
     public void addWeak(SignalListener listener) {
-      addListener(new WeakListener(listener, refQueue, this));
+      addListener(new WeakListener(listener, refQueue, Signal.this));
     }
 
     public boolean remove(SignalListener listener) {
       return removeListener(listener);
     }
-
-    public void removeWeak(WeakListener ref) {
-      removeWeakListener(ref);
-    }
   }
 
   private static ReferenceQueue refQueue = new ReferenceQueue();
@@ -80,7 +79,26 @@ public class Signal {
       public void run() {
         try {
           while (true) {
-            ((WeakListener) refQueue.remove()).remove();
+            // Wait for a cleared listener, then remove all queued listeners with one update per signal
+            WeakListener ref = (WeakListener) refQueue.remove();
+            IdentityHashMap clearedListeners = new IdentityHashMap();
+
+            do {
+              ArrayList list = (ArrayList) clearedListeners.get(ref.signal);
+
+              if (list == null) {
+                list = new ArrayList();
+                clearedListeners.put(ref.signal, list);
+              }
+
+              list.add(ref);
+              ref = (WeakListener) refQueue.poll();
+            } while (ref != null);
+
+            for (Iterator it = clearedListeners.entrySet().iterator(); it.hasNext();) {
+              Map.Entry entry = (Map.Entry) it.next();
+              ((Signal) entry.getKey()).removeListeners((Collection) entry.getValue());
+            }
           }
         }
         catch (InterruptedException e) {
@@ -92,7 +110,7 @@ public class Signal {
   }
 
   private boolean reverseNotifyOrder;
-  private CopyOnWriteArrayList<SignalListener> listeners;
+  private volatile SignalListener[] listeners = NO_LISTENERS;
   private SignalHookImpl signalHook = new SignalHookImpl();
 
   public Signal() {
@@ -109,89 +127,138 @@ public class Signal {
   protected void lastListenerRemoved() {
   }
 
-  public synchronized void addListener(SignalListener listener) {
-    if (listeners == null)
-      listeners = new CopyOnWriteArrayList<SignalListener>();
+  /**
+   * Called after a listener has been added.
+   *
+   * @since IDW 1.7.0
+   */
+  protected void listenerAdded() {
+  }
 
-    listeners.add(listener);
+  /**
+   * Called after a listener has been removed.
+   *
+   * @since IDW 1.7.0
+   */
+  protected void listenerRemoved() {
+  }
+
+  public synchronized void addListener(SignalListener listener) {
+    SignalListener[] l = listeners;
+    SignalListener[] newListeners = new SignalListener[l.length + 1];
+    System.arraycopy(l, 0, newListeners, 0, l.length);
+    newListeners[l.length] = listener;
+    listeners = newListeners;
 
-    if (listeners.size() == 1)
+    if (newListeners.length == 1)
       firstListenerAdded();
+
+    listenerAdded();
   }
 
   public synchronized boolean removeListener(SignalListener listener) {
-    if (listeners != null) {
-      for (int i = 0; i < listeners.size(); i++) {
-        Object o = listeners.get(i);
+    SignalListener[] l = listeners;
 
-        if (o == listener || (o instanceof WeakListener && ((WeakListener) o).get() == listener)) {
-          removeListener(i);
-          return true;
-        }
+    for (int i = 0; i < l.length; i++) {
+      Object o = l[i];
+
+      if (o == listener || (o instanceof WeakListener && ((WeakListener) o).get() == listener)) {
+        removeListener(i);
+        return true;
       }
     }
 
     return false;
   }
 
-  protected synchronized void removeWeakListener(WeakListener listener) {
-    if (listeners != null) {
-      for (int i = 0; i < listeners.size(); i++) {
-        Object o = listeners.get(i);
+  protected synchronized void removeListener(int index) {
+    SignalListener[] l = listeners;
 
-        if (o == listener) {
-          removeListener(i);
-          break;
-        }
-      }
+    if (l.length == 1)
+      listeners = NO_LISTENERS;
+    else {
+      SignalListener[] newListeners = new SignalListener[l.length - 1];
+      System.arraycopy(l, 0, newListeners, 0, index);
+      System.arraycopy(l, index + 1, newListeners, index, newListeners.length - index);
+      listeners = newListeners;
     }
-  }
 
-  protected synchronized void removeListener(int index) {
-    listeners.remove(index);
-
-    if (listeners.size() == 0) {
-      listeners = null;
+    if (listeners.length == 0)
       lastListenerRemoved();
-    }
+
+    listenerRemoved();
   }
 
-  public synchronized boolean hasListeners() {
-    return listeners != null && listeners.size() > 0;
+  public boolean hasListeners() {
+    return listeners.length > 0;
   }
 
-  public synchronized Iterator iterator() {
-    return listeners == null ? Collections.emptyIterator() : listeners.iterator();
+  public Iterator iterator() {
+    return Arrays.asList(listeners).iterator();
   }
 
   public SignalHook getHook() {
     return signalHook;
   }
 
-  public synchronized void emit(Object object) {
-    Object[] e;
-    int size;
-
-    synchronized (this) {
-      if (listeners == null)
-        return;
-
-      e = listeners.toArray();
-      size = listeners.size();
-    }
+  public void emit(Object object) {
+    SignalListener[] l = listeners;
 
     if (reverseNotifyOrder) {
-      for (int i = size - 1; i >= 0; i--)
-        ((SignalListener) e[i]).signalEmitted(this, object);
+      for (int i = l.length - 1; i >= 0; i--)
+        l[i].signalEmitted(this, object);
     }
     else {
-      for (int i = 0; i < size; i++)
-        ((SignalListener) e[i]).signalEmitted(this, object);
+      for (int i = 0; i < l.length; i++)
+        l[i].signalEmitted(this, object);
     }
   }
 
+  /**
+   * Removes all listeners contained in a collection with a single update of the listener array. Listeners are compared
+   * by identity.
+   *
+   * @param toRemove the listeners to remove
+   */
   public void removeListeners(Collection toRemove) {
-    listeners.removeAll(toRemove);
+    IdentityHashMap removed = new IdentityHashMap(toRemove.size());
+
+    for (Iterator it = toRemove.iterator(); it.hasNext();) {
+      Object listener = it.next();
+      removed.put(listener, listener);
+    }
+
+    synchronized (this) {
+      removeListeners(removed);
+    }
+  }
+
+  private void removeListeners(IdentityHashMap toRemove) {
+    SignalListener[] l = listeners;
+    SignalListener[] kept = new SignalListener[l.length];
+    int count = 0;
+
+    for (int i = 0; i < l.length; i++) {
+      if (!toRemove.containsKey(l[i]))
+        kept[count++] = l[i];
+    }
+
+    if (count == l.length)
+      return;
+
+    if (count == 0)
+      listeners = NO_LISTENERS;
+    else {
+      SignalListener[] newListeners = new SignalListener[count];
+      System.arraycopy(kept, 0, newListeners, 0, count);
+      listeners = newListeners;
+    }
+
+    if (count == 0)
+      lastListenerRemoved();
+
+    for (int i = count; i < l.length; i++)
+      listenerRemoved();
   }
 
 }